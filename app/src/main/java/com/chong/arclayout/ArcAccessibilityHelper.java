@@ -0,0 +1,111 @@
+package com.chong.arclayout;
+
+import android.graphics.Rect;
+import android.os.Bundle;
+import android.support.v4.view.accessibility.AccessibilityNodeInfoCompat;
+import android.support.v4.widget.ExploreByTouchHelper;
+import android.text.TextUtils;
+import android.view.View;
+import android.view.ViewStub;
+import android.view.accessibility.AccessibilityEvent;
+import android.widget.TextView;
+
+import java.util.List;
+
+/**
+ * 子菜单的虚拟无障碍节点
+ * <p>
+ * 子菜单本身不提供给无障碍服务，而是由 ArcLayout 按位置表提供虚拟节点：节点的位置直接由位置表计算，
+ * 触摸浏览使用命中索引，都不会触发测量、布局；展开、关闭时只在结束后通知一次节点树变化，
+ * 而不是每个子菜单的可见性变化都让无障碍服务重建节点树。虚拟节点的 id 为子菜单序号，从 0 开始。
+ */
+final class ArcAccessibilityHelper extends ExploreByTouchHelper {
+    private final ArcLayout mLayout;
+    private final Rect mTempRect = new Rect();
+
+    ArcAccessibilityHelper(ArcLayout layout) {
+        super(layout);
+        mLayout = layout;
+    }
+
+    @Override
+    protected int getVirtualViewAt(float x, float y) {
+        int index = mLayout.hitTestItem(x, y);
+        // 没有命中子菜单时交给主按钮等实际的子 view
+        return index >= 0 ? index : INVALID_ID;
+    }
+
+    @Override
+    protected void getVisibleVirtualViews(List<Integer> virtualViewIds) {
+        if (!mLayout.isExpanded()) {
+            return;
+        }
+        int itemCount = mLayout.getChildCount() - 1;
+        for (int i = 0; i < itemCount; i++) {
+            if (!(mLayout.getChildAt(i + 1) instanceof ViewStub)) {
+                virtualViewIds.add(i);
+            }
+        }
+    }
+
+    @Override
+    protected void onPopulateEventForVirtualView(int virtualViewId, AccessibilityEvent event) {
+        event.setContentDescription(getItemDescription(virtualViewId));
+    }
+
+    @Override
+    protected void onPopulateNodeForVirtualView(int virtualViewId, AccessibilityNodeInfoCompat node) {
+        View child = getItem(virtualViewId);
+        node.setContentDescription(getItemDescription(virtualViewId));
+        if (child == null) {
+            // 子菜单已被移除，节点即将随节点树的刷新消失
+            mTempRect.setEmpty();
+            node.setBoundsInParent(mTempRect);
+            return;
+        }
+        mLayout.getItemBounds(virtualViewId, mTempRect);
+        node.setBoundsInParent(mTempRect);
+        node.setClassName(child.getClass().getName());
+        node.setEnabled(child.isEnabled());
+        node.setFocusable(true);
+        node.setClickable(true);
+        node.addAction(AccessibilityNodeInfoCompat.ACTION_CLICK);
+    }
+
+    @Override
+    protected boolean onPerformActionForVirtualView(int virtualViewId, int action, Bundle arguments) {
+        if (action != AccessibilityNodeInfoCompat.ACTION_CLICK
+                || !mLayout.performItemClick(virtualViewId)) {
+            return false;
+        }
+        sendEventForVirtualView(virtualViewId, AccessibilityEvent.TYPE_VIEW_CLICKED);
+        return true;
+    }
+
+    private View getItem(int index) {
+        if (index < 0 || index >= mLayout.getChildCount() - 1) {
+            return null;
+        }
+        return mLayout.getChildAt(index + 1);
+    }
+
+    /**
+     * 子菜单的描述：依次使用 contentDescription、文字、字符串 tag，都没有时使用按位置编号的默认描述
+     */
+    private CharSequence getItemDescription(int index) {
+        View child = getItem(index);
+        if (child != null) {
+            CharSequence description = child.getContentDescription();
+            if (TextUtils.isEmpty(description) && child instanceof TextView) {
+                description = ((TextView) child).getText();
+            }
+            if (TextUtils.isEmpty(description) && child.getTag() instanceof CharSequence) {
+                description = (CharSequence) child.getTag();
+            }
+            if (!TextUtils.isEmpty(description)) {
+                return description;
+            }
+        }
+        return mLayout.getResources().getString(R.string.arc_menu_item, index + 1);
+    }
+}
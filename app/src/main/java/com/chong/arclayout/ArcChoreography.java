@@ -0,0 +1,191 @@
+package com.chong.arclayout;
+
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.BounceInterpolator;
+import android.view.animation.Interpolator;
+
+/**
+ * 子菜单展开、关闭的编排方式
+ * <p>
+ * 决定子菜单依次开始动画的顺序、相邻两个子菜单开始时间的间隔，以及每个子菜单使用的插值器。
+ * 对象创建后不可修改，可以在多个 ArcLayout 之间共用：
+ * <pre>
+ * arcLayout.setChoreography(new ArcChoreography.Builder()
+ *         .setOrder(ArcChoreography.Order.CENTER_OUT)
+ *         .setStep(40)
+ *         .build());
+ * </pre>
+ */
+public final class ArcChoreography {
+    /**
+     * 按 ArcLayout 的 stagger 计算间隔：第 i 个开始的子菜单延迟 i * stagger / 子 view 数量
+     */
+    public static final int STEP_AUTO = -1;
+
+    /**
+     * 插值器没有状态，所有菜单共用
+     */
+    private static final Interpolator DEFAULT_OPEN_INTERPOLATOR = new BounceInterpolator();
+    private static final Interpolator DEFAULT_CLOSE_INTERPOLATOR = new AccelerateDecelerateInterpolator();
+
+    /**
+     * 默认编排：按顺序依次开始，展开时回弹，关闭时先加速后减速
+     */
+    static final ArcChoreography DEFAULT = new Builder().build();
+
+    /**
+     * 子菜单依次开始动画的顺序
+     */
+    public enum Order {
+        /**
+         * 从第一个子菜单到最后一个
+         */
+        SEQUENTIAL,
+        /**
+         * 从最后一个子菜单到第一个
+         */
+        REVERSE,
+        /**
+         * 从弧的中间向两端，与中间距离相同的子菜单同时开始
+         */
+        CENTER_OUT
+    }
+
+    /**
+     * 为每个子菜单单独指定插值器
+     */
+    public interface ItemInterpolator {
+        /**
+         * @param index     子菜单序号，从 0 开始，不含主按钮
+         * @param itemCount 子菜单数量
+         * @param open      true 展开;false 关闭
+         * @return 插值器，会在每一帧调用，不要在这里创建新对象
+         */
+        Interpolator getInterpolator(int index, int itemCount, boolean open);
+    }
+
+    private final Order mOrder;
+    private final int mStep;
+    private final Interpolator mOpenInterpolator;
+    private final Interpolator mCloseInterpolator;
+    private final ItemInterpolator mItemInterpolator;
+
+    private ArcChoreography(Builder builder) {
+        mOrder = builder.mOrder;
+        mStep = builder.mStep;
+        mOpenInterpolator = builder.mOpenInterpolator;
+        mCloseInterpolator = builder.mCloseInterpolator;
+        mItemInterpolator = builder.mItemInterpolator;
+    }
+
+    public Order getOrder() {
+        return mOrder;
+    }
+
+    /**
+     * 相邻两个子菜单开始时间的间隔，单位毫秒，{@link #STEP_AUTO} 表示按 stagger 计算
+     */
+    public int getStep() {
+        return mStep;
+    }
+
+    /**
+     * 第 index 个子菜单在本次展开/关闭中的排序，同时开始的子菜单排序相同
+     */
+    int rankOf(int index, int itemCount) {
+        switch (mOrder) {
+            case REVERSE:
+                return itemCount - 1 - index;
+            case CENTER_OUT:
+                return (int) Math.abs(index - (itemCount - 1) / 2f);
+            default:
+                return index;
+        }
+    }
+
+    /**
+     * 第 index 个子菜单延迟开始的时间
+     *
+     * @param stagger ArcLayout 的总间隔，间隔为 {@link #STEP_AUTO} 时使用
+     */
+    int getStartDelay(int index, int itemCount, int stagger) {
+        int rank = rankOf(index, itemCount);
+        if (mStep == STEP_AUTO) {
+            return rank * stagger / (itemCount + 1);
+        }
+        return rank * mStep;
+    }
+
+    Interpolator getInterpolator(int index, int itemCount, boolean open) {
+        if (mItemInterpolator != null) {
+            Interpolator interpolator = mItemInterpolator.getInterpolator(index, itemCount, open);
+            if (interpolator != null) {
+                return interpolator;
+            }
+        }
+        return open ? mOpenInterpolator : mCloseInterpolator;
+    }
+
+    public Builder buildUpon() {
+        return new Builder(this);
+    }
+
+    /**
+     * ArcChoreography 的构建器，默认值与 {@link #DEFAULT} 相同
+     */
+    public static final class Builder {
+        private Order mOrder = Order.SEQUENTIAL;
+        private int mStep = STEP_AUTO;
+        private Interpolator mOpenInterpolator = DEFAULT_OPEN_INTERPOLATOR;
+        private Interpolator mCloseInterpolator = DEFAULT_CLOSE_INTERPOLATOR;
+        private ItemInterpolator mItemInterpolator;
+
+        public Builder() {
+        }
+
+        Builder(ArcChoreography choreography) {
+            mOrder = choreography.mOrder;
+            mStep = choreography.mStep;
+            mOpenInterpolator = choreography.mOpenInterpolator;
+            mCloseInterpolator = choreography.mCloseInterpolator;
+            mItemInterpolator = choreography.mItemInterpolator;
+        }
+
+        public Builder setOrder(Order order) {
+            if (order == null) {
+                throw new IllegalArgumentException("order == null");
+            }
+            mOrder = order;
+            return this;
+        }
+
+        /**
+         * @param step 相邻两个子菜单开始时间的间隔，单位毫秒，{@link #STEP_AUTO} 表示按 stagger 计算
+         */
+        public Builder setStep(int step) {
+            mStep = step < 0 ? STEP_AUTO : step;
+            return this;
+        }
+
+        /**
+         * 设置所有子菜单共用的插值器，null 表示使用默认值
+         */
+        public Builder setInterpolators(Interpolator openInterpolator, Interpolator closeInterpolator) {
+            mOpenInterpolator = openInterpolator != null ? openInterpolator : DEFAULT_OPEN_INTERPOLATOR;
+            mCloseInterpolator = closeInterpolator != null ? closeInterpolator : DEFAULT_CLOSE_INTERPOLATOR;
+            return this;
+        }
+
+        /**
+         * 为每个子菜单单独指定插值器，返回 null 的子菜单使用 {@link #setInterpolators} 设置的插值器
+         */
+        public Builder setItemInterpolator(ItemInterpolator itemInterpolator) {
+            mItemInterpolator = itemInterpolator;
+            return this;
+        }
+
+        public ArcChoreography build() {
+            return new ArcChoreography(this);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.chong.arclayout;
+
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.Interpolator;
+
+/**
+ * 点击子菜单后的反馈效果
+ * <p>
+ * 决定被点击的子菜单和其余子菜单在菜单关闭过程中最终的缩放和透明度，以及其余子菜单
+ * 按与被点击子菜单的距离依次开始的间隔。所有动画实现方式都按同一组数值播放，
+ * 对象创建后不可修改，可以在多个 ArcLayout 之间共用。除内置效果外也可以自定义：
+ * <pre>
+ * arcLayout.setClickEffect(new ArcClickEffect.Builder()
+ *         .setSelected(2f, 0f)
+ *         .setOthers(1f, 0f)
+ *         .setRippleStep(30)
+ *         .build());
+ * </pre>
+ */
+public final class ArcClickEffect {
+    /**
+     * 插值器没有状态，所有菜单共用
+     */
+    private static final Interpolator DEFAULT_INTERPOLATOR = new AccelerateDecelerateInterpolator();
+
+    /**
+     * 被点击的子菜单放大到 4 倍并淡出，其余子菜单缩小消失，默认效果
+     */
+    public static final ArcClickEffect SCALE_BURST = new Builder().build();
+    /**
+     * 被点击的子菜单放大淡出，其余子菜单按与它的距离依次缩小淡出，像波纹一样向外扩散
+     */
+    public static final ArcClickEffect RIPPLE_OUT = new Builder()
+            .setSelected(2f, 0f)
+            .setOthers(0.5f, 0f)
+            .setRippleStep(40)
+            .build();
+    /**
+     * 所有子菜单原地淡出
+     */
+    public static final ArcClickEffect FADE = new Builder()
+            .setSelected(1f, 0f)
+            .setOthers(1f, 0f)
+            .build();
+
+    private final float mSelectedScale;
+    private final float mSelectedAlpha;
+    private final float mOtherScale;
+    private final float mOtherAlpha;
+    private final int mRippleStep;
+    private final Interpolator mInterpolator;
+
+    private ArcClickEffect(Builder builder) {
+        mSelectedScale = builder.mSelectedScale;
+        mSelectedAlpha = builder.mSelectedAlpha;
+        mOtherScale = builder.mOtherScale;
+        mOtherAlpha = builder.mOtherAlpha;
+        mRippleStep = builder.mRippleStep;
+        mInterpolator = builder.mInterpolator;
+    }
+
+    /**
+     * 动画结束时子菜单的缩放
+     *
+     * @param selected 是否为被点击的子菜单
+     */
+    public float getScale(boolean selected) {
+        return selected ? mSelectedScale : mOtherScale;
+    }
+
+    /**
+     * 动画结束时子菜单的透明度
+     *
+     * @param selected 是否为被点击的子菜单
+     */
+    public float getAlpha(boolean selected) {
+        return selected ? mSelectedAlpha : mOtherAlpha;
+    }
+
+    /**
+     * 与被点击的子菜单每相隔一个，开始时间延迟的毫秒数，0 表示同时开始
+     */
+    public int getRippleStep() {
+        return mRippleStep;
+    }
+
+    /**
+     * 第 index 个子菜单延迟开始的时间
+     *
+     * @param selectedIndex 被点击的子菜单序号
+     */
+    int getStartDelay(int index, int selectedIndex) {
+        return Math.abs(index - selectedIndex) * mRippleStep;
+    }
+
+    Interpolator getInterpolator() {
+        return mInterpolator;
+    }
+
+    public Builder buildUpon() {
+        return new Builder(this);
+    }
+
+    /**
+     * ArcClickEffect 的构建器，默认值与 {@link #SCALE_BURST} 相同
+     */
+    public static final class Builder {
+        private float mSelectedScale = 4f;
+        private float mSelectedAlpha = 0f;
+        private float mOtherScale = 0f;
+        private float mOtherAlpha = 0f;
+        private int mRippleStep;
+        private Interpolator mInterpolator = DEFAULT_INTERPOLATOR;
+
+        public Builder() {
+        }
+
+        Builder(ArcClickEffect effect) {
+            mSelectedScale = effect.mSelectedScale;
+            mSelectedAlpha = effect.mSelectedAlpha;
+            mOtherScale = effect.mOtherScale;
+            mOtherAlpha = effect.mOtherAlpha;
+            mRippleStep = effect.mRippleStep;
+            mInterpolator = effect.mInterpolator;
+        }
+
+        /**
+         * 设置被点击的子菜单动画结束时的缩放和透明度
+         */
+        public Builder setSelected(float scale, float alpha) {
+            mSelectedScale = scale;
+            mSelectedAlpha = alpha;
+            return this;
+        }
+
+        /**
+         * 设置其余子菜单动画结束时的缩放和透明度
+         */
+        public Builder setOthers(float scale, float alpha) {
+            mOtherScale = scale;
+            mOtherAlpha = alpha;
+            return this;
+        }
+
+        /**
+         * @param rippleStep 与被点击的子菜单每相隔一个，开始时间延迟的毫秒数，0 表示同时开始
+         */
+        public Builder setRippleStep(int rippleStep) {
+            mRippleStep = Math.max(0, rippleStep);
+            return this;
+        }
+
+        /**
+         * 设置插值器，null 表示先加速后减速
+         */
+        public Builder setInterpolator(Interpolator interpolator) {
+            mInterpolator = interpolator != null ? interpolator : DEFAULT_INTERPOLATOR;
+            return this;
+        }
+
+        public ArcClickEffect build() {
+            return new ArcClickEffect(this);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.chong.arclayout;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.os.AsyncTask;
+import android.support.v4.content.ContextCompat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * 菜单图标的共享缓存
+ * <p>
+ * 按资源 id 缓存 Drawable 的 ConstantState，所有 ArcLayout 共用：同一个图标只解码一次，
+ * 每次取得的 Drawable 由 ConstantState 创建，共用同一份位图，各自的状态（透明度、bounds 等）互不影响。
+ * 图标可以在后台线程预先加载，之后在主线程取得时不需要解码。
+ * 缓存数量有上限，超过时移除最久未使用的图标。
+ */
+public final class ArcDrawableCache {
+    /**
+     * 最多缓存的图标数量
+     */
+    static final int MAX_CACHED_DRAWABLES = 32;
+
+    private static ArcDrawableCache sInstance;
+
+    private final Resources mResources;
+    private final Context mContext;
+    private final Executor mExecutor;
+    private final LinkedHashMap<Integer, Drawable.ConstantState> mCache;
+    /**
+     * 实际从资源加载的次数，供测试检查缓存是否生效
+     */
+    private int mLoadCount;
+
+    ArcDrawableCache(Context context, int maxSize, Executor executor) {
+        mContext = context;
+        mResources = context.getResources();
+        mExecutor = executor;
+        final int max = maxSize;
+        mCache = new LinkedHashMap<Integer, Drawable.ConstantState>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Drawable.ConstantState> eldest) {
+                return size() > max;
+            }
+        };
+    }
+
+    /**
+     * 进程内共用的缓存
+     */
+    public static synchronized ArcDrawableCache getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new ArcDrawableCache(context.getApplicationContext(), MAX_CACHED_DRAWABLES,
+                    AsyncTask.THREAD_POOL_EXECUTOR);
+        }
+        return sInstance;
+    }
+
+    /**
+     * 取得图标，已缓存时由 ConstantState 创建，不需要解码
+     *
+     * @param resId 图标资源 id
+     * @return 新的 Drawable 实例，与其它实例共用位图
+     */
+    public Drawable getDrawable(int resId) {
+        Drawable.ConstantState state;
+        synchronized (mCache) {
+            state = mCache.get(resId);
+        }
+        if (state != null) {
+            return state.newDrawable(mResources);
+        }
+        return load(resId);
+    }
+
+    /**
+     * 在后台线程加载尚未缓存的图标
+     *
+     * @param resIds 图标资源 id，0 会被忽略
+     */
+    public void preload(final int... resIds) {
+        synchronized (mCache) {
+            boolean cached = true;
+            for (int resId : resIds) {
+                if (resId != 0 && !mCache.containsKey(resId)) {
+                    cached = false;
+                    break;
+                }
+            }
+            if (cached) {
+                return;
+            }
+        }
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                for (int resId : resIds) {
+                    if (resId == 0) {
+                        continue;
+                    }
+                    synchronized (mCache) {
+                        if (mCache.containsKey(resId)) {
+                            continue;
+                        }
+                    }
+                    load(resId);
+                }
+            }
+        });
+    }
+
+    private Drawable load(int resId) {
+        Drawable drawable = ContextCompat.getDrawable(mContext, resId);
+        Drawable.ConstantState state = drawable != null ? drawable.getConstantState() : null;
+        synchronized (mCache) {
+            mLoadCount++;
+            if (state != null) {
+                mCache.put(resId, state);
+            }
+        }
+        return drawable;
+    }
+
+    /**
+     * 清空缓存，例如内存不足时
+     */
+    public void clear() {
+        synchronized (mCache) {
+            mCache.clear();
+        }
+    }
+
+    int getCacheSize() {
+        synchronized (mCache) {
+            return mCache.size();
+        }
+    }
+
+    int getLoadCount() {
+        synchronized (mCache) {
+            return mLoadCount;
+        }
+    }
+}
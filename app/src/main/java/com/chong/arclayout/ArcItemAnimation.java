@@ -0,0 +1,122 @@
+package com.chong.arclayout;
+
+import android.graphics.Matrix;
+import android.view.animation.Animation;
+import android.view.animation.Transformation;
+
+/**
+ * 可重复使用的子菜单动画
+ * <p>
+ * 同时包含平移、透明度和缩放，起止值可以通过 set 方法重新设置，
+ * 避免每次展开/关闭时重新创建 AnimationSet、TranslateAnimation 等对象。
+ */
+class ArcItemAnimation extends Animation {
+    private float mFromX;
+    private float mToX;
+    private float mFromY;
+    private float mToY;
+    private float mFromAlpha = 1f;
+    private float mToAlpha = 1f;
+    private float mFromScale = 1f;
+    private float mToScale = 1f;
+
+    /**
+     * 缩放中心，相对自身
+     */
+    private float mPivotX;
+    private float mPivotY;
+
+    /**
+     * 最近一次应用的平移和透明度，反向播放时作为新的起点；尚未绘制时为起始值
+     */
+    private float mCurrentX;
+    private float mCurrentY;
+    private float mCurrentAlpha = 1f;
+
+    /**
+     * 设置平移的起止值
+     */
+    ArcItemAnimation setTranslate(float fromX, float toX, float fromY, float toY) {
+        mFromX = fromX;
+        mToX = toX;
+        mFromY = fromY;
+        mToY = toY;
+        mCurrentX = fromX;
+        mCurrentY = fromY;
+        return this;
+    }
+
+    /**
+     * 设置透明度的起止值
+     */
+    ArcItemAnimation setAlpha(float fromAlpha, float toAlpha) {
+        mFromAlpha = fromAlpha;
+        mToAlpha = toAlpha;
+        mCurrentAlpha = fromAlpha;
+        return this;
+    }
+
+    /**
+     * 设置缩放的起止值，以自身中心缩放
+     */
+    ArcItemAnimation setScale(float fromScale, float toScale) {
+        mFromScale = fromScale;
+        mToScale = toScale;
+        return this;
+    }
+
+    @Override
+    public void initialize(int width, int height, int parentWidth, int parentHeight) {
+        super.initialize(width, height, parentWidth, parentHeight);
+        mPivotX = width * 0.5f;
+        mPivotY = height * 0.5f;
+    }
+
+    @Override
+    protected void applyTransformation(float interpolatedTime, Transformation t) {
+        float scale = mFromScale + (mToScale - mFromScale) * interpolatedTime;
+        float dx = mFromX + (mToX - mFromX) * interpolatedTime;
+        float dy = mFromY + (mToY - mFromY) * interpolatedTime;
+
+        Matrix matrix = t.getMatrix();
+        if (scale != 1f) {
+            matrix.setScale(scale, scale, mPivotX, mPivotY);
+            matrix.postTranslate(dx, dy);
+        } else {
+            matrix.setTranslate(dx, dy);
+        }
+        float alpha = mFromAlpha + (mToAlpha - mFromAlpha) * interpolatedTime;
+        t.setAlpha(alpha);
+        mCurrentX = dx;
+        mCurrentY = dy;
+        mCurrentAlpha = alpha;
+    }
+
+    /**
+     * 从当前位置移动到目标位置剩余的距离占完整平移距离的比例，用于反向播放时缩短持续时间
+     *
+     * @param translateX 完整平移的 x 方向距离
+     * @param translateY 完整平移的 y 方向距离
+     * @return 0 到 1 之间
+     */
+    static float remainingFraction(float currentX, float currentY, float targetX, float targetY,
+                                   int translateX, int translateY) {
+        double full = Math.hypot(translateX, translateY);
+        if (full == 0) {
+            return 1f;
+        }
+        return (float) Math.min(1.0, Math.hypot(targetX - currentX, targetY - currentY) / full);
+    }
+
+    float getCurrentX() {
+        return mCurrentX;
+    }
+
+    float getCurrentY() {
+        return mCurrentY;
+    }
+
+    float getCurrentAlpha() {
+        return mCurrentAlpha;
+    }
+}
@@ -0,0 +1,67 @@
+package com.chong.arclayout;
+
+import android.view.View;
+import android.view.animation.Interpolator;
+
+/**
+ * 子菜单展开、关闭和点击动画的实现方式
+ * <p>
+ * ArcLayout 负责计算位置并切换状态，具体动画由实现类完成，
+ * 实现类还负责在动画结束且菜单已关闭时隐藏子菜单，并通知 ArcLayout 动画结束。
+ */
+interface ArcItemAnimator {
+
+    /**
+     * 展开或关闭单个子菜单
+     *
+     * @param child       子菜单
+     * @param index       子菜单序号，从 0 开始，不含主按钮
+     * @param open        true 展开;false 关闭
+     * @param translateX  子菜单从自身位置移动到主按钮位置的 x 方向距离
+     * @param translateY  子菜单从自身位置移动到主按钮位置的 y 方向距离
+     * @param duration    动画持续时间
+     * @param startOffset 动画延迟开始的时间
+     * @param interpolator 插值器，由 ArcChoreography 为每个子菜单指定
+     * @param fromCurrent true 打断正在进行的动画，从当前进度向目标位置移动，持续时间按剩余距离缩短;
+     *                    false 从起点开始完整播放
+     */
+    void animateToggle(View child, int index, boolean open, int translateX, int translateY,
+                       int duration, int startOffset, Interpolator interpolator, boolean fromCurrent);
+
+    /**
+     * 展开状态下子菜单从原位置移动到新位置，用于增删子菜单后其余子菜单的移动
+     *
+     * @param child    子菜单，已布局在新位置
+     * @param index    子菜单序号，从 0 开始，不含主按钮
+     * @param fromX    原位置相对新位置的 x 方向距离
+     * @param fromY    原位置相对新位置的 y 方向距离
+     * @param duration 动画持续时间
+     */
+    void animateMove(View child, int index, int fromX, int fromY, int duration);
+
+    /**
+     * 子菜单被点击后的动画，从当前状态缩放、淡出到 {@link ArcClickEffect} 指定的值
+     *
+     * @param child        子菜单
+     * @param index        子菜单序号，从 0 开始，不含主按钮
+     * @param toScale      动画结束时的缩放
+     * @param toAlpha      动画结束时的透明度
+     * @param duration     动画持续时间
+     * @param startOffset  动画延迟开始的时间
+     * @param interpolator 插值器
+     */
+    void animateClick(View child, int index, float toScale, float toAlpha, int duration,
+                      int startOffset, Interpolator interpolator);
+
+    /**
+     * 展开、关闭时是否同时改变透明度，对之后开始的展开/关闭生效
+     * <p>
+     * 关闭后子菜单只平移，实现类也不再为其使用硬件层，用于降低动画开销
+     */
+    void setAlphaEnabled(boolean alphaEnabled);
+
+    /**
+     * 停止子菜单上的动画并恢复到未变换的状态，切换实现方式时调用
+     */
+    void reset(View child);
+}
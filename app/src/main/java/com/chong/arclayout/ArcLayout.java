@@ -2,26 +2,64 @@ package com.chong.arclayout;
 
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.database.DataSetObserver;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.provider.Settings;
+import android.support.v4.view.ViewCompat;
 import android.util.AttributeSet;
+import android.util.DisplayMetrics;
 import android.util.TypedValue;
+import android.view.MotionEvent;
+import android.view.SoundEffectConstants;
 import android.view.View;
 import android.view.View.OnClickListener;
 import android.view.ViewGroup;
-import android.view.animation.AlphaAnimation;
-import android.view.animation.Animation;
-import android.view.animation.Animation.AnimationListener;
-import android.view.animation.AnimationSet;
-import android.view.animation.BounceInterpolator;
-import android.view.animation.RotateAnimation;
-import android.view.animation.ScaleAnimation;
-import android.view.animation.TranslateAnimation;
+import android.view.ViewConfiguration;
+import android.view.ViewStub;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.Interpolator;
+import android.view.animation.Transformation;
+import android.widget.Adapter;
+import android.widget.ImageView;
+
+import java.util.ArrayList;
+import java.util.List;
 
 
 public class ArcLayout extends ViewGroup implements OnClickListener {
-    private static final int LOCATION_LEFT_TOP = 0;
-    private static final int LOCATION_LEFT_BOTTOM = 1;
-    private static final int LOCATION_RIGHT_TOP = 2;
-    private static final int LOCATION_RIGHT_BOTTOM = 3;
+    static final int LOCATION_LEFT_TOP = 0;
+    static final int LOCATION_LEFT_BOTTOM = 1;
+    static final int LOCATION_RIGHT_TOP = 2;
+    static final int LOCATION_RIGHT_BOTTOM = 3;
+    private static final int ANIM_BACKEND_VIEW = 0;
+    private static final int ANIM_BACKEND_PROPERTY = 1;
+    private static final int ANIM_BACKEND_FRAME = 2;
+    private static final int CLICK_EFFECT_SCALE_BURST = 0;
+    private static final int CLICK_EFFECT_RIPPLE_OUT = 1;
+    private static final int CLICK_EFFECT_FADE = 2;
+    /**
+     * 超出帧预算的帧超过 1/4 时认为帧率不足
+     */
+    private static final int JANK_FRAME_RATIO = 4;
+    /**
+     * 帧率不足后，之后的几次展开/关闭使用 REDUCED，期间帧率恢复才回到 FULL，避免两种模式来回切换
+     */
+    private static final int REDUCED_TRANSITIONS = 4;
+    /**
+     * REDUCED 使用的插值器，替代回弹等超出终点的插值器
+     */
+    private static final Interpolator REDUCED_INTERPOLATOR = new DecelerateInterpolator();
+    /**
+     * 焦点离开菜单
+     */
+    static final int NO_FOCUS_ITEM = Integer.MIN_VALUE;
     /**
      * 主按钮位置，默认右下
      */
@@ -30,6 +68,107 @@ public class ArcLayout extends ViewGroup implements OnClickListener {
      * 展开弧形半径
      */
     private int mRadius;
+    /**
+     * 弧形起始角度，0 为指向布局内部的竖直方向，90 为水平方向，单位度
+     */
+    private float mStartAngle = 0f;
+    /**
+     * 弧形扫过的角度，默认四分之一圆，360 为整圆，单位度
+     */
+    private float mSweepAngle = 90f;
+    /**
+     * 子菜单在弧上重叠时是否自动排到外圈
+     */
+    private boolean mAutoRing = false;
+    /**
+     * 相邻两圈的半径差，0 表示使用子菜单的尺寸
+     */
+    private int mRingSpacing = 0;
+    /**
+     * 是否按窗口可见区域自动选择弧的方向和扫过角度
+     */
+    private boolean mAutoPlacement;
+    /**
+     * 窗口可见区域，屏幕坐标，扣除了状态栏、导航栏等系统窗口
+     */
+    private final Rect mVisibleFrame = new Rect();
+    /**
+     * 取得可见区域时根布局在屏幕上的位置、尺寸和父布局给出的 MeasureSpec，都不变时不重新取得可见区域
+     */
+    private final int[] mWindowBounds = new int[6];
+    private boolean mVisibleFrameValid;
+    private final int[] mLocationOnScreen = new int[2];
+    /**
+     * 主按钮所在角落与可见区域同侧边缘的距离，自动定位按这个距离计算可用空间；
+     * 窗口尺寸变化时菜单通常与窗口边缘保持相同的距离，测量时不需要知道新的位置
+     */
+    private int mFitGapX;
+    private int mFitGapY;
+    /**
+     * 布局后得到的距离与测量时使用的不同，并且改变了选择的弧时，在下一帧按实际位置重新测量
+     */
+    private final Runnable mRefitRunnable = new Runnable() {
+        @Override
+        public void run() {
+            requestLayout();
+        }
+    };
+    /**
+     * 子菜单测量尺寸中的最大值，用于判断是否重叠
+     */
+    private int mMaxItemSize;
+    /**
+     * 测量、定位子 view，位置表由输入相同的 ArcLayout 共用
+     */
+    private final ArcPlacementEngine mEngine = new ArcPlacementEngine();
+    /**
+     * 子菜单位置表，onLayout 与 toggleMenu 共用，取自 mEngine 当前的位置表
+     */
+    private ArcGeometry mGeometry = new ArcGeometry();
+    /**
+     * 位置表在上次布局之后是否发生变化
+     */
+    private boolean mGeometryChanged;
+    /**
+     * 子菜单的触摸命中索引，布局或子菜单可见性变化后重新建立
+     */
+    private final ArcHitIndex mHitIndex = new ArcHitIndex();
+    private boolean mHitIndexDirty = true;
+    /**
+     * 手指移动超过该距离后不再视为点击
+     */
+    private int mTouchSlop;
+    /**
+     * 子菜单触摸区域向外扩展的距离，默认与 mTouchSlop 相同
+     */
+    private int mItemTouchSlop;
+    /**
+     * 按下时命中的子菜单序号，-1 表示没有命中
+     */
+    private int mTouchItem = -1;
+    private float mTouchDownX;
+    private float mTouchDownY;
+    /**
+     * 子菜单的虚拟无障碍节点
+     */
+    private final ArcAccessibilityHelper mAccessibilityHelper;
+    /**
+     * 按位置表计算单个子 view 位置时复用
+     */
+    private final int[] mItemBounds = new int[ArcPlacementEngine.RECT_SIZE];
+    private final Rect mFocusBounds = new Rect();
+    /**
+     * 所有子菜单共用的点击监听器，处理键盘、无障碍等非触摸的点击；触摸点击由命中索引处理
+     */
+    private final OnClickListener mItemClickListener = new OnClickListener() {
+        @Override
+        public void onClick(View v) {
+            int position = indexOfChild(v);
+            if (position > 0 && isExpanded()) {
+                onItemClick(v, position);
+            }
+        }
+    };
     /**
      * 展开动画持续时间，默认800ms
      */
@@ -42,24 +181,293 @@ public class ArcLayout extends ViewGroup implements OnClickListener {
      * 子菜单点击后缩放动画的持续时间，默认300ms
      */
     private int mScaleAnimDuration = 300;
+    /**
+     * 子菜单依次展开的总间隔，默认100ms
+     */
+    private int mStagger = 100;
+    /**
+     * 增删子菜单后其余子菜单移动到新位置的动画时长，默认300ms
+     */
+    private int mItemMoveDuration = 300;
+    /**
+     * 通过 addItem、removeItem、setItems 修改了子菜单，下次布局时把其余子菜单从原位置移动到新位置
+     */
+    private boolean mItemsChanged;
+    /**
+     * 下次布局前新加入的子菜单，展开状态下从主按钮位置展开
+     */
+    private final ArrayList<View> mAddedItems = new ArrayList<>();
+    /**
+     * 提供子菜单的 Adapter，为 null 时使用布局文件中的子 view
+     */
+    private Adapter mAdapter;
+    private AdapterDataSetObserver mDataSetObserver;
+    /**
+     * 子菜单 view 的回收池
+     */
+    private final ArcRecycler mRecycler = new ArcRecycler();
+    /**
+     * 当前由 Adapter 绑定的子菜单的 view 类型，依次对应第 1..n 个子 view
+     */
+    private final ArrayList<Integer> mItemViewTypes = new ArrayList<>();
+    /**
+     * Adapter 数据变化后子菜单是否还未重新绑定，菜单关闭时推迟到下次展开再绑定
+     */
+    private boolean mDataChanged;
+    /**
+     * 是否有尚未加载的 ViewStub 子菜单，首次展开时加载
+     */
+    private boolean mHasItemStubs;
+
+    /**
+     * 子菜单动画的实现方式，默认使用 android.view.animation
+     */
+    private AnimBackend mAnimBackend = AnimBackend.VIEW;
+    /**
+     * android.view.animation 实现，同时负责复用动画对象的模式
+     */
+    private final ViewItemAnimator mViewItemAnimator;
+    /**
+     * ViewPropertyAnimator 实现，首次使用时创建
+     */
+    private PropertyItemAnimator mPropertyItemAnimator;
+    /**
+     * 单一帧时钟实现，首次使用时创建
+     */
+    private FrameItemAnimator mFrameItemAnimator;
+    /**
+     * 当前使用的子菜单动画实现
+     */
+    private ArcItemAnimator mItemAnimator;
+    /**
+     * 子菜单依次开始的顺序、间隔和插值器
+     */
+    private ArcChoreography mChoreography = ArcChoreography.DEFAULT;
+    /**
+     * 点击子菜单后的反馈效果
+     */
+    private ArcClickEffect mClickEffect = ArcClickEffect.SCALE_BURST;
+    /**
+     * 是否按系统设置、省电模式和帧率自动选择动画方式
+     */
+    private boolean mAdaptiveMotion;
+    /**
+     * 最近一次展开/关闭使用的动画方式
+     */
+    private MotionMode mMotionMode = MotionMode.FULL;
+    private OnMotionModeChangeListener mMotionModeChangeListener;
+    /**
+     * 帧率不足后剩余的使用 REDUCED 的展开/关闭次数
+     */
+    private int mReducedTransitionsLeft;
+    /**
+     * 展开/关闭期间是否绘制子菜单快照而不是实际的子菜单
+     */
+    private boolean mSnapshotItems;
+    /**
+     * 子菜单快照，开启快照模式后首次绘制时创建
+     */
+    private ItemSnapshotRenderer mSnapshotRenderer;
+    /**
+     * 已创建的动画相关对象（动画、插值器、监听器）数量，供测试统计分配次数
+     */
+    private int mAnimationObjectCount;
+
+    /**
+     * 测量缓存是否有效
+     */
+    private boolean mMeasureCacheValid;
+    /**
+     * 上次测量时父布局给出的 MeasureSpec 和自身 padding
+     */
+    private int mLastWidthMeasureSpec;
+    private int mLastHeightMeasureSpec;
+    private int mLastHorizontalPadding;
+    private int mLastVerticalPadding;
+    /**
+     * 上次测量得到的子 view 尺寸，依次为宽、高
+     */
+    private int[] mChildSizes = new int[0];
+    /**
+     * 上次布局计算的子 view 位置，依次为 left、top、right、bottom
+     */
+    private int[] mChildRects = new int[0];
+    /**
+     * 子 view 尺寸在上次布局之后是否发生变化
+     */
+    private boolean mChildSizeChanged;
+    /**
+     * measureChild 调用次数，以及跳过的测量、布局次数，供测试检查缓存是否生效
+     */
+    private int mMeasureChildCount;
+    private int mSkippedMeasureCount;
+    private int mSkippedLayoutCount;
+    /**
+     * requestLayout 调用次数，供测试检查是否有多余的重新布局
+     */
+    private int mRequestLayoutCount;
 
     /**
-     * 菜单的状态，默认关闭
+     * 菜单的目标状态，默认关闭；切换时立即改变，动画过程见 mTransitionState
      */
     private Status mCurrentStatus = Status.CLOSE;
+    /**
+     * 菜单实际所处的过程，所有子菜单动画结束后才进入 OPEN/CLOSED
+     */
+    private TransitionState mTransitionState = TransitionState.CLOSED;
+    /**
+     * 是否已安排在下一帧执行切换，同一帧内的多次切换只执行一次
+     */
+    private boolean mToggleScheduled;
+    /**
+     * 下一帧执行切换时使用的动画持续时间
+     */
+    private int mPendingToggleDuration;
+    /**
+     * 是否已添加到窗口，未添加时切换立即执行
+     */
+    private boolean mAttached;
+    private final Runnable mToggleRunnable = new Runnable() {
+        @Override
+        public void run() {
+            performToggle();
+        }
+    };
+    /**
+     * 子菜单动画因未绘制等原因没有回调结束时，超时后强制结束本次展开/关闭
+     */
+    private final Runnable mSettleRunnable = new Runnable() {
+        @Override
+        public void run() {
+            settleTransition();
+        }
+    };
     /**
      * 菜单的主按钮
      */
     private View mMainView;
+    /**
+     * 主按钮在关闭、展开状态下的图标资源，0 表示不切换图标
+     */
+    private int mMainIconClosed;
+    private int mMainIconOpen;
+    /**
+     * 由共享缓存创建的主按钮图标，与其它菜单共用位图，切换时不需要解码
+     */
+    private Drawable mClosedIcon;
+    private Drawable mOpenIcon;
+    /**
+     * 添加到窗口时在后台预先加载的图标，包括主按钮的图标，没有时为 null
+     */
+    private int[] mPreloadIcons;
+    private int[] mItemIcons = new int[0];
+    /**
+     * 主按钮的旋转、缩放和图标交叉淡入淡出
+     */
+    private final MainButtonAnimator mMainButtonAnimator;
+    /**
+     * 是否在两个主按钮图标之间交叉淡入淡出，否则状态变化时直接切换
+     */
+    private boolean mMainCrossFade;
 
     private OnMenuItemClickListener mMenuItemClickListener;
+    /**
+     * 最近一次点击的子菜单位置，从 1 开始，-1 表示没有
+     */
+    private int mSelectedPosition = -1;
 
     private OnMainMenuItemClickListener mOnMainMenuItemClickListener;
 
+    private OnMenuMetricsListener mMenuMetricsListener;
+    /**
+     * 管理该菜单的 ArcMenuCoordinator，未注册时为 null
+     */
+    private ArcMenuCoordinator mMenuCoordinator;
+    /**
+     * 统计展开/关闭过程中的帧，注册了 OnMenuMetricsListener 或开启了自适应动画，且系统支持 Choreographer 时才创建
+     */
+    private TransitionFrameTracker mFrameTracker;
+    /**
+     * 帧预算，超过 1.5 倍即认为掉帧
+     */
+    private long mFrameBudgetNanos = TransitionFrameTracker.DEFAULT_FRAME_BUDGET_NANOS;
+    /**
+     * 是否正在统计一次展开/关闭
+     */
+    private boolean mInTransition;
+    /**
+     * 正在统计的展开/关闭的目标状态
+     */
+    private Status mTransitionTarget;
+    private long mTransitionStartTime;
+    /**
+     * 尚未结束的子菜单动画数量
+     */
+    private int mPendingItemAnimations;
+
     public enum Status {
         OPEN, CLOSE
     }
 
+    /**
+     * 菜单展开/关闭的过程
+     */
+    public enum TransitionState {
+        /**
+         * 正在展开
+         */
+        OPENING,
+        /**
+         * 已展开，动画全部结束
+         */
+        OPEN,
+        /**
+         * 正在关闭
+         */
+        CLOSING,
+        /**
+         * 已关闭，动画全部结束
+         */
+        CLOSED
+    }
+
+    /**
+     * 子菜单动画的实现方式
+     */
+    public enum AnimBackend {
+        /**
+         * android.view.animation 补间动画，只改变绘制位置
+         */
+        VIEW,
+        /**
+         * ViewPropertyAnimator 属性动画，使用硬件层并改变子菜单的实际位置
+         */
+        PROPERTY,
+        /**
+         * 同一个 Choreographer 帧回调驱动所有子菜单，每帧只重绘一次父布局，只改变绘制位置
+         */
+        FRAME
+    }
+
+    /**
+     * 展开/关闭的动画方式，开启自适应后每次展开/关闭前重新选择
+     */
+    public enum MotionMode {
+        /**
+         * 完整的动画
+         */
+        FULL,
+        /**
+         * 缩短持续时间和间隔，不使用回弹插值器，不改变透明度也不使用硬件层；
+         * 省电模式或最近的展开/关闭帧率不足时使用
+         */
+        REDUCED,
+        /**
+         * 不播放动画，直接进入最终状态；系统关闭了动画（动画时长缩放为 0）时使用
+         */
+        NONE
+    }
+
     /**
      * 菜单的位置枚举类
      */
@@ -96,6 +504,117 @@ public class ArcLayout extends ViewGroup implements OnClickListener {
         mOnMainMenuItemClickListener = onMainMenuItemClickListener;
     }
 
+    /**
+     * 菜单性能数据的回调接口，未注册时不做任何统计
+     */
+    public interface OnMenuMetricsListener {
+        /**
+         * 展开/关闭开始
+         *
+         * @param target 目标状态
+         */
+        void onTransitionStart(Status target);
+
+        /**
+         * 展开/关闭结束，所有子菜单动画结束或被新的展开/关闭打断时回调
+         *
+         * @param target           目标状态
+         * @param elapsedMillis    实际耗时，包含动画延迟
+         * @param frameCount       期间绘制的帧数，API 16 以下为 0
+         * @param framesOverBudget 期间超出帧预算的帧数，API 16 以下为 0
+         */
+        void onTransitionEnd(Status target, long elapsedMillis, int frameCount, int framesOverBudget);
+
+        /**
+         * 单个子菜单的动画结束
+         *
+         * @param position      子菜单位置，从 1 开始
+         * @param elapsedMillis 距离本次展开/关闭开始的时间
+         */
+        void onItemAnimationEnd(int position, long elapsedMillis);
+
+        /**
+         * 一次 onMeasure 的耗时
+         */
+        void onMeasure(long durationNanos);
+
+        /**
+         * 一次 onLayout 的耗时
+         */
+        void onLayout(long durationNanos);
+    }
+
+    public void setOnMenuMetricsListener(OnMenuMetricsListener menuMetricsListener) {
+        mMenuMetricsListener = menuMetricsListener;
+        if (menuMetricsListener == null && !mAdaptiveMotion) {
+            stopTransitionTracking();
+        }
+    }
+
+    private void stopTransitionTracking() {
+        mInTransition = false;
+        if (mFrameTracker != null) {
+            mFrameTracker.stop();
+        }
+    }
+
+    /**
+     * 设置统计掉帧时使用的帧预算，默认 60Hz
+     *
+     * @param frameBudgetNanos 每帧的时间，单位纳秒
+     */
+    public void setFrameBudgetNanos(long frameBudgetNanos) {
+        mFrameBudgetNanos = frameBudgetNanos;
+        if (mFrameTracker != null) {
+            mFrameTracker.setFrameBudgetNanos(frameBudgetNanos);
+        }
+    }
+
+    /**
+     * 动画方式变化的回调接口
+     */
+    public interface OnMotionModeChangeListener {
+        /**
+         * 展开/关闭前选择的动画方式与上一次不同时回调
+         *
+         * @param mode 本次展开/关闭使用的动画方式
+         */
+        void onMotionModeChanged(MotionMode mode);
+    }
+
+    public void setOnMotionModeChangeListener(OnMotionModeChangeListener motionModeChangeListener) {
+        mMotionModeChangeListener = motionModeChangeListener;
+    }
+
+    /**
+     * 按系统动画时长缩放、省电模式和最近展开/关闭的帧率自动选择动画方式，默认关闭
+     * <p>
+     * 开启后即使没有注册 OnMenuMetricsListener 也会统计展开/关闭期间的帧
+     *
+     * @see MotionMode
+     */
+    public void setAdaptiveMotion(boolean adaptiveMotion) {
+        if (mAdaptiveMotion == adaptiveMotion) {
+            return;
+        }
+        mAdaptiveMotion = adaptiveMotion;
+        mReducedTransitionsLeft = 0;
+        if (!adaptiveMotion && mMenuMetricsListener == null) {
+            stopTransitionTracking();
+        }
+    }
+
+    public boolean isAdaptiveMotion() {
+        return mAdaptiveMotion;
+    }
+
+    /**
+     * 最近一次展开/关闭使用的动画方式，未开启自适应时总是 FULL
+     */
+    public MotionMode getMotionMode() {
+        return mMotionMode;
+    }
+
     /**
      * 主按钮点击后是否需要展开
      */
@@ -121,402 +640,1882 @@ public class ArcLayout extends ViewGroup implements OnClickListener {
     public ArcLayout(Context context, AttributeSet attrs, int defStyle) {
         super(context, attrs, defStyle);
 
-        mRadius = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP,
-                100, getResources().getDisplayMetrics());
+        mTouchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
+        mItemTouchSlop = mTouchSlop;
+        mAccessibilityHelper = new ArcAccessibilityHelper(this);
+        mMainButtonAnimator = new MainButtonAnimator(this);
+        ViewCompat.setAccessibilityDelegate(this, mAccessibilityHelper);
 
         // 获取自定义属性的值
         TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.ArcLayout);
+        applyMenuSpec(ArcMenuSpec.fromTypedArray(a, getResources().getDisplayMetrics()));
+        boolean reuseAnimations = a.getBoolean(R.styleable.ArcLayout_reuse_animations, false);
+        int animBackend = a.getInt(R.styleable.ArcLayout_anim_backend, ANIM_BACKEND_VIEW);
+        int staggerOrder = a.getInt(R.styleable.ArcLayout_stagger_order, 0);
+        int staggerStep = a.getInt(R.styleable.ArcLayout_stagger_step, ArcChoreography.STEP_AUTO);
+        mSnapshotItems = a.getBoolean(R.styleable.ArcLayout_snapshot_items, false);
+        mMainIconClosed = a.getResourceId(R.styleable.ArcLayout_main_icon_closed, 0);
+        mMainIconOpen = a.getResourceId(R.styleable.ArcLayout_main_icon_open, 0);
+        mAdaptiveMotion = a.getBoolean(R.styleable.ArcLayout_adaptive_motion, false);
+        mAutoPlacement = a.getBoolean(R.styleable.ArcLayout_auto_placement, false);
+        mMainButtonAnimator.setTransform(a.getFloat(R.styleable.ArcLayout_main_rotation, 0f),
+                a.getFloat(R.styleable.ArcLayout_main_scale, 1f));
+        mMainCrossFade = a.getBoolean(R.styleable.ArcLayout_main_cross_fade, false);
+        int clickEffect = a.getInt(R.styleable.ArcLayout_click_effect, CLICK_EFFECT_SCALE_BURST);
+        a.recycle();
+        updatePreloadIcons();
+
+        mViewItemAnimator = new ViewItemAnimator(this, reuseAnimations);
+        mItemAnimator = mViewItemAnimator;
+        if (animBackend == ANIM_BACKEND_PROPERTY) {
+            setAnimBackend(AnimBackend.PROPERTY);
+        } else if (animBackend == ANIM_BACKEND_FRAME) {
+            setAnimBackend(AnimBackend.FRAME);
+        }
+        if (clickEffect == CLICK_EFFECT_RIPPLE_OUT) {
+            mClickEffect = ArcClickEffect.RIPPLE_OUT;
+        } else if (clickEffect == CLICK_EFFECT_FADE) {
+            mClickEffect = ArcClickEffect.FADE;
+        }
+        if (staggerOrder != 0 || staggerStep != ArcChoreography.STEP_AUTO) {
+            mChoreography = new ArcChoreography.Builder()
+                    .setOrder(ArcChoreography.Order.values()[staggerOrder])
+                    .setStep(staggerStep)
+                    .build();
+        }
+    }
 
-        int location = a.getInt(R.styleable.ArcLayout_location, LOCATION_RIGHT_BOTTOM);
-        switch (location) {
-            case LOCATION_LEFT_TOP:
-                mLocation = Location.LEFT_TOP;
-                break;
-            case LOCATION_LEFT_BOTTOM:
-                mLocation = Location.LEFT_BOTTOM;
-                break;
-            case LOCATION_RIGHT_TOP:
-                mLocation = Location.RIGHT_TOP;
-                break;
-            case LOCATION_RIGHT_BOTTOM:
-                mLocation = Location.RIGHT_BOTTOM;
+    @Override
+    protected void onFinishInflate() {
+        super.onFinishInflate();
+        for (int i = 1; i < getChildCount(); i++) {
+            if (getChildAt(i) instanceof ViewStub) {
+                mHasItemStubs = true;
                 break;
+            }
         }
-        mRadius = (int) a.getDimension(R.styleable.ArcLayout_arc_radius, TypedValue
-                .applyDimension(TypedValue.COMPLEX_UNIT_DIP, 100,
-                        getResources().getDisplayMetrics()));
-        mAnimOpenDuration = a.getInt(R.styleable.ArcLayout_anim_open_duration, mAnimOpenDuration);
-        mAnimCloseDuration = a.getInt(R.styleable.ArcLayout_anim_close_duration, mAnimCloseDuration);
-        mScaleAnimDuration = a.getInt(R.styleable.ArcLayout_scale_anim_duration, mScaleAnimDuration);
-        mXPadding = (int) a.getDimension(R.styleable.ArcLayout_x_padding, TypedValue
-                .applyDimension(TypedValue.COMPLEX_UNIT_DIP, mXPadding,
-                        getResources().getDisplayMetrics()));
-        mYPadding = (int) a.getDimension(R.styleable.ArcLayout_x_padding, TypedValue
-                .applyDimension(TypedValue.COMPLEX_UNIT_DIP, mYPadding,
-                        getResources().getDisplayMetrics()));
-        a.recycle();
+    }
 
+    @Override
+    public void addView(View child, int index, LayoutParams params) {
+        super.addView(child, index, params);
+        if (child != getChildAt(0)) {
+            // 子菜单由虚拟节点提供给无障碍服务，可见性变化不再改变节点树
+            ViewCompat.setImportantForAccessibility(child,
+                    ViewCompat.IMPORTANT_FOR_ACCESSIBILITY_NO_HIDE_DESCENDANTS);
+        }
     }
 
     @Override
-    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mAttached = true;
+        if (mPreloadIcons != null) {
+            ArcDrawableCache.getInstance(getContext()).preload(mPreloadIcons);
+        }
+        if (mMenuCoordinator != null && isOpen()) {
+            // 离开窗口时已不再记录，重新加入时与其他菜单一样只允许一个展开
+            mMenuCoordinator.onMenuStatusChanged(this, true);
+        }
+    }
 
-        int sizeWidth = MeasureSpec.getSize(widthMeasureSpec);
-        int modeWidth = MeasureSpec.getMode(widthMeasureSpec);
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mAttached = false;
+        mVisibleFrameValid = false;
+        removeCallbacks(mRefitRunnable);
+        // 离开窗口后不再有下一帧，已安排的切换立即执行
+        if (mToggleScheduled) {
+            removeCallbacks(mToggleRunnable);
+            performToggle();
+        }
+        if (mMenuCoordinator != null) {
+            mMenuCoordinator.onMenuDetached(this);
+        }
+        if (mSnapshotRenderer != null) {
+            mSnapshotRenderer.release();
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        long startNanos = mMenuMetricsListener != null ? System.nanoTime() : 0;
+
+        int sizeWidth = MeasureSpec.getSize(widthMeasureSpec);
+        int modeWidth = MeasureSpec.getMode(widthMeasureSpec);
         int sizeHeight = MeasureSpec.getSize(heightMeasureSpec);
         int modeHeight = MeasureSpec.getMode(heightMeasureSpec);
 
-        int width = 0;
-        int height = 0;
-
         int count = getChildCount();
+        int horizontalPadding = getPaddingLeft() + getPaddingRight();
+        int verticalPadding = getPaddingTop() + getPaddingBottom();
+        // 父布局的约束变化时需要重新测量所有子 view，否则只测量请求了重新布局的子 view；
+        // 新加入的子 view 本身处于请求布局的状态，增删子 view 不需要重新测量其余子 view
+        boolean measureAll = !mMeasureCacheValid
+                || widthMeasureSpec != mLastWidthMeasureSpec
+                || heightMeasureSpec != mLastHeightMeasureSpec
+                || horizontalPadding != mLastHorizontalPadding
+                || verticalPadding != mLastVerticalPadding;
+        if (count * 2 != mChildSizes.length) {
+            mChildSizes = new int[count * 2];
+            mChildSizeChanged = true;
+        }
+        boolean measured = false;
+        int maxItemSize = 0;
+
         for (int i = 0; i < count; i++) {
             View child = getChildAt(i);
-            // 测量child
-            measureChild(child, widthMeasureSpec, heightMeasureSpec);
+            if (measureAll || child.isLayoutRequested()) {
+                // 测量child
+                measureChild(child, widthMeasureSpec, heightMeasureSpec);
+                mMeasureChildCount++;
+                measured = true;
+            }
             // 当前子view实际占据的宽度
             int childWidth = child.getMeasuredWidth();
             // 当前子控件实际占据的高度
             int childHeight = child.getMeasuredHeight();
-            if (i == 0 || i == 1) {
-                width += childWidth / 2;
+            if (childWidth != mChildSizes[i * 2] || childHeight != mChildSizes[i * 2 + 1]) {
+                mChildSizes[i * 2] = childWidth;
+                mChildSizes[i * 2 + 1] = childHeight;
+                mChildSizeChanged = true;
             }
-            if (i == 0 || i == count - 1) {
-                height += childHeight / 2;
+            if (i > 0) {
+                maxItemSize = Math.max(maxItemSize, Math.max(childWidth, childHeight));
             }
         }
-
-        width += mRadius + mXPadding;
-        height += mRadius + mYPadding;
-
+        mMaxItemSize = maxItemSize;
+        if (!measured) {
+            mSkippedMeasureCount++;
+        }
+        mMeasureCacheValid = true;
+        mLastWidthMeasureSpec = widthMeasureSpec;
+        mLastHeightMeasureSpec = heightMeasureSpec;
+        mLastHorizontalPadding = horizontalPadding;
+        mLastVerticalPadding = verticalPadding;
+
+        updateGeometry();
+        if (mAutoPlacement && mAttached) {
+            fitToWindow(widthMeasureSpec, heightMeasureSpec);
+        }
         setMeasuredDimension(
-                modeWidth == MeasureSpec.EXACTLY ? sizeWidth : width + getPaddingLeft() + getPaddingRight(),
-                modeHeight == MeasureSpec.EXACTLY ? sizeHeight : height + getPaddingTop() + getPaddingBottom()
+                modeWidth == MeasureSpec.EXACTLY ? sizeWidth : mEngine.measureWidth(mChildSizes, count),
+                modeHeight == MeasureSpec.EXACTLY ? sizeHeight : mEngine.measureHeight(mChildSizes, count)
         );
+        if (mMenuMetricsListener != null) {
+            mMenuMetricsListener.onMeasure(System.nanoTime() - startNanos);
+        }
     }
 
     @Override
     protected void onLayout(boolean changed, int l, int t, int r, int b) {
-        if (changed) {
-            layoutMainButton();
-
+        long startNanos = mMenuMetricsListener != null ? System.nanoTime() : 0;
+        updateGeometry();
+        // 自身位置、子 view 尺寸、顺序和位置表都没有变化时，子 view 的位置不变，跳过本次布局
+        if (changed || mGeometryChanged || mChildSizeChanged || mItemsChanged) {
+            mGeometryChanged = false;
+            mChildSizeChanged = false;
+            invalidateItemSnapshots();
+            mHitIndexDirty = true;
             int count = getChildCount();
+            if (mChildRects.length < count * ArcPlacementEngine.RECT_SIZE) {
+                mChildRects = new int[count * ArcPlacementEngine.RECT_SIZE];
+            }
+            mEngine.layout(mChildSizes, count, getMeasuredWidth(), getMeasuredHeight(), mChildRects);
+            layoutMainButton();
 
+            // 只在展开完成后播放移动动画，展开/关闭过程中子菜单的动画以新位置为准继续
+            boolean animateMoves = mItemsChanged && mTransitionState == TransitionState.OPEN;
             for (int i = 0; i < count - 1; i++) {
                 View child = getChildAt(i + 1);
 
-                child.setVisibility(View.GONE);
-
-                int childLeft = (int) (mRadius * Math.sin(Math.PI / 2 / (count - 2) * i));
-                int childTop = (int) (mRadius * Math.cos(Math.PI / 2 / (count - 2) * i));
-
-                int childWidth = child.getMeasuredWidth();
-                int childHeight = child.getMeasuredHeight();
-
-                // 左上
-                if (mLocation == Location.LEFT_TOP) {
-                    childLeft = getPaddingLeft() + childLeft + mXPadding;
-                    childTop = getPaddingTop() + childTop + mYPadding;
+                if (!isExpanded()) {
+                    hideItem(child);
                 }
-
-                // 左下
-                if (mLocation == Location.LEFT_BOTTOM) {
-                    childLeft = getPaddingLeft() + getPaddingRight() + childLeft + mXPadding;
-                    childTop = getMeasuredHeight() - childHeight - childTop - getPaddingTop() - getPaddingBottom() - mYPadding;
+                int oldLeft = child.getLeft();
+                int oldTop = child.getTop();
+                layoutItem(child, i);
+                if (animateMoves) {
+                    animateItemMove(child, i, oldLeft - child.getLeft(), oldTop - child.getTop());
                 }
+            }
 
-                // 右上
-                if (mLocation == Location.RIGHT_TOP) {
-                    childLeft = getMeasuredWidth() - childWidth - childLeft - getPaddingLeft() - getPaddingRight() - mXPadding;
-                    childTop = getPaddingTop() + getPaddingBottom() + childTop + mYPadding;
+        } else {
+            mSkippedLayoutCount++;
+            // 子 view 尺寸不变但自身请求了布局时仍按原位置 layout，否则它的 onLayout 不会执行
+            int count = getChildCount();
+            for (int i = 0; i < count; i++) {
+                View child = getChildAt(i);
+                if (!child.isLayoutRequested()) {
+                    continue;
                 }
-
-                // 右下
-                if (mLocation == Location.RIGHT_BOTTOM) {
-                    childLeft = getMeasuredWidth() - childWidth - childLeft - getPaddingLeft() - getPaddingRight() - mXPadding;
-                    childTop = getMeasuredHeight() - childHeight - childTop - getPaddingTop() - getPaddingBottom() - mYPadding;
+                if (i == 0) {
+                    layoutMainButton();
+                } else {
+                    layoutItem(child, i - 1);
                 }
-
-                child.layout(childLeft, childTop, childLeft + childWidth, childTop + childHeight);
-
             }
-
+        }
+        mItemsChanged = false;
+        mAddedItems.clear();
+        if (mAutoPlacement && mAttached) {
+            checkFitGap();
+        }
+        if (mMenuMetricsListener != null) {
+            mMenuMetricsListener.onLayout(System.nanoTime() - startNanos);
         }
 
     }
 
+    @Override
+    public void requestLayout() {
+        mRequestLayoutCount++;
+        super.requestLayout();
+    }
+
     /**
-     * 定位主菜单按钮
+     * 隐藏关闭状态的子菜单
+     * <p>
+     * 使用 INVISIBLE 而不是 GONE：子菜单的测量和位置与可见性无关，在 GONE 和 VISIBLE 之间切换
+     * 会让每次展开、关闭都重新测量、布局整个界面。尚未加载的 ViewStub 本身为 GONE，保持不变，
+     * 设置为 INVISIBLE 会立即加载。
      */
-    private void layoutMainButton() {
-        mMainView = getChildAt(0);
-        mMainView.setOnClickListener(this);
-
-        int l = getPaddingLeft() + mXPadding;
-        int t = getPaddingTop() + mYPadding;
-
-        int width = mMainView.getMeasuredWidth();
-        int height = mMainView.getMeasuredHeight();
+    static void hideItem(View child) {
+        if (!(child instanceof ViewStub)) {
+            child.setVisibility(View.INVISIBLE);
+        }
+    }
 
-        switch (mLocation) {
-            case LEFT_TOP:
-                l = getPaddingLeft() + mXPadding;
-                t = getPaddingTop() + mYPadding;
-                break;
-            case LEFT_BOTTOM:
-                l = getPaddingLeft() + mXPadding;
-                t = getMeasuredHeight() - height - getPaddingBottom() - getPaddingTop() - mYPadding;
-                break;
-            case RIGHT_TOP:
-                l = getMeasuredWidth() - width - getPaddingRight() - getPaddingLeft() - mXPadding;
-                t = getPaddingTop() + mYPadding;
-                break;
-            case RIGHT_BOTTOM:
-                l = getMeasuredWidth() - width - getPaddingRight() - getPaddingLeft() - mXPadding;
-                t = getMeasuredHeight() - height - getPaddingBottom() - getPaddingTop() - mYPadding;
-                break;
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        if (!mSnapshotItems || getChildCount() < 2
+                || (mTransitionState != TransitionState.OPENING
+                && mTransitionState != TransitionState.CLOSING)) {
+            super.dispatchDraw(canvas);
+            return;
+        }
+        if (mSnapshotRenderer == null) {
+            mSnapshotRenderer = new ItemSnapshotRenderer();
+        }
+        if (!mSnapshotRenderer.prepare(this)) {
+            super.dispatchDraw(canvas);
+            return;
         }
-        mMainView.layout(l, t, l + width, t + height);
+        // 展开/关闭期间主按钮照常绘制，子菜单只绘制快照
+        long drawingTime = getDrawingTime();
+        View mainView = getChildAt(0);
+        if (mainView.getVisibility() == View.VISIBLE || mainView.getAnimation() != null) {
+            drawChild(canvas, mainView, drawingTime);
+        }
+        for (int i = 0; i < getChildCount() - 1; i++) {
+            mSnapshotRenderer.draw(canvas, this, getChildAt(i + 1), i, drawingTime);
+        }
+        // 属性动画只更新子菜单的属性，不会重绘父布局，需要逐帧重绘直到展开/关闭结束
+        invalidate();
     }
 
     @Override
-    public void onClick(View v) {
+    protected boolean getChildStaticTransformation(View child, Transformation t) {
+        return getItemTransformation(child, t);
+    }
 
-        if (mOnMainMenuItemClickListener != null) {
-            isNeedOpen = mOnMainMenuItemClickListener.onMainClick(v, mCurrentStatus);
+    /**
+     * 子菜单由单一帧时钟驱动时当前帧的变换，其它实现方式返回 false
+     */
+    boolean getItemTransformation(View child, Transformation t) {
+        return mAnimBackend == AnimBackend.FRAME && mFrameItemAnimator.getTransformation(child, t);
+    }
+
+    /**
+     * 按当前子项数量、半径、角度和位置更新位置表，输入不变时不会重新计算
+     */
+    private void updateGeometry() {
+        mEngine.setRadius(mRadius);
+        mEngine.setAngles(mStartAngle, mSweepAngle);
+        mEngine.setCorner(isLocationLeft(), isLocationTop());
+        mEngine.setAutoRing(mAutoRing, mRingSpacing);
+        mEngine.setMargin(mXPadding, mYPadding);
+        mEngine.setPadding(getPaddingLeft(), getPaddingTop(), getPaddingRight(), getPaddingBottom());
+        if (mEngine.update(getChildCount() - 1, mMaxItemSize)) {
+            mGeometry = mEngine.getPlan().getGeometry();
+            mGeometryChanged = true;
         }
+    }
 
-        if (isNeedOpen) {
-            toggleMenu(mCurrentStatus == Status.CLOSE ? mAnimOpenDuration : mAnimCloseDuration);
-//            rotateMainButton(v, 0f, 360f, mAnimDuration);
+    /**
+     * 测量时按窗口可见区域选择弧，选择的弧的尺寸在同一次测量中生效
+     * <p>
+     * 可见区域需要跨进程取得，只在根布局的位置、尺寸或父布局给出的 MeasureSpec 变化时重新取得
+     */
+    private void fitToWindow(int widthMeasureSpec, int heightMeasureSpec) {
+        View root = getRootView();
+        root.getLocationOnScreen(mLocationOnScreen);
+        int[] bounds = mWindowBounds;
+        if (!mVisibleFrameValid
+                || bounds[0] != mLocationOnScreen[0] || bounds[1] != mLocationOnScreen[1]
+                || bounds[2] != root.getWidth() || bounds[3] != root.getHeight()
+                || bounds[4] != widthMeasureSpec || bounds[5] != heightMeasureSpec) {
+            bounds[0] = mLocationOnScreen[0];
+            bounds[1] = mLocationOnScreen[1];
+            bounds[2] = root.getWidth();
+            bounds[3] = root.getHeight();
+            bounds[4] = widthMeasureSpec;
+            bounds[5] = heightMeasureSpec;
+            getVisibleFrame(mVisibleFrame);
+            mVisibleFrameValid = true;
         }
+        fitToFrame(mVisibleFrame, mFitGapX, mFitGapY, widthMeasureSpec, heightMeasureSpec);
     }
 
     /**
-     * 切换菜单
+     * 取得窗口可见区域，屏幕坐标
      */
-    public void toggleMenu(int duration) {
-        // 为menuItem添加平移动画和旋转动画
-        int count = getChildCount();
+    void getVisibleFrame(Rect outRect) {
+        getWindowVisibleDisplayFrame(outRect);
+    }
 
-        for (int i = 0; i < count - 1; i++) {
-            final View childView = getChildAt(i + 1);
-            childView.setVisibility(View.VISIBLE);
+    /**
+     * 布局后按实际位置检查测量时使用的距离，首次布局或菜单在窗口中移动后才会不同；
+     * 按新的距离选择的弧不变时不需要重新测量
+     */
+    private void checkFitGap() {
+        if (!mVisibleFrameValid) {
+            return;
+        }
+        getLocationOnScreen(mLocationOnScreen);
+        Rect frame = mVisibleFrame;
+        int gapX = isLocationLeft() ? mLocationOnScreen[0] - frame.left
+                : frame.right - mLocationOnScreen[0] - getWidth();
+        int gapY = isLocationTop() ? mLocationOnScreen[1] - frame.top
+                : frame.bottom - mLocationOnScreen[1] - getHeight();
+        if (gapX == mFitGapX && gapY == mFitGapY) {
+            return;
+        }
+        mFitGapX = gapX;
+        mFitGapY = gapY;
+        if (fitToFrame(frame, gapX, gapY, mLastWidthMeasureSpec, mLastHeightMeasureSpec)) {
+            removeCallbacks(mRefitRunnable);
+            post(mRefitRunnable);
+        }
+    }
 
-            int childLeft = (int) (mRadius * Math.sin(Math.PI / 2 / (count - 2) * i));
-            int childTop = (int) (mRadius * Math.cos(Math.PI / 2 / (count - 2) * i));
+    /**
+     * 在可见区域内选择能放下所有子菜单的弧
+     * <p>
+     * 可用空间为可见区域的尺寸减去主按钮所在角落与可见区域同侧边缘的距离；
+     * 父布局限制了尺寸时也不能超出父布局给出的尺寸。
+     *
+     * @param frame 可见区域，屏幕坐标
+     * @param gapX  主按钮所在一侧与可见区域同侧边缘的水平距离
+     * @param gapY  主按钮所在一侧与可见区域同侧边缘的竖直距离
+     * @return true 选择的弧发生了变化
+     */
+    boolean fitToFrame(Rect frame, int gapX, int gapY, int widthMeasureSpec, int heightMeasureSpec) {
+        int maxWidth = frame.width() - gapX;
+        int maxHeight = frame.height() - gapY;
+        if (MeasureSpec.getMode(widthMeasureSpec) != MeasureSpec.UNSPECIFIED) {
+            maxWidth = Math.min(maxWidth, MeasureSpec.getSize(widthMeasureSpec));
+        }
+        if (MeasureSpec.getMode(heightMeasureSpec) != MeasureSpec.UNSPECIFIED) {
+            maxHeight = Math.min(maxHeight, MeasureSpec.getSize(heightMeasureSpec));
+        }
+        float startAngle = mEngine.getPlacedStartAngle();
+        float sweepAngle = mEngine.getPlacedSweepAngle();
+        mEngine.fitAngles(mChildSizes, getChildCount(), maxWidth, maxHeight);
+        updateGeometry();
+        return startAngle != mEngine.getPlacedStartAngle() || sweepAngle != mEngine.getPlacedSweepAngle();
+    }
 
-            int xFlag = 1;
-            int yFlag = 1;
+    private boolean isLocationLeft() {
+        return mLocation == Location.LEFT_TOP || mLocation == Location.LEFT_BOTTOM;
+    }
 
-            if (mLocation == Location.LEFT_TOP || mLocation == Location.LEFT_BOTTOM) {
-                xFlag = -1;
-            }
+    private boolean isLocationTop() {
+        return mLocation == Location.LEFT_TOP || mLocation == Location.RIGHT_TOP;
+    }
 
-            if (mLocation == Location.LEFT_TOP || mLocation == Location.RIGHT_TOP) {
-                yFlag = -1;
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent ev) {
+        int action = ev.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            mTouchItem = hitTestItem(ev.getX(), ev.getY());
+            mTouchDownX = ev.getX();
+            mTouchDownY = ev.getY();
+        } else if (mTouchItem >= 0) {
+            if (action == MotionEvent.ACTION_MOVE) {
+                if (Math.abs(ev.getX() - mTouchDownX) > mTouchSlop
+                        || Math.abs(ev.getY() - mTouchDownY) > mTouchSlop) {
+                    mTouchItem = -1;
+                }
+            } else if (action == MotionEvent.ACTION_UP) {
+                int index = mTouchItem;
+                mTouchItem = -1;
+                if (hitTestItem(ev.getX(), ev.getY()) == index) {
+                    // 子菜单只收到取消事件以清除按下状态，点击由这里处理
+                    ev.setAction(MotionEvent.ACTION_CANCEL);
+                    super.dispatchTouchEvent(ev);
+                    ev.setAction(MotionEvent.ACTION_UP);
+                    performItemClick(index);
+                    return true;
+                }
+            } else if (action == MotionEvent.ACTION_CANCEL) {
+                mTouchItem = -1;
             }
+        }
+        boolean handled = super.dispatchTouchEvent(ev);
+        // 触摸点只在扩展区域内时子 view 不会处理，仍需接收后续事件
+        return handled || mTouchItem >= 0;
+    }
 
-            AnimationSet animationSet = new AnimationSet(true);
-            // 平移动画
-            Animation tranAnim;
-            // 透明动画
-            Animation alphaAnim;
+    @Override
+    protected boolean dispatchHoverEvent(MotionEvent event) {
+        return mAccessibilityHelper.dispatchHoverEvent(event) || super.dispatchHoverEvent(event);
+    }
 
-            if (mCurrentStatus == Status.CLOSE) {
-                // to open
-                tranAnim = new TranslateAnimation(xFlag * childLeft, 0, yFlag * childTop, 0);
-                alphaAnim = new AlphaAnimation(0f, 1f);
-                childView.setClickable(true);
-                childView.setFocusable(true);
-                animationSet.setInterpolator(new BounceInterpolator());
-            } else {
-                // to close
-                tranAnim = new TranslateAnimation(0, xFlag * childLeft, 0, yFlag * childTop);
-                alphaAnim = new AlphaAnimation(1f, 0f);
-                childView.setClickable(false);
-                childView.setFocusable(false);
+    /**
+     * 方向键、Tab 键在展开的菜单中沿弧线移动焦点，离开菜单时按系统的方式查找
+     */
+    @Override
+    public View focusSearch(View focused, int direction) {
+        if (isExpanded() && focused != null && focused.getParent() == this) {
+            int next = findNextFocusItem(indexOfChild(focused) - 1, direction);
+            if (next != NO_FOCUS_ITEM && getChildAt(next + 1).isFocusable()) {
+                return getChildAt(next + 1);
             }
-            tranAnim.setFillAfter(true);
-            tranAnim.setDuration(duration);
-            tranAnim.setStartOffset((i * 100) / count);
-
-            alphaAnim.setFillAfter(true);
-            alphaAnim.setDuration(duration);
-            alphaAnim.setStartOffset((i * 100) / count);
-
-            tranAnim.setAnimationListener(new AnimationListener() {
-
-                @Override
-                public void onAnimationStart(Animation animation) {
-
-                }
-
-                @Override
-                public void onAnimationRepeat(Animation animation) {
-
-                }
-
-                @Override
-                public void onAnimationEnd(Animation animation) {
-                    if (mCurrentStatus == Status.CLOSE) {
-                        childView.setVisibility(View.GONE);
-                    }
-                }
-            });
-            // 旋转动画
-//            RotateAnimation rotateAnim = new RotateAnimation(0, 720,
-//                    Animation.RELATIVE_TO_SELF, 0.5f,
-//                    Animation.RELATIVE_TO_SELF, 0.5f);
-//            rotateAnim.setDuration(duration);
-//            rotateAnim.setFillAfter(true);
-
-//            animationSet.addAnimation(rotateAnim);
-            animationSet.addAnimation(alphaAnim);
-            animationSet.addAnimation(tranAnim);
-            childView.startAnimation(animationSet);
-
-            // 子菜单点击
-            final int position = i + 1;
-            childView.setOnClickListener(new OnClickListener() {
-                @Override
-                public void onClick(View v) {
-                    if (mMenuItemClickListener != null) {
-                        mMenuItemClickListener.onItemClick(childView, position);
-                    }
-                    changeStatus();
-                    menuItemAnim(position - 1);
-                }
-            });
         }
-        // 切换菜单状态
-        changeStatus();
+        return super.focusSearch(focused, direction);
     }
 
     /**
-     * 添加menuItem的点击动画
+     * 在弧线上查找下一个获得焦点的子 view
+     * <p>
+     * Tab 键按序号前后移动，主按钮在第一个子菜单之前；方向键只在弧线上相邻的子菜单和主按钮中选择，
+     * 取按位置表计算的方向与按键方向最接近的一个。
      *
-     * @param position menu position
+     * @param from 当前焦点的子菜单序号，-1 表示主按钮
+     * @return 子菜单序号，-1 表示主按钮，{@link #NO_FOCUS_ITEM} 表示离开菜单
      */
-    private void menuItemAnim(int position) {
-        for (int i = 0; i < getChildCount() - 1; i++) {
+    int findNextFocusItem(int from, int direction) {
+        int itemCount = getChildCount() - 1;
+        if (itemCount <= 0) {
+            return NO_FOCUS_ITEM;
+        }
+        switch (direction) {
+            case FOCUS_FORWARD:
+                return from + 1 < itemCount ? from + 1 : NO_FOCUS_ITEM;
+            case FOCUS_BACKWARD:
+                return from >= 0 ? from - 1 : NO_FOCUS_ITEM;
+            case FOCUS_LEFT:
+                return findNearestFocusItem(from, itemCount, -1, 0);
+            case FOCUS_RIGHT:
+                return findNearestFocusItem(from, itemCount, 1, 0);
+            case FOCUS_UP:
+                return findNearestFocusItem(from, itemCount, 0, -1);
+            case FOCUS_DOWN:
+                return findNearestFocusItem(from, itemCount, 0, 1);
+            default:
+                return NO_FOCUS_ITEM;
+        }
+    }
 
-            final View childView = getChildAt(i + 1);
-            if (i == position) {
-                childView.startAnimation(scaleBigAnim(mScaleAnimDuration, childView));
+    private int findNearestFocusItem(int from, int itemCount, int dirX, int dirY) {
+        getItemBounds(from, mFocusBounds);
+        int fromX = mFocusBounds.centerX();
+        int fromY = mFocusBounds.centerY();
+        boolean ring = ArcGeometry.isFullRing(mEngine.getPlacedSweepAngle());
+        int best = NO_FOCUS_ITEM;
+        double bestCos = 0;
+        // 相邻的两个子菜单和主按钮；从主按钮出发时为弧的两端
+        for (int k = 0; k < 3; k++) {
+            int candidate;
+            if (from < 0) {
+                candidate = k == 0 ? 0 : k == 1 ? itemCount - 1 : NO_FOCUS_ITEM;
+            } else if (k == 0) {
+                candidate = from > 0 ? from - 1 : ring ? itemCount - 1 : NO_FOCUS_ITEM;
+            } else if (k == 1) {
+                candidate = from < itemCount - 1 ? from + 1 : ring ? 0 : NO_FOCUS_ITEM;
             } else {
-                childView.startAnimation(scaleSmallAnim(mScaleAnimDuration, childView));
+                candidate = -1;
+            }
+            if (candidate == NO_FOCUS_ITEM || candidate == from) {
+                continue;
+            }
+            getItemBounds(candidate, mFocusBounds);
+            int dx = mFocusBounds.centerX() - fromX;
+            int dy = mFocusBounds.centerY() - fromY;
+            double length = Math.sqrt(dx * dx + dy * dy);
+            if (length == 0) {
+                continue;
+            }
+            double cos = (dx * dirX + dy * dirY) / length;
+            if (cos > bestCos) {
+                bestCos = cos;
+                best = candidate;
             }
-
-            childView.setClickable(false);
-            childView.setFocusable(false);
-
         }
+        return best;
+    }
 
+    /**
+     * 按位置表查找触摸点所在的子菜单，菜单关闭或正在关闭时不会命中
+     *
+     * @return 子菜单序号，从 0 开始，不含主按钮；没有命中时为 -1
+     */
+    int hitTestItem(float x, float y) {
+        int itemCount = getChildCount() - 1;
+        if (itemCount <= 0 || !isExpanded()) {
+            return -1;
+        }
+        if (mHitIndexDirty) {
+            mHitIndex.begin(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                View child = getChildAt(i + 1);
+                mHitIndex.setItem(i, child.getLeft(), child.getTop(), child.getRight(),
+                        child.getBottom(), child.getVisibility() == View.VISIBLE);
+            }
+            mHitIndex.build(mGeometry, isLocationLeft(), isLocationTop());
+            mHitIndexDirty = false;
+        }
+        return mHitIndex.find(x, y, mItemTouchSlop);
     }
 
-    private Animation scaleSmallAnim(int duration, final View view) {
+    /**
+     * 设置子菜单触摸区域向外扩展的距离
+     *
+     * @param itemTouchSlop 单位像素，默认为系统的 touch slop
+     */
+    public void setItemTouchSlop(int itemTouchSlop) {
+        mItemTouchSlop = itemTouchSlop;
+    }
 
-        AnimationSet animationSet = new AnimationSet(true);
+    public int getItemTouchSlop() {
+        return mItemTouchSlop;
+    }
 
-        ScaleAnimation scaleAnim = new ScaleAnimation(1.0f, 0.0f, 1.0f, 0.0f,
-                Animation.RELATIVE_TO_SELF, 0.5f, Animation.RELATIVE_TO_SELF,
-                0.5f);
-        AlphaAnimation alphaAnim = new AlphaAnimation(1f, 0.0f);
-        scaleAnim.setAnimationListener(new AnimationListener() {
-            @Override
-            public void onAnimationStart(Animation animation) {
+    /**
+     * 定位主菜单按钮
+     */
+    private void layoutMainButton() {
+        View mainView = getChildAt(0);
+        if (mainView != mMainView) {
+            // 只在主按钮变化时注册一次点击监听
+            mMainView = mainView;
+            mMainView.setOnClickListener(this);
+            // 使用方向键、键盘时可以从主按钮移动到子菜单
+            mMainView.setFocusable(true);
+        }
+        layoutItem(mMainView, -1);
+    }
 
-            }
+    /**
+     * 按本次布局计算的位置定位子 view
+     *
+     * @param index 子菜单序号，从 0 开始；-1 表示主按钮
+     */
+    private void layoutItem(View child, int index) {
+        int base = (index + 1) * ArcPlacementEngine.RECT_SIZE;
+        child.layout(mChildRects[base], mChildRects[base + 1], mChildRects[base + 2], mChildRects[base + 3]);
+    }
 
-            @Override
-            public void onAnimationEnd(Animation animation) {
-                if (mCurrentStatus == Status.CLOSE) {
-                    view.setVisibility(View.GONE);
-                }
-            }
+    /**
+     * 按位置表计算子 view 布局后的位置，只使用测量结果，不会触发测量、布局
+     *
+     * @param index   子菜单序号，从 0 开始；-1 表示主按钮
+     * @param outRect 保存计算结果
+     */
+    void getItemBounds(int index, Rect outRect) {
+        updateGeometry();
+        View child = getChildAt(index + 1);
+        mEngine.layoutChild(index + 1, child.getMeasuredWidth(), child.getMeasuredHeight(),
+                getMeasuredWidth(), getMeasuredHeight(), mItemBounds, 0);
+        outRect.set(mItemBounds[0], mItemBounds[1], mItemBounds[2], mItemBounds[3]);
+    }
 
-            @Override
-            public void onAnimationRepeat(Animation animation) {
+    @Override
+    public void onClick(View v) {
 
-            }
-        });
-        animationSet.addAnimation(scaleAnim);
-        animationSet.addAnimation(alphaAnim);
-        animationSet.setDuration(duration);
-        animationSet.setFillAfter(true);
-        return animationSet;
+        if (mOnMainMenuItemClickListener != null) {
+            isNeedOpen = mOnMainMenuItemClickListener.onMainClick(v, mCurrentStatus);
+        }
 
+        if (isNeedOpen) {
+            toggleMenu(mCurrentStatus == Status.CLOSE ? mAnimOpenDuration : mAnimCloseDuration);
+        }
     }
 
     /**
-     * 为当前点击的Item设置变大和透明度降低的动画
-     *
-     * @param duration 动画持续时间
-     * @return 动画
+     * 切换菜单
+     * <p>
+     * 目标状态立即改变，动画在下一帧开始；同一帧内的多次切换合并为一次，
+     * 正在展开/关闭时从当前进度反向，而不是从起点重新开始。
      */
-    private Animation scaleBigAnim(int duration, final View view) {
-        AnimationSet animationSet = new AnimationSet(true);
-
-        ScaleAnimation scaleAnim = new ScaleAnimation(1.0f, 4.0f, 1.0f, 4.0f,
-                Animation.RELATIVE_TO_SELF, 0.5f, Animation.RELATIVE_TO_SELF,
-                0.5f);
-        AlphaAnimation alphaAnim = new AlphaAnimation(1f, 0.0f);
-        scaleAnim.setAnimationListener(new AnimationListener() {
-            @Override
-            public void onAnimationStart(Animation animation) {
+    public void toggleMenu(int duration) {
+        changeStatus();
+        mPendingToggleDuration = duration;
+        if (mToggleScheduled) {
+            return;
+        }
+        mToggleScheduled = true;
+        if (!mAttached) {
+            performToggle();
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            postOnAnimation(mToggleRunnable);
+        } else {
+            post(mToggleRunnable);
+        }
+    }
 
+    /**
+     * 按目标状态执行切换，目标与当前过程方向一致时什么也不做
+     */
+    private void performToggle() {
+        mToggleScheduled = false;
+        boolean open = mCurrentStatus == Status.OPEN;
+        if (open == isExpanded()) {
+            // 同一帧内的切换互相抵消
+            return;
+        }
+        boolean reverse = mTransitionState == TransitionState.OPENING
+                || mTransitionState == TransitionState.CLOSING;
+        if (open) {
+            // 展开前才创建/绑定子菜单
+            if (mHasItemStubs) {
+                inflateItemStubs();
             }
-
-            @Override
-            public void onAnimationEnd(Animation animation) {
-                if (mCurrentStatus == Status.CLOSE) {
-                    view.setVisibility(View.GONE);
-                }
+            if (mDataChanged) {
+                bindItems();
+            }
+        }
+        if (mMenuCoordinator != null) {
+            mMenuCoordinator.onMenuStatusChanged(this, open);
+        }
+        if (!open) {
+            moveFocusToMainButton();
+        }
+        MotionMode motionMode = updateMotionMode();
+        if (motionMode == MotionMode.NONE) {
+            mMainButtonAnimator.jumpTo(open);
+            if (open) {
+                mTransitionState = TransitionState.OPENING;
+                showItemsImmediately();
+            } else {
+                hideItemsImmediately();
             }
+            return;
+        }
+        boolean reduced = motionMode == MotionMode.REDUCED;
+        // 为menuItem添加平移动画
+        int count = getChildCount();
+        int duration = reduced ? mPendingToggleDuration / 2 : mPendingToggleDuration;
+        int stagger = reduced ? mStagger / 2 : mStagger;
+        updateGeometry();
+        beginTransition(mCurrentStatus, count - 1, duration + 100);
+        mHitIndexDirty = true;
+        mItemAnimator.setAlphaEnabled(!reduced);
+        mMainButtonAnimator.animateTo(open, duration);
 
-            @Override
-            public void onAnimationRepeat(Animation animation) {
+        for (int i = 0; i < count - 1; i++) {
+            View childView = getChildAt(i + 1);
+            childView.setVisibility(View.VISIBLE);
+            childView.setClickable(open);
+            childView.setFocusable(open);
+            childView.setOnClickListener(mItemClickListener);
+
+            mItemAnimator.animateToggle(childView, i, open,
+                    mGeometry.getTranslateX(i), mGeometry.getTranslateY(i), duration,
+                    reverse ? 0 : mChoreography.getStartDelay(i, count - 1, stagger),
+                    reduced ? REDUCED_INTERPOLATOR : mChoreography.getInterpolator(i, count - 1, open),
+                    reverse);
+        }
+    }
 
+    /**
+     * 选择本次展开/关闭的动画方式，与上一次不同时回调 OnMotionModeChangeListener
+     */
+    private MotionMode updateMotionMode() {
+        MotionMode motionMode = MotionMode.FULL;
+        if (mAdaptiveMotion) {
+            if (isAnimatorDisabled()) {
+                motionMode = MotionMode.NONE;
+            } else if (mReducedTransitionsLeft > 0 || isPowerSaveMode()) {
+                motionMode = MotionMode.REDUCED;
+            }
+        }
+        if (motionMode != mMotionMode) {
+            mMotionMode = motionMode;
+            if (mMotionModeChangeListener != null) {
+                mMotionModeChangeListener.onMotionModeChanged(motionMode);
             }
-        });
+        }
+        return motionMode;
+    }
 
-        animationSet.addAnimation(scaleAnim);
-        animationSet.addAnimation(alphaAnim);
+    /**
+     * 系统设置中的动画时长缩放是否为 0，API 16 以下没有该设置
+     */
+    private boolean isAnimatorDisabled() {
+        float scale = 1f;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            scale = Settings.Global.getFloat(getContext().getContentResolver(),
+                    Settings.Global.ANIMATOR_DURATION_SCALE, 1f);
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            //noinspection deprecation
+            scale = Settings.System.getFloat(getContext().getContentResolver(),
+                    Settings.System.ANIMATOR_DURATION_SCALE, 1f);
+        }
+        return scale == 0f;
+    }
 
-        animationSet.setDuration(duration);
-        animationSet.setFillAfter(true);
-        return animationSet;
+    private boolean isPowerSaveMode() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+            return false;
+        }
+        PowerManager powerManager = (PowerManager) getContext().getSystemService(Context.POWER_SERVICE);
+        return powerManager != null && powerManager.isPowerSaveMode();
+    }
 
+    /**
+     * 一次展开/关闭结束时的帧统计，超出帧预算的帧过多时之后的展开/关闭使用 REDUCED
+     */
+    void onTransitionFrames(int frameCount, int framesOverBudget) {
+        if (frameCount == 0) {
+            // 没有绘制过帧（直接进入最终状态或不支持统计），不作为帧率的依据
+            return;
+        }
+        if (framesOverBudget * JANK_FRAME_RATIO > frameCount) {
+            mReducedTransitionsLeft = REDUCED_TRANSITIONS;
+        } else if (mReducedTransitionsLeft > 0) {
+            mReducedTransitionsLeft--;
+        }
     }
 
     /**
-     * 切换菜单状态
+     * 子菜单被点击，由触摸命中索引或共用的点击监听器调用
+     *
+     * @param childView 被点击的子菜单
+     * @param position  子菜单位置，从 1 开始
      */
-    private void changeStatus() {
-        mCurrentStatus = (mCurrentStatus == Status.CLOSE ? Status.OPEN : Status.CLOSE);
+    void onItemClick(View childView, int position) {
+        mSelectedPosition = position;
+        if (mMenuItemClickListener != null) {
+            mMenuItemClickListener.onItemClick(childView, position);
+        }
+        if (mToggleScheduled) {
+            mToggleScheduled = false;
+            removeCallbacks(mToggleRunnable);
+        }
+        setCurrentStatus(Status.CLOSE);
+        if (mMenuCoordinator != null) {
+            mMenuCoordinator.onMenuStatusChanged(this, false);
+        }
+        moveFocusToMainButton();
+        MotionMode motionMode = updateMotionMode();
+        if (motionMode == MotionMode.NONE) {
+            mMainButtonAnimator.jumpTo(false);
+            hideItemsImmediately();
+            return;
+        }
+        int duration = motionMode == MotionMode.REDUCED ? mScaleAnimDuration / 2 : mScaleAnimDuration;
+        int selected = position - 1;
+        // 已隐藏的子菜单不播放点击动画，也不等待它们结束
+        int visibleCount = 0;
+        int maxDelay = 0;
+        for (int i = 0; i < getChildCount() - 1; i++) {
+            if (getChildAt(i + 1).getVisibility() == View.VISIBLE) {
+                visibleCount++;
+                maxDelay = Math.max(maxDelay, mClickEffect.getStartDelay(i, selected));
+            }
+        }
+        beginTransition(Status.CLOSE, visibleCount, duration + maxDelay);
+        mMainButtonAnimator.animateTo(false, duration);
+        menuItemAnim(selected, duration);
     }
 
-    public boolean isOpen() {
-        return mCurrentStatus == Status.OPEN;
+    /**
+     * 以无障碍服务等方式点击子菜单，菜单关闭或正在关闭时不会点击
+     *
+     * @param index 子菜单序号，从 0 开始，不含主按钮
+     * @return 是否点击
+     */
+    boolean performItemClick(int index) {
+        if (!isExpanded() || index < 0 || index >= getChildCount() - 1) {
+            return false;
+        }
+        View child = getChildAt(index + 1);
+        child.playSoundEffect(SoundEffectConstants.CLICK);
+        onItemClick(child, index + 1);
+        return true;
     }
 
+    /**
+     * 在当前帧内关闭菜单，由 ArcMenuCoordinator 在帧回调中批量调用
+     *
+     * @param duration 关闭动画持续时间
+     */
+    void closeInFrame(int duration) {
+        if (mToggleScheduled) {
+            removeCallbacks(mToggleRunnable);
+        }
+        setCurrentStatus(Status.CLOSE);
+        mPendingToggleDuration = duration;
+        performToggle();
+    }
 
-    private void rotateMainButton(View v, float start, float end, int duration) {
+    /**
+     * 不播放动画直接关闭菜单，用于已不在屏幕上的菜单
+     */
+    void closeImmediately() {
+        if (mToggleScheduled) {
+            mToggleScheduled = false;
+            removeCallbacks(mToggleRunnable);
+        }
+        setCurrentStatus(Status.CLOSE);
+        if (mMenuCoordinator != null) {
+            mMenuCoordinator.onMenuStatusChanged(this, false);
+        }
+        mMainButtonAnimator.jumpTo(false);
+        if (mTransitionState == TransitionState.CLOSED) {
+            return;
+        }
+        moveFocusToMainButton();
+        hideItemsImmediately();
+    }
 
-        RotateAnimation anim = new RotateAnimation(start, end,
-                Animation.RELATIVE_TO_SELF, 0.5f, Animation.RELATIVE_TO_SELF,
-                0.5f);
-        anim.setDuration(duration);
-        anim.setFillAfter(true);
-        v.startAnimation(anim);
+    /**
+     * 停止子菜单动画并直接隐藏，用于不播放动画的关闭
+     */
+    private void hideItemsImmediately() {
+        mTransitionState = TransitionState.CLOSING;
+        for (int i = 1; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            mItemAnimator.reset(child);
+            hideItem(child);
+            child.setClickable(false);
+            child.setFocusable(false);
+        }
+        settleTransition();
     }
 
-    public Status getCurrentStatus() {
-        return mCurrentStatus;
+    /**
+     * 开始一次展开/关闭，注册了 OnMenuMetricsListener 或开启了自适应动画时同时开始统计，
+     * 上一次尚未结束时先按被打断结束
+     *
+     * @param target         目标状态
+     * @param itemCount      参与动画的子菜单数量
+     * @param timeoutMillis  超过该时间仍未结束时强制结束
+     */
+    private void beginTransition(Status target, int itemCount, int timeoutMillis) {
+        mTransitionState = target == Status.OPEN ? TransitionState.OPENING : TransitionState.CLOSING;
+        mPendingItemAnimations = itemCount;
+        removeCallbacks(mSettleRunnable);
+        if (mMenuMetricsListener != null || mAdaptiveMotion) {
+            if (mInTransition) {
+                endTransitionMetrics();
+            }
+            mInTransition = true;
+            mTransitionTarget = target;
+            mTransitionStartTime = SystemClock.uptimeMillis();
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                if (mFrameTracker == null) {
+                    mFrameTracker = new TransitionFrameTracker();
+                    mFrameTracker.setFrameBudgetNanos(mFrameBudgetNanos);
+                }
+                mFrameTracker.start();
+            }
+            if (mMenuMetricsListener != null) {
+                mMenuMetricsListener.onTransitionStart(target);
+            }
+        }
+        if (itemCount <= 0) {
+            settleTransition();
+        } else {
+            postDelayed(mSettleRunnable, timeoutMillis + 100);
+        }
     }
 
-    public View getMainView() {
-        return mMainView;
+    /**
+     * 子菜单动画结束，由动画实现类调用
+     *
+     * @param position 子菜单位置，从 1 开始
+     */
+    void onItemAnimationEnd(int position) {
+        if (mTransitionState != TransitionState.OPENING
+                && mTransitionState != TransitionState.CLOSING) {
+            return;
+        }
+        if (mMenuMetricsListener != null && mInTransition) {
+            mMenuMetricsListener.onItemAnimationEnd(position,
+                    SystemClock.uptimeMillis() - mTransitionStartTime);
+        }
+        if (--mPendingItemAnimations <= 0) {
+            settleTransition();
+        }
+    }
+
+    /**
+     * 结束当前的展开/关闭，进入 OPEN 或 CLOSED
+     */
+    private void settleTransition() {
+        removeCallbacks(mSettleRunnable);
+        if (mTransitionState == TransitionState.OPENING) {
+            mTransitionState = TransitionState.OPEN;
+        } else if (mTransitionState == TransitionState.CLOSING) {
+            mTransitionState = TransitionState.CLOSED;
+        }
+        if (mSnapshotItems) {
+            // 切换回绘制实际的子菜单
+            invalidate();
+        }
+        // 每次展开/关闭只通知一次节点树变化
+        mAccessibilityHelper.invalidateRoot();
+        if (mInTransition) {
+            endTransitionMetrics();
+        }
+    }
+
+    private void endTransitionMetrics() {
+        mInTransition = false;
+        int frameCount = 0;
+        int framesOverBudget = 0;
+        if (mFrameTracker != null) {
+            mFrameTracker.stop();
+            frameCount = mFrameTracker.getFrameCount();
+            framesOverBudget = mFrameTracker.getFramesOverBudget();
+        }
+        if (mAdaptiveMotion) {
+            onTransitionFrames(frameCount, framesOverBudget);
+        }
+        if (mMenuMetricsListener != null) {
+            mMenuMetricsListener.onTransitionEnd(mTransitionTarget,
+                    SystemClock.uptimeMillis() - mTransitionStartTime, frameCount, framesOverBudget);
+        }
+    }
+
+    /**
+     * 添加menuItem的点击动画，效果由 {@link ArcClickEffect} 决定，跳过已隐藏的子菜单
+     *
+     * @param position 被点击的子菜单序号，从 0 开始
+     * @param duration 动画持续时间
+     */
+    private void menuItemAnim(int position, int duration) {
+        ArcClickEffect effect = mClickEffect;
+        for (int i = 0; i < getChildCount() - 1; i++) {
+
+            View childView = getChildAt(i + 1);
+            if (childView.getVisibility() != View.VISIBLE) {
+                continue;
+            }
+            boolean selected = i == position;
+            mItemAnimator.animateClick(childView, i, effect.getScale(selected), effect.getAlpha(selected),
+                    duration, effect.getStartDelay(i, position), effect.getInterpolator());
+
+            childView.setClickable(false);
+            childView.setFocusable(false);
+
+        }
+
+    }
+
+    /**
+     * 关闭时焦点从子菜单回到主按钮，而不是随子菜单不可获得焦点跳到界面的其它位置
+     */
+    private void moveFocusToMainButton() {
+        View focused = getFocusedChild();
+        if (focused != null && focused != getChildAt(0)) {
+            getChildAt(0).requestFocus();
+        }
+    }
+
+    /**
+     * 记录一次动画相关对象的创建
+     */
+    <T> T track(T object) {
+        mAnimationObjectCount++;
+        return object;
+    }
+
+    /**
+     * 切换菜单状态
+     */
+    private void changeStatus() {
+        setCurrentStatus(mCurrentStatus == Status.CLOSE ? Status.OPEN : Status.CLOSE);
+    }
+
+    private void setCurrentStatus(Status status) {
+        if (status != mCurrentStatus) {
+            mCurrentStatus = status;
+            updateMainIcon();
+        }
+    }
+
+    /**
+     * 按目标状态切换主按钮图标，图标由共享缓存创建一次后保留，之后的切换不再查找、解码
+     * <p>
+     * 交叉淡入淡出时主按钮只设置一次包含两个图标的 Drawable，由 MainButtonAnimator 改变透明度
+     */
+    private void updateMainIcon() {
+        if (getChildCount() == 0 || !(getChildAt(0) instanceof ImageView)) {
+            return;
+        }
+        if (mMainCrossFade && mMainIconClosed != 0 && mMainIconOpen != 0) {
+            if (!mMainButtonAnimator.hasCrossFade()) {
+                ((ImageView) getChildAt(0)).setImageDrawable(mMainButtonAnimator.setCrossFadeIcons(
+                        getMainIcon(false), getMainIcon(true)));
+            }
+            return;
+        }
+        boolean open = mCurrentStatus == Status.OPEN;
+        if ((open ? mMainIconOpen : mMainIconClosed) != 0) {
+            ((ImageView) getChildAt(0)).setImageDrawable(getMainIcon(open));
+        }
+    }
+
+    private Drawable getMainIcon(boolean open) {
+        Drawable icon = open ? mOpenIcon : mClosedIcon;
+        if (icon == null) {
+            icon = ArcDrawableCache.getInstance(getContext()).getDrawable(open ? mMainIconOpen : mMainIconClosed);
+            if (open) {
+                mOpenIcon = icon;
+            } else {
+                mClosedIcon = icon;
+            }
+        }
+        return icon;
+    }
+
+    /**
+     * 菜单的目标状态是否为展开，切换后立即改变，不等待动画结束
+     */
+    public boolean isOpen() {
+        return mCurrentStatus == Status.OPEN;
+    }
+
+    /**
+     * 子菜单是否已展开或正在展开，供动画实现类判断动画结束时是否隐藏子菜单
+     */
+    boolean isExpanded() {
+        return mTransitionState == TransitionState.OPENING
+                || mTransitionState == TransitionState.OPEN;
+    }
+
+    /**
+     * 菜单实际所处的过程，动画全部结束后才变为 OPEN 或 CLOSED
+     */
+    public TransitionState getTransitionState() {
+        return mTransitionState;
+    }
+
+    /**
+     * 添加一个延迟加载的子菜单，布局在菜单首次展开时才会加载、测量和布局
+     * <p>
+     * 与在布局文件中使用 ViewStub 作为子菜单效果相同
+     *
+     * @param layoutResource 子菜单的布局
+     */
+    public void addLazyItem(int layoutResource) {
+        addView(new ViewStub(getContext(), layoutResource));
+        mHasItemStubs = true;
+    }
+
+    /**
+     * 加载所有 ViewStub 子菜单，加载后的 view 替换 ViewStub 所在的位置
+     */
+    private void inflateItemStubs() {
+        mHasItemStubs = false;
+        invalidateItemSnapshots();
+        for (int i = 1; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            if (child instanceof ViewStub) {
+                ((ViewStub) child).inflate();
+            }
+        }
+    }
+
+    /**
+     * 设置提供子菜单的 Adapter
+     * <p>
+     * 主按钮仍为布局中的第一个子 view，其余子 view 由 Adapter 提供：菜单关闭时不创建子菜单，
+     * 展开时才通过 {@link Adapter#getView} 绑定；数据变化时已有的子菜单按 view 类型回收复用。
+     * 子菜单点击回调中的 position 为 Adapter 位置加 1。
+     *
+     * @param adapter 为 null 时移除由 Adapter 提供的子菜单
+     */
+    public void setAdapter(Adapter adapter) {
+        if (mAdapter != null && mDataSetObserver != null) {
+            mAdapter.unregisterDataSetObserver(mDataSetObserver);
+        }
+        recycleItems();
+        mRecycler.clear();
+        mAdapter = adapter;
+        if (adapter != null) {
+            if (mDataSetObserver == null) {
+                mDataSetObserver = new AdapterDataSetObserver();
+            }
+            adapter.registerDataSetObserver(mDataSetObserver);
+            mRecycler.setViewTypeCount(adapter.getViewTypeCount());
+            mDataChanged = true;
+            if (isExpanded()) {
+                bindItems();
+            }
+        } else {
+            mDataChanged = false;
+        }
+    }
+
+    public Adapter getAdapter() {
+        return mAdapter;
+    }
+
+    /**
+     * 移除主按钮以外的子 view，由 Adapter 创建的放入回收池
+     */
+    private void recycleItems() {
+        for (int i = getChildCount() - 1; i > 0; i--) {
+            View child = getChildAt(i);
+            mItemAnimator.reset(child);
+            removeViewAt(i);
+            if (i - 1 < mItemViewTypes.size()) {
+                mRecycler.addScrapView(child, mItemViewTypes.get(i - 1));
+            }
+        }
+        mItemViewTypes.clear();
+    }
+
+    /**
+     * 按 Adapter 当前的数据绑定子菜单，优先复用回收池中的 view
+     */
+    private void bindItems() {
+        mDataChanged = false;
+        invalidateItemSnapshots();
+        recycleItems();
+        if (mAdapter == null) {
+            return;
+        }
+        int itemCount = mAdapter.getCount();
+        for (int position = 0; position < itemCount; position++) {
+            int viewType = mAdapter.getItemViewType(position);
+            View scrapView = mRecycler.getScrapView(viewType);
+            View child = mAdapter.getView(position, scrapView, this);
+            addView(child);
+            mItemViewTypes.add(viewType);
+        }
+        if (isExpanded()) {
+            showItemsImmediately();
+        }
+    }
+
+    /**
+     * 子菜单直接显示在展开后的最终位置，只停止已有的动画，不创建动画对象
+     * <p>
+     * 用于菜单展开时重新绑定的子菜单，以及不播放动画的展开
+     */
+    private void showItemsImmediately() {
+        mHitIndexDirty = true;
+        for (int i = 1; i < getChildCount(); i++) {
+            View childView = getChildAt(i);
+            mItemAnimator.reset(childView);
+            childView.setVisibility(View.VISIBLE);
+            childView.setClickable(true);
+            childView.setFocusable(true);
+            childView.setOnClickListener(mItemClickListener);
+        }
+        if (mTransitionState == TransitionState.OPENING) {
+            // 所有子菜单都已在最终位置，不再等待动画结束
+            settleTransition();
+        }
+    }
+
+    /**
+     * 子菜单位置变化后的动画：新加入的子菜单从主按钮位置展开，其余子菜单从原位置移动到新位置
+     *
+     * @param dx 原位置相对新位置的水平偏移
+     * @param dy 原位置相对新位置的竖直偏移
+     */
+    private void animateItemMove(View child, int index, int dx, int dy) {
+        if (mAddedItems.contains(child)) {
+            mItemAnimator.animateToggle(child, index, true,
+                    mGeometry.getTranslateX(index), mGeometry.getTranslateY(index), mItemMoveDuration, 0,
+                    mChoreography.getInterpolator(index, getChildCount() - 1, true), false);
+        } else if (dx != 0 || dy != 0) {
+            mItemAnimator.animateMove(child, index, dx, dy, mItemMoveDuration);
+        }
+    }
+
+    /**
+     * 在最后添加一个子菜单
+     *
+     * @see #addItem(View, int)
+     */
+    public void addItem(View item) {
+        addItem(item, getChildCount() - 1);
+    }
+
+    /**
+     * 添加一个子菜单
+     * <p>
+     * 只测量新加入的子菜单，位置表按新的数量取得（相同数量的位置表只计算一次）；
+     * 菜单展开时新子菜单从主按钮位置展开，其余子菜单从原位置移动到新位置。
+     *
+     * @param item  子菜单
+     * @param index 子菜单序号，从 0 开始，不含主按钮
+     */
+    public void addItem(View item, int index) {
+        checkNoAdapter();
+        prepareItem(item);
+        addView(item, index + 1);
+        onItemsChanged();
+    }
+
+    /**
+     * 移除一个子菜单，菜单展开时其余子菜单从原位置移动到新位置
+     */
+    public void removeItem(View item) {
+        int index = indexOfChild(item);
+        if (index > 0) {
+            removeItemAt(index - 1);
+        }
+    }
+
+    /**
+     * 移除第 index 个子菜单
+     *
+     * @param index 子菜单序号，从 0 开始，不含主按钮
+     */
+    public void removeItemAt(int index) {
+        checkNoAdapter();
+        View item = getChildAt(index + 1);
+        mItemAnimator.reset(item);
+        mAddedItems.remove(item);
+        removeViewAt(index + 1);
+        onItemsChanged();
+    }
+
+    /**
+     * 按顺序替换所有子菜单
+     * <p>
+     * 已有的子菜单保留原 view，不会重新创建或测量，只移动到新位置；不在新列表中的子菜单被移除。
+     *
+     * @param items 新的子菜单，不含主按钮
+     */
+    public void setItems(List<View> items) {
+        checkNoAdapter();
+        for (int i = getChildCount() - 1; i > 0; i--) {
+            View child = getChildAt(i);
+            if (!items.contains(child)) {
+                mItemAnimator.reset(child);
+                mAddedItems.remove(child);
+                removeViewAt(i);
+            }
+        }
+        boolean reordered = false;
+        for (int i = 0; i < items.size(); i++) {
+            View item = items.get(i);
+            if (i + 1 < getChildCount() && getChildAt(i + 1) == item) {
+                continue;
+            }
+            if (item.getParent() == this) {
+                // 调整顺序：只移动 view 在子 view 列表中的位置，保留测量结果、正在播放的动画，
+                // 原位置用于移动动画。removeView 会把有动画的子 view 当作正在消失的 view 继续绘制，
+                // 动画结束时再把仍在布局中的 view 从窗口分离
+                detachViewFromParent(item);
+                attachViewToParent(item, i + 1, item.getLayoutParams());
+                reordered = true;
+            } else {
+                prepareItem(item);
+                addView(item, i + 1);
+            }
+        }
+        if (reordered) {
+            requestLayout();
+            invalidate();
+        }
+        onItemsChanged();
+    }
+
+    /**
+     * 新加入的子菜单与当前状态一致：展开时可见并可点击，关闭时隐藏
+     */
+    private void prepareItem(View item) {
+        // 只有请求了布局的子 view 会被测量，确保新加入的子菜单按本布局重新测量
+        item.forceLayout();
+        if (isExpanded()) {
+            item.setVisibility(View.VISIBLE);
+            item.setClickable(true);
+            item.setFocusable(true);
+            item.setOnClickListener(mItemClickListener);
+            mAddedItems.add(item);
+        } else {
+            hideItem(item);
+        }
+    }
+
+    private void onItemsChanged() {
+        mItemsChanged = true;
+        mHitIndexDirty = true;
+        invalidateItemSnapshots();
+        mAccessibilityHelper.invalidateRoot();
+    }
+
+    private void checkNoAdapter() {
+        if (mAdapter != null) {
+            throw new IllegalStateException("items are provided by the adapter");
+        }
+    }
+
+    /**
+     * 设置增删子菜单后其余子菜单移动到新位置的动画时长
+     *
+     * @param itemMoveDuration 单位毫秒
+     */
+    public void setItemMoveDuration(int itemMoveDuration) {
+        mItemMoveDuration = itemMoveDuration;
+    }
+
+    public int getItemMoveDuration() {
+        return mItemMoveDuration;
+    }
+
+    /**
+     * 不播放动画，直接展开或关闭菜单，子菜单放在最终位置，不创建任何动画对象
+     * <p>
+     * 用于恢复状态等不需要展示过程的场景，正在进行的展开/关闭会立即结束
+     *
+     * @param open true 展开;false 关闭
+     */
+    public void setOpenImmediately(boolean open) {
+        if (!open) {
+            closeImmediately();
+            return;
+        }
+        if (mToggleScheduled) {
+            mToggleScheduled = false;
+            removeCallbacks(mToggleRunnable);
+        }
+        setCurrentStatus(Status.OPEN);
+        if (mMenuCoordinator != null) {
+            mMenuCoordinator.onMenuStatusChanged(this, true);
+        }
+        mMainButtonAnimator.jumpTo(true);
+        if (mTransitionState == TransitionState.OPEN) {
+            return;
+        }
+        mTransitionState = TransitionState.OPENING;
+        if (mHasItemStubs) {
+            inflateItemStubs();
+        }
+        if (mDataChanged) {
+            bindItems();
+        }
+        if (mTransitionState == TransitionState.OPENING) {
+            showItemsImmediately();
+        }
+    }
+
+    /**
+     * 最近一次点击的子菜单位置
+     *
+     * @return 从 1 开始，与 {@link OnMenuItemClickListener#onItemClick} 中的 position 相同；-1 表示没有
+     */
+    public int getSelectedPosition() {
+        return mSelectedPosition;
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState state = new SavedState(super.onSaveInstanceState());
+        state.mOpen = isOpen();
+        state.mSelectedPosition = mSelectedPosition;
+        return state;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        SavedState savedState = (SavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+        mSelectedPosition = savedState.mSelectedPosition;
+        // 旋转屏幕等情况下直接恢复到最终状态，不重新播放展开动画
+        setOpenImmediately(savedState.mOpen);
+    }
+
+    /**
+     * 保存菜单是否展开以及最近一次点击的子菜单
+     */
+    static class SavedState extends BaseSavedState {
+        boolean mOpen;
+        int mSelectedPosition;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            mOpen = in.readInt() != 0;
+            mSelectedPosition = in.readInt();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeInt(mOpen ? 1 : 0);
+            out.writeInt(mSelectedPosition);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+
+    /**
+     * Adapter 数据变化：菜单展开时立即重新绑定，关闭时先回收，下次展开再绑定
+     */
+    private class AdapterDataSetObserver extends DataSetObserver {
+        @Override
+        public void onChanged() {
+            mRecycler.setViewTypeCount(mAdapter.getViewTypeCount());
+            if (isExpanded()) {
+                bindItems();
+            } else {
+                recycleItems();
+                mDataChanged = true;
+            }
+        }
+
+        @Override
+        public void onInvalidated() {
+            onChanged();
+        }
+    }
+
+
+    /**
+     * 按声明式配置设置菜单，配置相同的菜单共用同一份编译后的位置表
+     * <p>
+     * 配置中指定了子菜单数量时立即编译位置表，首次布局时不再需要计算
+     */
+    public void setMenuSpec(ArcMenuSpec spec) {
+        if (spec.equals(getMenuSpec())) {
+            return;
+        }
+        applyMenuSpec(spec);
+        if (spec.getItemCount() > 0 && !mAutoRing) {
+            ArcPlacementPlan.obtain(spec.getItemCount(), mRadius, mStartAngle, mSweepAngle,
+                    isLocationLeft(), isLocationTop(), 0, mRingSpacing);
+        }
+        requestLayout();
+    }
+
+    private void applyMenuSpec(ArcMenuSpec spec) {
+        DisplayMetrics metrics = getResources().getDisplayMetrics();
+        mLocation = spec.getLocation();
+        mRadius = spec.getRadius() != ArcMenuSpec.UNSPECIFIED ? spec.getRadius()
+                : (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 100, metrics);
+        mStartAngle = spec.getStartAngle();
+        mSweepAngle = spec.getSweepAngle();
+        mAutoRing = spec.isAutoRing();
+        mRingSpacing = spec.getRingSpacing();
+        int defaultPadding = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 20, metrics);
+        mXPadding = spec.getXPadding() != ArcMenuSpec.UNSPECIFIED ? spec.getXPadding() : defaultPadding;
+        mYPadding = spec.getYPadding() != ArcMenuSpec.UNSPECIFIED ? spec.getYPadding() : defaultPadding;
+        mAnimOpenDuration = spec.getOpenDuration();
+        mAnimCloseDuration = spec.getCloseDuration();
+        mScaleAnimDuration = spec.getScaleDuration();
+        mStagger = spec.getStagger();
+        mMeasureCacheValid = false;
+    }
+
+    /**
+     * 当前配置，包含通过 set 方法做出的修改
+     */
+    public ArcMenuSpec getMenuSpec() {
+        return new ArcMenuSpec.Builder()
+                .setLocation(mLocation)
+                .setItemCount(Math.max(getChildCount() - 1, 0))
+                .setRadius(mRadius)
+                .setStartAngle(mStartAngle)
+                .setSweepAngle(mSweepAngle)
+                .setAutoRing(mAutoRing)
+                .setRingSpacing(mRingSpacing)
+                .setPadding(mXPadding, mYPadding)
+                .setOpenDuration(mAnimOpenDuration)
+                .setCloseDuration(mAnimCloseDuration)
+                .setScaleDuration(mScaleAnimDuration)
+                .setStagger(mStagger)
+                .build();
+    }
+
+    /**
+     * 设置弧形的起始角度
+     *
+     * @param startAngle 单位度，0 为指向布局内部的竖直方向，90 为水平方向
+     */
+    public void setStartAngle(float startAngle) {
+        if (mStartAngle != startAngle) {
+            mStartAngle = startAngle;
+            requestLayout();
+        }
+    }
+
+    public float getStartAngle() {
+        return mStartAngle;
+    }
+
+    /**
+     * 设置弧形扫过的角度
+     *
+     * @param sweepAngle 单位度，默认 90，绝对值不小于 360 时子菜单均匀分布在整圆上
+     */
+    public void setSweepAngle(float sweepAngle) {
+        if (mSweepAngle != sweepAngle) {
+            mSweepAngle = sweepAngle;
+            requestLayout();
+        }
+    }
+
+    public float getSweepAngle() {
+        return mSweepAngle;
+    }
+
+    /**
+     * 设置子菜单在弧上重叠时是否自动排到外圈
+     *
+     * @param autoRing true 按子菜单尺寸计算每圈能放下的数量，放不下的依次排到更大的同心圆弧上
+     */
+    public void setAutoRing(boolean autoRing) {
+        if (mAutoRing != autoRing) {
+            mAutoRing = autoRing;
+            requestLayout();
+        }
+    }
+
+    public boolean isAutoRing() {
+        return mAutoRing;
+    }
+
+    /**
+     * 设置是否按窗口可见区域自动选择弧的方向和扫过角度，默认关闭
+     *
+     * @param autoPlacement true 设置的弧超出窗口可见区域（扣除状态栏、导航栏、输入法等）时，
+     *                      在主按钮所在的四分之一圆内选择能放下所有子菜单的弧：扫过角度尽量大，
+     *                      方向尽量接近设置的弧。窗口位置、尺寸不变时使用上一次的结果
+     */
+    public void setAutoPlacement(boolean autoPlacement) {
+        if (mAutoPlacement != autoPlacement) {
+            mAutoPlacement = autoPlacement;
+            mVisibleFrameValid = false;
+            if (!autoPlacement) {
+                mEngine.clearFit();
+                removeCallbacks(mRefitRunnable);
+            }
+            requestLayout();
+        }
+    }
+
+    public boolean isAutoPlacement() {
+        return mAutoPlacement;
+    }
+
+    /**
+     * 实际使用的起始角度，未开启自动定位或设置的弧能放下时与 {@link #getStartAngle()} 相同
+     */
+    public float getPlacedStartAngle() {
+        return mEngine.getPlacedStartAngle();
+    }
+
+    /**
+     * 实际使用的扫过角度，未开启自动定位或设置的弧能放下时与 {@link #getSweepAngle()} 相同
+     */
+    public float getPlacedSweepAngle() {
+        return mEngine.getPlacedSweepAngle();
+    }
+
+    /**
+     * 设置相邻两圈的半径差
+     *
+     * @param ringSpacing 单位像素，0 表示使用子菜单的尺寸
+     */
+    public void setRingSpacing(int ringSpacing) {
+        if (mRingSpacing != ringSpacing) {
+            mRingSpacing = ringSpacing;
+            requestLayout();
+        }
+    }
+
+    public int getRingSpacing() {
+        return mRingSpacing;
+    }
+
+    /**
+     * 设置展开/关闭期间是否绘制子菜单快照
+     * <p>
+     * 开启后每个子菜单在展开/关闭前绘制到一张 Bitmap 上，动画期间每帧只绘制 Bitmap，
+     * 适合包含文字、角标等复杂布局的子菜单；菜单完全展开后恢复绘制实际的子菜单。
+     * 子菜单内容变化时需要调用 {@link #invalidateItemSnapshots()}。
+     *
+     * @param snapshotItems true 动画期间绘制快照
+     */
+    public void setSnapshotItems(boolean snapshotItems) {
+        if (mSnapshotItems == snapshotItems) {
+            return;
+        }
+        mSnapshotItems = snapshotItems;
+        if (!snapshotItems && mSnapshotRenderer != null) {
+            mSnapshotRenderer.release();
+        }
+        invalidate();
+    }
+
+    public boolean isSnapshotItems() {
+        return mSnapshotItems;
+    }
+
+    /**
+     * 子菜单内容变化后使快照失效，下次展开/关闭时重新生成
+     */
+    public void invalidateItemSnapshots() {
+        if (mSnapshotRenderer != null) {
+            mSnapshotRenderer.invalidate();
+        }
+    }
+
+    int getSnapshotRenderCount() {
+        return mSnapshotRenderer != null ? mSnapshotRenderer.getRenderCount() : 0;
+    }
+
+    /**
+     * 设置是否复用子菜单动画对象
+     *
+     * @param reuseAnimations true 每个子菜单的展开、关闭、点击动画及监听器只创建一次
+     */
+    public void setReuseAnimations(boolean reuseAnimations) {
+        mViewItemAnimator.setReuseAnimations(reuseAnimations);
+    }
+
+    public boolean isReuseAnimations() {
+        return mViewItemAnimator.isReuseAnimations();
+    }
+
+    /**
+     * 设置子菜单动画的实现方式
+     * <p>
+     * PROPERTY 方式使用 ViewPropertyAnimator 和硬件层，总是复用监听器，不受 {@link #setReuseAnimations} 影响
+     *
+     * @param animBackend 动画实现方式
+     */
+    public void setAnimBackend(AnimBackend animBackend) {
+        if (mAnimBackend == animBackend) {
+            return;
+        }
+        ArcItemAnimator itemAnimator;
+        if (animBackend == AnimBackend.PROPERTY) {
+            if (mPropertyItemAnimator == null) {
+                mPropertyItemAnimator = new PropertyItemAnimator(this);
+            }
+            itemAnimator = mPropertyItemAnimator;
+        } else if (animBackend == AnimBackend.FRAME) {
+            if (mFrameItemAnimator == null) {
+                mFrameItemAnimator = new FrameItemAnimator(this);
+            }
+            itemAnimator = mFrameItemAnimator;
+        } else {
+            itemAnimator = mViewItemAnimator;
+        }
+        for (int i = 1; i < getChildCount(); i++) {
+            mItemAnimator.reset(getChildAt(i));
+        }
+        mAnimBackend = animBackend;
+        mItemAnimator = itemAnimator;
+        // 只有单一帧时钟需要在绘制子 view 时应用变换
+        setStaticTransformationsEnabled(animBackend == AnimBackend.FRAME);
+    }
+
+    public AnimBackend getAnimBackend() {
+        return mAnimBackend;
+    }
+
+    ArcItemAnimator getItemAnimator() {
+        return mItemAnimator;
+    }
+
+    /**
+     * 设置子菜单依次展开、关闭的顺序、间隔和插值器，对下一次展开/关闭生效
+     *
+     * @param choreography null 表示按顺序依次开始，间隔按 stagger 计算
+     */
+    public void setChoreography(ArcChoreography choreography) {
+        mChoreography = choreography != null ? choreography : ArcChoreography.DEFAULT;
+    }
+
+    public ArcChoreography getChoreography() {
+        return mChoreography;
+    }
+
+    /**
+     * 设置点击子菜单后的反馈效果，对下一次点击生效
+     *
+     * @param clickEffect null 表示 {@link ArcClickEffect#SCALE_BURST}
+     */
+    public void setClickEffect(ArcClickEffect clickEffect) {
+        mClickEffect = clickEffect != null ? clickEffect : ArcClickEffect.SCALE_BURST;
+    }
+
+    public ArcClickEffect getClickEffect() {
+        return mClickEffect;
+    }
+
+    /**
+     * 已创建的动画相关对象数量
+     */
+    int getAnimationObjectCount() {
+        return mAnimationObjectCount;
+    }
+
+    int getMeasureChildCount() {
+        return mMeasureChildCount;
+    }
+
+    int getSkippedMeasureCount() {
+        return mSkippedMeasureCount;
+    }
+
+    int getSkippedLayoutCount() {
+        return mSkippedLayoutCount;
+    }
+
+    ArcAccessibilityHelper getAccessibilityHelper() {
+        return mAccessibilityHelper;
+    }
+
+    int getRequestLayoutCount() {
+        return mRequestLayoutCount;
+    }
+
+    ArcPlacementPlan getPlacementPlan() {
+        return mEngine.getPlan();
+    }
+
+    /**
+     * 统计展开/关闭过程中帧的对象，尚未需要统计时为 null
+     */
+    TransitionFrameTracker getFrameTracker() {
+        return mFrameTracker;
+    }
+
+    /**
+     * 菜单的目标状态，切换后立即改变，实际过程见 {@link #getTransitionState()}
+     */
+    public Status getCurrentStatus() {
+        return mCurrentStatus;
+    }
+
+    public View getMainView() {
+        return mMainView;
+    }
+
+    /**
+     * 设置主按钮在关闭、展开状态下的图标，菜单状态变化时自动切换
+     * <p>
+     * 图标在添加到窗口时由后台线程预先加载到 {@link ArcDrawableCache}，与其它菜单共用；
+     * 主按钮需要是 ImageView。
+     *
+     * @param closedResId 关闭状态的图标，0 表示不切换图标
+     * @param openResId   展开状态的图标，0 表示不切换图标
+     */
+    public void setMainIcons(int closedResId, int openResId) {
+        mMainIconClosed = closedResId;
+        mMainIconOpen = openResId;
+        mClosedIcon = null;
+        mOpenIcon = null;
+        mMainButtonAnimator.setCrossFadeIcons(null, null);
+        updatePreloadIcons();
+        updateMainIcon();
+        mMainButtonAnimator.jumpTo(isOpen());
+    }
+
+    public int getMainIconClosed() {
+        return mMainIconClosed;
+    }
+
+    public int getMainIconOpen() {
+        return mMainIconOpen;
+    }
+
+    /**
+     * 设置主按钮随菜单展开、关闭的变换，与子菜单使用相同的持续时间，打断时从当前进度反向
+     *
+     * @param rotation  展开后主按钮旋转的角度，0 表示不旋转
+     * @param scale     展开/关闭过程中主按钮最大的缩放，两端恢复原大小，1 表示不缩放
+     * @param crossFade 是否在 {@link #setMainIcons} 设置的两个图标之间交叉淡入淡出，否则直接切换
+     */
+    public void setMainTransition(float rotation, float scale, boolean crossFade) {
+        mMainButtonAnimator.setTransform(rotation, scale);
+        if (mMainCrossFade != crossFade) {
+            mMainCrossFade = crossFade;
+            mMainButtonAnimator.setCrossFadeIcons(null, null);
+            mClosedIcon = null;
+            mOpenIcon = null;
+            updateMainIcon();
+        }
+        mMainButtonAnimator.jumpTo(isOpen());
+    }
+
+    public float getMainRotation() {
+        return mMainButtonAnimator.getRotation();
+    }
+
+    public float getMainScale() {
+        return mMainButtonAnimator.getScale();
+    }
+
+    public boolean isMainCrossFade() {
+        return mMainCrossFade;
+    }
+
+    MainButtonAnimator getMainButtonAnimator() {
+        return mMainButtonAnimator;
+    }
+
+    /**
+     * 设置子菜单使用的图标，添加到窗口时在后台预先加载，
+     * 之后通过 {@link ArcDrawableCache#getDrawable} 取得时不需要解码，例如在 Adapter 中
+     */
+    public void setItemIcons(int... resIds) {
+        mItemIcons = resIds.clone();
+        updatePreloadIcons();
+        if (mAttached && mPreloadIcons != null) {
+            ArcDrawableCache.getInstance(getContext()).preload(mPreloadIcons);
+        }
+    }
+
+    private void updatePreloadIcons() {
+        if (mMainIconClosed == 0 && mMainIconOpen == 0 && mItemIcons.length == 0) {
+            mPreloadIcons = null;
+            return;
+        }
+        mPreloadIcons = new int[mItemIcons.length + 2];
+        mPreloadIcons[0] = mMainIconClosed;
+        mPreloadIcons[1] = mMainIconOpen;
+        System.arraycopy(mItemIcons, 0, mPreloadIcons, 2, mItemIcons.length);
+    }
+
+    void setMenuCoordinator(ArcMenuCoordinator menuCoordinator) {
+        mMenuCoordinator = menuCoordinator;
+    }
+
+    ArcMenuCoordinator getMenuCoordinator() {
+        return mMenuCoordinator;
     }
 }
@@ -0,0 +1,188 @@
+package com.chong.arclayout;
+
+import android.graphics.Rect;
+import android.os.Build;
+import android.widget.AbsListView;
+import android.widget.AbsListView.OnScrollListener;
+
+import java.util.ArrayList;
+
+/**
+ * 统一管理同一界面或同一列表中的多个 ArcLayout
+ * <p>
+ * 只记录当前展开的菜单，滚动时不需要逐个查询状态；注册关系保存在菜单上，
+ * 列表中重新创建的条目不会被 ArcMenuCoordinator 持有，离开窗口的菜单也不再记录。
+ * 列表开始滚动时在下一帧统一关闭所有展开的菜单，
+ * 已滚出屏幕的菜单直接关闭而不播放动画；同一时间只允许一个菜单展开，新菜单展开时关闭其他菜单。
+ * <p>
+ * 作为列表的 OnScrollListener 使用：
+ * <pre>
+ * ArcMenuCoordinator coordinator = new ArcMenuCoordinator();
+ * coordinator.register(arcLayout);
+ * listView.setOnScrollListener(coordinator);
+ * </pre>
+ */
+public class ArcMenuCoordinator implements OnScrollListener {
+    /**
+     * 当前展开或正在展开的菜单，菜单离开窗口后不再记录
+     */
+    private final ArrayList<ArcLayout> mOpenMenus = new ArrayList<>();
+    /**
+     * 判断菜单是否在屏幕上时复用的区域
+     */
+    private final Rect mVisibleRect = new Rect();
+    /**
+     * 关闭动画持续时间，默认300ms
+     */
+    private int mCloseDuration = 300;
+    /**
+     * 是否已安排在下一帧关闭所有菜单
+     */
+    private boolean mCloseScheduled;
+    private int mScrollState = SCROLL_STATE_IDLE;
+    private OnMenuCloseListener mOnMenuCloseListener;
+
+    private final Runnable mCloseRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mCloseScheduled = false;
+            closeOpenMenus(null);
+        }
+    };
+
+    /**
+     * 菜单被 ArcMenuCoordinator 关闭的回调接口
+     */
+    public interface OnMenuCloseListener {
+        /**
+         * 菜单因列表滚动或其他菜单展开而被关闭
+         *
+         * @param menu 被关闭的菜单
+         */
+        void onMenuClose(ArcLayout menu);
+    }
+
+    public void setOnMenuCloseListener(OnMenuCloseListener onMenuCloseListener) {
+        mOnMenuCloseListener = onMenuCloseListener;
+    }
+
+    /**
+     * 设置关闭动画持续时间
+     */
+    public void setCloseDuration(int closeDuration) {
+        mCloseDuration = closeDuration;
+    }
+
+    /**
+     * 注册一个菜单，重复注册同一个菜单没有影响；一个菜单只能由一个 ArcMenuCoordinator 管理
+     */
+    public void register(ArcLayout menu) {
+        ArcMenuCoordinator old = menu.getMenuCoordinator();
+        if (old == this) {
+            return;
+        }
+        if (old != null) {
+            old.unregister(menu);
+        }
+        menu.setMenuCoordinator(this);
+        if (menu.isOpen()) {
+            mOpenMenus.add(menu);
+        }
+    }
+
+    public void unregister(ArcLayout menu) {
+        if (menu.getMenuCoordinator() == this) {
+            mOpenMenus.remove(menu);
+            menu.setMenuCoordinator(null);
+        }
+    }
+
+    /**
+     * 在下一帧关闭所有展开的菜单，同一帧内多次调用只执行一次
+     */
+    public void closeAll() {
+        if (mOpenMenus.isEmpty() || mCloseScheduled) {
+            return;
+        }
+        ArcLayout host = mOpenMenus.get(0);
+        if (host.getWindowToken() == null) {
+            closeOpenMenus(null);
+            return;
+        }
+        mCloseScheduled = true;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            host.postOnAnimation(mCloseRunnable);
+        } else {
+            host.post(mCloseRunnable);
+        }
+    }
+
+    @Override
+    public void onScrollStateChanged(AbsListView view, int scrollState) {
+        mScrollState = scrollState;
+        if (scrollState != SCROLL_STATE_IDLE) {
+            closeAll();
+        }
+    }
+
+    @Override
+    public void onScroll(AbsListView view, int firstVisibleItem,
+                         int visibleItemCount, int totalItemCount) {
+        // 列表布局时也会回调 onScroll，只处理真正的滚动
+        if (mScrollState != SCROLL_STATE_IDLE) {
+            closeAll();
+        }
+    }
+
+    /**
+     * 菜单开始展开或关闭，由 ArcLayout 调用；展开时关闭其他菜单
+     */
+    void onMenuStatusChanged(ArcLayout menu, boolean open) {
+        if (!open) {
+            mOpenMenus.remove(menu);
+            return;
+        }
+        if (!mOpenMenus.isEmpty()) {
+            // 已在帧回调中，直接关闭其他菜单
+            closeOpenMenus(menu);
+        }
+        if (!mOpenMenus.contains(menu)) {
+            mOpenMenus.add(menu);
+        }
+    }
+
+    /**
+     * 菜单离开窗口，由 ArcLayout 调用；不再记录，避免持有已移除的列表条目
+     */
+    void onMenuDetached(ArcLayout menu) {
+        mOpenMenus.remove(menu);
+    }
+
+    /**
+     * 关闭除 except 以外所有展开的菜单，不在屏幕上的菜单直接关闭
+     */
+    private void closeOpenMenus(ArcLayout except) {
+        for (int i = mOpenMenus.size() - 1; i >= 0; i--) {
+            ArcLayout menu = mOpenMenus.get(i);
+            if (menu == except) {
+                continue;
+            }
+            mOpenMenus.remove(i);
+            if (menu.isShown() && menu.getGlobalVisibleRect(mVisibleRect)) {
+                menu.closeInFrame(mCloseDuration);
+            } else {
+                menu.closeImmediately();
+            }
+            if (mOnMenuCloseListener != null) {
+                mOnMenuCloseListener.onMenuClose(menu);
+            }
+        }
+    }
+
+    /**
+     * 当前展开的菜单数量
+     */
+    int getOpenMenuCount() {
+        return mOpenMenus.size();
+    }
+}
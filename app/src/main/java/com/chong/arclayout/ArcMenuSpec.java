@@ -0,0 +1,320 @@
+package com.chong.arclayout;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.util.AttributeSet;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+
+/**
+ * 弧形菜单的声明式配置
+ * <p>
+ * 包含主按钮位置、半径、角度、边距、动画时长和依次展开的间隔，可以从布局属性读取，也可以通过 {@link Builder} 创建。
+ * 对象创建后不可修改，配置相同的菜单共用同一份编译后的位置表：
+ * <pre>
+ * ArcMenuSpec spec = new ArcMenuSpec.Builder()
+ *         .setLocation(ArcLayout.Location.LEFT_TOP)
+ *         .setItemCount(3)
+ *         .build();
+ * arcLayout.setMenuSpec(spec);
+ * </pre>
+ */
+public final class ArcMenuSpec {
+    /**
+     * 未指定，使用 ArcLayout 按屏幕密度计算的默认值
+     */
+    public static final int UNSPECIFIED = -1;
+
+    private final ArcLayout.Location mLocation;
+    private final int mItemCount;
+    private final int mRadius;
+    private final float mStartAngle;
+    private final float mSweepAngle;
+    private final boolean mAutoRing;
+    private final int mRingSpacing;
+    private final int mXPadding;
+    private final int mYPadding;
+    private final int mOpenDuration;
+    private final int mCloseDuration;
+    private final int mScaleDuration;
+    private final int mStagger;
+
+    private ArcMenuSpec(Builder builder) {
+        mLocation = builder.mLocation;
+        mItemCount = builder.mItemCount;
+        mRadius = builder.mRadius;
+        mStartAngle = builder.mStartAngle;
+        mSweepAngle = builder.mSweepAngle;
+        mAutoRing = builder.mAutoRing;
+        mRingSpacing = builder.mRingSpacing;
+        mXPadding = builder.mXPadding;
+        mYPadding = builder.mYPadding;
+        mOpenDuration = builder.mOpenDuration;
+        mCloseDuration = builder.mCloseDuration;
+        mScaleDuration = builder.mScaleDuration;
+        mStagger = builder.mStagger;
+    }
+
+    /**
+     * 从布局属性读取配置，未设置的尺寸按屏幕密度换算为像素
+     */
+    public static ArcMenuSpec fromAttributes(Context context, AttributeSet attrs) {
+        TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.ArcLayout);
+        try {
+            return fromTypedArray(a, context.getResources().getDisplayMetrics());
+        } finally {
+            a.recycle();
+        }
+    }
+
+    static ArcMenuSpec fromTypedArray(TypedArray a, DisplayMetrics metrics) {
+        Builder builder = new Builder();
+        switch (a.getInt(R.styleable.ArcLayout_location, ArcLayout.LOCATION_RIGHT_BOTTOM)) {
+            case ArcLayout.LOCATION_LEFT_TOP:
+                builder.setLocation(ArcLayout.Location.LEFT_TOP);
+                break;
+            case ArcLayout.LOCATION_LEFT_BOTTOM:
+                builder.setLocation(ArcLayout.Location.LEFT_BOTTOM);
+                break;
+            case ArcLayout.LOCATION_RIGHT_TOP:
+                builder.setLocation(ArcLayout.Location.RIGHT_TOP);
+                break;
+            default:
+                builder.setLocation(ArcLayout.Location.RIGHT_BOTTOM);
+                break;
+        }
+        builder.setRadius((int) a.getDimension(R.styleable.ArcLayout_arc_radius,
+                TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 100, metrics)));
+        builder.setStartAngle(a.getFloat(R.styleable.ArcLayout_start_angle, builder.mStartAngle));
+        builder.setSweepAngle(a.getFloat(R.styleable.ArcLayout_sweep_angle, builder.mSweepAngle));
+        builder.setAutoRing(a.getBoolean(R.styleable.ArcLayout_auto_ring, builder.mAutoRing));
+        builder.setRingSpacing(a.getDimensionPixelSize(R.styleable.ArcLayout_ring_spacing, builder.mRingSpacing));
+        builder.setOpenDuration(a.getInt(R.styleable.ArcLayout_anim_open_duration, builder.mOpenDuration));
+        builder.setCloseDuration(a.getInt(R.styleable.ArcLayout_anim_close_duration, builder.mCloseDuration));
+        builder.setScaleDuration(a.getInt(R.styleable.ArcLayout_scale_anim_duration, builder.mScaleDuration));
+        builder.setStagger(a.getInt(R.styleable.ArcLayout_anim_stagger, builder.mStagger));
+        builder.setItemCount(a.getInt(R.styleable.ArcLayout_item_count, builder.mItemCount));
+        int xPadding = (int) a.getDimension(R.styleable.ArcLayout_x_padding,
+                TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 20, metrics));
+        // 未设置 y_padding 时与 x_padding 相同
+        builder.setPadding(xPadding, (int) a.getDimension(R.styleable.ArcLayout_y_padding, xPadding));
+        return builder.build();
+    }
+
+    public ArcLayout.Location getLocation() {
+        return mLocation;
+    }
+
+    /**
+     * 预期的子菜单数量，0 表示未指定；用于提前编译位置表，实际数量以子 view 为准
+     */
+    public int getItemCount() {
+        return mItemCount;
+    }
+
+    public int getRadius() {
+        return mRadius;
+    }
+
+    public float getStartAngle() {
+        return mStartAngle;
+    }
+
+    public float getSweepAngle() {
+        return mSweepAngle;
+    }
+
+    public boolean isAutoRing() {
+        return mAutoRing;
+    }
+
+    public int getRingSpacing() {
+        return mRingSpacing;
+    }
+
+    public int getXPadding() {
+        return mXPadding;
+    }
+
+    public int getYPadding() {
+        return mYPadding;
+    }
+
+    public int getOpenDuration() {
+        return mOpenDuration;
+    }
+
+    public int getCloseDuration() {
+        return mCloseDuration;
+    }
+
+    public int getScaleDuration() {
+        return mScaleDuration;
+    }
+
+    /**
+     * 子菜单依次展开的总间隔，第 i 个子菜单延迟 i * stagger / 子 view 数量
+     */
+    public int getStagger() {
+        return mStagger;
+    }
+
+    public Builder buildUpon() {
+        return new Builder(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ArcMenuSpec)) {
+            return false;
+        }
+        ArcMenuSpec spec = (ArcMenuSpec) o;
+        return mLocation == spec.mLocation
+                && mItemCount == spec.mItemCount
+                && mRadius == spec.mRadius
+                && Float.compare(mStartAngle, spec.mStartAngle) == 0
+                && Float.compare(mSweepAngle, spec.mSweepAngle) == 0
+                && mAutoRing == spec.mAutoRing
+                && mRingSpacing == spec.mRingSpacing
+                && mXPadding == spec.mXPadding
+                && mYPadding == spec.mYPadding
+                && mOpenDuration == spec.mOpenDuration
+                && mCloseDuration == spec.mCloseDuration
+                && mScaleDuration == spec.mScaleDuration
+                && mStagger == spec.mStagger;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = mLocation.hashCode();
+        result = 31 * result + mItemCount;
+        result = 31 * result + mRadius;
+        result = 31 * result + Float.floatToIntBits(mStartAngle);
+        result = 31 * result + Float.floatToIntBits(mSweepAngle);
+        result = 31 * result + (mAutoRing ? 1 : 0);
+        result = 31 * result + mRingSpacing;
+        result = 31 * result + mXPadding;
+        result = 31 * result + mYPadding;
+        result = 31 * result + mOpenDuration;
+        result = 31 * result + mCloseDuration;
+        result = 31 * result + mScaleDuration;
+        result = 31 * result + mStagger;
+        return result;
+    }
+
+    /**
+     * ArcMenuSpec 的构建器，默认值与 ArcLayout 相同
+     */
+    public static final class Builder {
+        private ArcLayout.Location mLocation = ArcLayout.Location.RIGHT_BOTTOM;
+        private int mItemCount = 0;
+        private int mRadius = UNSPECIFIED;
+        private float mStartAngle = 0f;
+        private float mSweepAngle = 90f;
+        private boolean mAutoRing = false;
+        private int mRingSpacing = 0;
+        private int mXPadding = UNSPECIFIED;
+        private int mYPadding = UNSPECIFIED;
+        private int mOpenDuration = 800;
+        private int mCloseDuration = 300;
+        private int mScaleDuration = 300;
+        private int mStagger = 100;
+
+        public Builder() {
+        }
+
+        Builder(ArcMenuSpec spec) {
+            mLocation = spec.mLocation;
+            mItemCount = spec.mItemCount;
+            mRadius = spec.mRadius;
+            mStartAngle = spec.mStartAngle;
+            mSweepAngle = spec.mSweepAngle;
+            mAutoRing = spec.mAutoRing;
+            mRingSpacing = spec.mRingSpacing;
+            mXPadding = spec.mXPadding;
+            mYPadding = spec.mYPadding;
+            mOpenDuration = spec.mOpenDuration;
+            mCloseDuration = spec.mCloseDuration;
+            mScaleDuration = spec.mScaleDuration;
+            mStagger = spec.mStagger;
+        }
+
+        public Builder setLocation(ArcLayout.Location location) {
+            if (location == null) {
+                throw new IllegalArgumentException("location == null");
+            }
+            mLocation = location;
+            return this;
+        }
+
+        public Builder setItemCount(int itemCount) {
+            mItemCount = Math.max(itemCount, 0);
+            return this;
+        }
+
+        /**
+         * @param radius 单位像素，{@link #UNSPECIFIED} 表示 100dp
+         */
+        public Builder setRadius(int radius) {
+            mRadius = radius;
+            return this;
+        }
+
+        public Builder setStartAngle(float startAngle) {
+            mStartAngle = startAngle;
+            return this;
+        }
+
+        public Builder setSweepAngle(float sweepAngle) {
+            mSweepAngle = sweepAngle;
+            return this;
+        }
+
+        public Builder setAutoRing(boolean autoRing) {
+            mAutoRing = autoRing;
+            return this;
+        }
+
+        public Builder setRingSpacing(int ringSpacing) {
+            mRingSpacing = ringSpacing;
+            return this;
+        }
+
+        /**
+         * @param xPadding 单位像素，{@link #UNSPECIFIED} 表示 20dp
+         * @param yPadding 单位像素，{@link #UNSPECIFIED} 表示 20dp
+         */
+        public Builder setPadding(int xPadding, int yPadding) {
+            mXPadding = xPadding;
+            mYPadding = yPadding;
+            return this;
+        }
+
+        public Builder setOpenDuration(int openDuration) {
+            mOpenDuration = openDuration;
+            return this;
+        }
+
+        public Builder setCloseDuration(int closeDuration) {
+            mCloseDuration = closeDuration;
+            return this;
+        }
+
+        public Builder setScaleDuration(int scaleDuration) {
+            mScaleDuration = scaleDuration;
+            return this;
+        }
+
+        public Builder setStagger(int stagger) {
+            mStagger = Math.max(stagger, 0);
+            return this;
+        }
+
+        public ArcMenuSpec build() {
+            return new ArcMenuSpec(this);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.chong.arclayout;
+
+import android.view.View;
+import android.widget.Adapter;
+
+import java.util.ArrayList;
+
+/**
+ * 子菜单 view 的回收池，按 Adapter 的 view 类型分别保存，数据变化时复用已有的 view
+ */
+final class ArcRecycler {
+    private ArrayList<ArrayList<View>> mScrapViews = new ArrayList<>();
+
+    /**
+     * 设置 view 类型数量，类型数量变化时清空回收池
+     */
+    void setViewTypeCount(int viewTypeCount) {
+        if (viewTypeCount < 1) {
+            throw new IllegalArgumentException("Can't have a viewTypeCount < 1");
+        }
+        if (viewTypeCount == mScrapViews.size()) {
+            return;
+        }
+        mScrapViews = new ArrayList<>(viewTypeCount);
+        for (int i = 0; i < viewTypeCount; i++) {
+            mScrapViews.add(new ArrayList<View>());
+        }
+    }
+
+    /**
+     * 回收 view
+     *
+     * @param view     子菜单
+     * @param viewType Adapter 返回的 view 类型，IGNORE_ITEM_VIEW_TYPE 时不回收
+     */
+    void addScrapView(View view, int viewType) {
+        if (viewType == Adapter.IGNORE_ITEM_VIEW_TYPE || viewType < 0 || viewType >= mScrapViews.size()) {
+            return;
+        }
+        mScrapViews.get(viewType).add(view);
+    }
+
+    /**
+     * 取出一个可复用的 view
+     *
+     * @return 没有可复用的 view 时返回 null
+     */
+    View getScrapView(int viewType) {
+        if (viewType < 0 || viewType >= mScrapViews.size()) {
+            return null;
+        }
+        ArrayList<View> scrap = mScrapViews.get(viewType);
+        int size = scrap.size();
+        return size > 0 ? scrap.remove(size - 1) : null;
+    }
+
+    void clear() {
+        for (int i = 0; i < mScrapViews.size(); i++) {
+            mScrapViews.get(i).clear();
+        }
+    }
+}
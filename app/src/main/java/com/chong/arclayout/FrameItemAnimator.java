@@ -0,0 +1,353 @@
+package com.chong.arclayout;
+
+import android.annotation.TargetApi;
+import android.graphics.Matrix;
+import android.os.Build;
+import android.os.SystemClock;
+import android.view.Choreographer;
+import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.Interpolator;
+import android.view.animation.Transformation;
+
+/**
+ * 由同一个帧时钟驱动所有子菜单的动画
+ * <p>
+ * 不为每个子菜单创建动画，而是在一个 Choreographer 帧回调中按同一帧时间计算所有子菜单的平移、透明度和缩放，
+ * 保存在基本类型数组中，由 ArcLayout 通过 getChildStaticTransformation 在绘制时应用；
+ * 每帧只使父布局重绘一次，子菜单本身不需要重新绘制。API 16 以下退化为 postDelayed。
+ */
+final class FrameItemAnimator implements ArcItemAnimator, Runnable {
+    /**
+     * API 16 以下两帧之间的间隔
+     */
+    private static final long FALLBACK_FRAME_DELAY = 16;
+
+    private final ArcLayout mLayout;
+    private final Interpolator mClickInterpolator = new AccelerateDecelerateInterpolator();
+    /**
+     * 展开、关闭时是否改变透明度
+     */
+    private boolean mAlphaEnabled = true;
+
+    private int mCapacity;
+    private View[] mViews = new View[0];
+    private Interpolator[] mInterpolators = new Interpolator[0];
+    private boolean[] mRunning = new boolean[0];
+    /**
+     * 动画开始的帧时间，-1 表示在下一帧开始
+     */
+    private long[] mStartTimes = new long[0];
+    private int[] mDelays = new int[0];
+    private int[] mDurations = new int[0];
+    /**
+     * 起止值，依次为 x、y、透明度、缩放
+     */
+    private float[] mFrom = new float[0];
+    private float[] mTo = new float[0];
+    /**
+     * 最近一帧的值，依次为 x、y、透明度、缩放
+     */
+    private float[] mCurrent = new float[0];
+
+    private boolean mFrameScheduled;
+    private Object mFrameCallback;
+    /**
+     * 上一次查找到的子菜单序号，绘制时按顺序查找，通常下一个就是
+     */
+    private int mLookupHint;
+    /**
+     * 执行的帧数，供测试使用
+     */
+    private int mFrameCount;
+
+    FrameItemAnimator(ArcLayout layout) {
+        mLayout = layout;
+    }
+
+    @Override
+    public void animateToggle(View child, int index, boolean open, int translateX, int translateY,
+                              int duration, int startOffset, Interpolator interpolator,
+                              boolean fromCurrent) {
+        bind(index, child);
+        int base = index * 4;
+        if (fromCurrent && mRunning[index]) {
+            // 从当前帧的位置向目标位置移动，持续时间按剩余距离缩短
+            float targetX = open ? 0f : translateX;
+            float targetY = open ? 0f : translateY;
+            duration = (int) (duration * ArcItemAnimation.remainingFraction(
+                    mCurrent[base], mCurrent[base + 1], targetX, targetY, translateX, translateY));
+            startOffset = 0;
+            System.arraycopy(mCurrent, base, mFrom, base, 4);
+        } else if (open) {
+            setValues(mFrom, base, translateX, translateY, mAlphaEnabled ? 0f : 1f, 1f);
+        } else {
+            setValues(mFrom, base, 0f, 0f, 1f, 1f);
+        }
+        if (open) {
+            setValues(mTo, base, 0f, 0f, 1f, 1f);
+        } else {
+            setValues(mTo, base, translateX, translateY, mAlphaEnabled ? 0f : 1f, mFrom[base + 3]);
+        }
+        System.arraycopy(mFrom, base, mCurrent, base, 4);
+        start(index, duration, startOffset, interpolator);
+    }
+
+    @Override
+    public void animateMove(View child, int index, int fromX, int fromY, int duration) {
+        bind(index, child);
+        int base = index * 4;
+        System.arraycopy(mCurrent, base, mFrom, base, 4);
+        mFrom[base] += fromX;
+        mFrom[base + 1] += fromY;
+        setValues(mTo, base, 0f, 0f, mCurrent[base + 2], mCurrent[base + 3]);
+        System.arraycopy(mFrom, base, mCurrent, base, 4);
+        start(index, duration, 0, mClickInterpolator);
+    }
+
+    @Override
+    public void animateClick(View child, int index, float toScale, float toAlpha, int duration,
+                             int startOffset, Interpolator interpolator) {
+        bind(index, child);
+        int base = index * 4;
+        System.arraycopy(mCurrent, base, mFrom, base, 4);
+        setValues(mTo, base, mCurrent[base], mCurrent[base + 1], toAlpha, toScale);
+        start(index, duration, startOffset, interpolator);
+    }
+
+    @Override
+    public void setAlphaEnabled(boolean alphaEnabled) {
+        mAlphaEnabled = alphaEnabled;
+    }
+
+    @Override
+    public void reset(View child) {
+        int index = indexOf(child);
+        if (index < 0) {
+            return;
+        }
+        mRunning[index] = false;
+        mViews[index] = null;
+        setValues(mCurrent, index * 4, 0f, 0f, 1f, 1f);
+        mLayout.invalidate();
+    }
+
+    /**
+     * 子菜单当前帧的变换
+     *
+     * @return false 子菜单没有变换，不需要应用
+     */
+    boolean getTransformation(View child, Transformation t) {
+        int index = indexOf(child);
+        if (index < 0) {
+            return false;
+        }
+        int base = index * 4;
+        float dx = mCurrent[base];
+        float dy = mCurrent[base + 1];
+        float alpha = mCurrent[base + 2];
+        float scale = mCurrent[base + 3];
+        if (dx == 0f && dy == 0f && alpha == 1f && scale == 1f) {
+            return false;
+        }
+        t.clear();
+        Matrix matrix = t.getMatrix();
+        if (scale != 1f) {
+            matrix.setScale(scale, scale, child.getWidth() * 0.5f, child.getHeight() * 0.5f);
+            matrix.postTranslate(dx, dy);
+        } else {
+            matrix.setTranslate(dx, dy);
+        }
+        t.setAlpha(alpha);
+        return true;
+    }
+
+    /**
+     * 把子菜单与序号对应，增删子菜单后序号可能变化，同一个子菜单只保留最新的序号
+     */
+    private void bind(int index, View child) {
+        ensureCapacity(index + 1);
+        if (mViews[index] == child) {
+            return;
+        }
+        // 当前值随子菜单一起移动到新的序号，没有记录的子菜单从未变换的状态开始
+        setValues(mCurrent, index * 4, 0f, 0f, 1f, 1f);
+        for (int i = 0; i < mCapacity; i++) {
+            if (mViews[i] == child) {
+                System.arraycopy(mCurrent, i * 4, mCurrent, index * 4, 4);
+                mViews[i] = null;
+                mRunning[i] = false;
+            }
+        }
+        mViews[index] = child;
+    }
+
+    private void start(int index, int duration, int delay, Interpolator interpolator) {
+        mInterpolators[index] = interpolator;
+        mDurations[index] = duration;
+        mDelays[index] = delay;
+        mStartTimes[index] = -1;
+        mRunning[index] = true;
+        scheduleFrame();
+    }
+
+    private static void setValues(float[] values, int base, float x, float y, float alpha, float scale) {
+        values[base] = x;
+        values[base + 1] = y;
+        values[base + 2] = alpha;
+        values[base + 3] = scale;
+    }
+
+    private void ensureCapacity(int count) {
+        if (count <= mCapacity) {
+            return;
+        }
+        int capacity = Math.max(count, mCapacity * 2);
+        View[] views = new View[capacity];
+        System.arraycopy(mViews, 0, views, 0, mCapacity);
+        mViews = views;
+        Interpolator[] interpolators = new Interpolator[capacity];
+        System.arraycopy(mInterpolators, 0, interpolators, 0, mCapacity);
+        mInterpolators = interpolators;
+        boolean[] running = new boolean[capacity];
+        System.arraycopy(mRunning, 0, running, 0, mCapacity);
+        mRunning = running;
+        long[] startTimes = new long[capacity];
+        System.arraycopy(mStartTimes, 0, startTimes, 0, mCapacity);
+        mStartTimes = startTimes;
+        int[] delays = new int[capacity];
+        System.arraycopy(mDelays, 0, delays, 0, mCapacity);
+        mDelays = delays;
+        int[] durations = new int[capacity];
+        System.arraycopy(mDurations, 0, durations, 0, mCapacity);
+        mDurations = durations;
+        mFrom = grow(mFrom, capacity * 4);
+        mTo = grow(mTo, capacity * 4);
+        float[] current = grow(mCurrent, capacity * 4);
+        for (int i = mCapacity; i < capacity; i++) {
+            setValues(current, i * 4, 0f, 0f, 1f, 1f);
+        }
+        mCurrent = current;
+        mCapacity = capacity;
+    }
+
+    private static float[] grow(float[] values, int size) {
+        float[] grown = new float[size];
+        System.arraycopy(values, 0, grown, 0, values.length);
+        return grown;
+    }
+
+    private int indexOf(View child) {
+        int hint = mLookupHint + 1;
+        if (hint < mCapacity && mViews[hint] == child) {
+            mLookupHint = hint;
+            return hint;
+        }
+        for (int i = 0; i < mCapacity; i++) {
+            if (mViews[i] == child) {
+                mLookupHint = i;
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void scheduleFrame() {
+        if (mFrameScheduled) {
+            return;
+        }
+        mFrameScheduled = true;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            if (mFrameCallback == null) {
+                mFrameCallback = mLayout.track(new VsyncCallback());
+            }
+            Choreographer.getInstance().postFrameCallback((VsyncCallback) mFrameCallback);
+        } else {
+            mLayout.postDelayed(this, FALLBACK_FRAME_DELAY);
+        }
+    }
+
+    @Override
+    public void run() {
+        mFrameScheduled = false;
+        onFrame(SystemClock.uptimeMillis());
+    }
+
+    /**
+     * 按同一帧时间推进所有正在进行的动画，结束的子菜单在更新完所有子菜单后统一通知
+     *
+     * @param frameTimeMillis 帧时间
+     */
+    void onFrame(long frameTimeMillis) {
+        mFrameCount++;
+        boolean running = false;
+        boolean finished = false;
+        for (int i = 0; i < mCapacity; i++) {
+            if (!mRunning[i]) {
+                continue;
+            }
+            if (mStartTimes[i] < 0) {
+                // 同一次展开/关闭的子菜单在同一帧开始，间隔只由延迟决定
+                mStartTimes[i] = frameTimeMillis;
+            }
+            long elapsed = frameTimeMillis - mStartTimes[i] - mDelays[i];
+            float fraction;
+            if (elapsed < 0) {
+                fraction = 0f;
+            } else if (mDurations[i] <= 0 || elapsed >= mDurations[i]) {
+                fraction = 1f;
+            } else {
+                fraction = elapsed / (float) mDurations[i];
+            }
+            float value = fraction < 1f ? mInterpolators[i].getInterpolation(fraction) : 1f;
+            int base = i * 4;
+            for (int j = base; j < base + 4; j++) {
+                mCurrent[j] = mFrom[j] + (mTo[j] - mFrom[j]) * value;
+            }
+            if (fraction >= 1f) {
+                mRunning[i] = false;
+                // 借用开始时间标记本帧结束的子菜单，结束通知中重新开始的动画会覆盖该标记
+                mStartTimes[i] = Long.MIN_VALUE;
+                finished = true;
+            } else {
+                running = true;
+            }
+        }
+        mLayout.invalidate();
+        if (running) {
+            scheduleFrame();
+        }
+        if (!finished) {
+            return;
+        }
+        for (int i = 0; i < mCapacity; i++) {
+            // 结束通知中的回调可能移除子菜单、reset 或重新开始其他子菜单的动画
+            if (mStartTimes[i] != Long.MIN_VALUE || mRunning[i]) {
+                continue;
+            }
+            mStartTimes[i] = 0;
+            View view = mViews[i];
+            if (view != null && !mLayout.isExpanded()) {
+                view.setVisibility(View.INVISIBLE);
+            }
+            mLayout.onItemAnimationEnd(i + 1);
+        }
+    }
+
+    boolean isFrameScheduled() {
+        return mFrameScheduled;
+    }
+
+    int getFrameCount() {
+        return mFrameCount;
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private final class VsyncCallback implements Choreographer.FrameCallback {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mFrameScheduled = false;
+            onFrame(frameTimeNanos / 1000000);
+        }
+    }
+}
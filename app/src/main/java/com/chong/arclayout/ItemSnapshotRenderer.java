@@ -0,0 +1,148 @@
+package com.chong.arclayout;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.view.View;
+import android.view.animation.Animation;
+import android.view.animation.Transformation;
+
+import java.util.ArrayList;
+
+/**
+ * 子菜单快照绘制
+ * <p>
+ * 展开/关闭期间把每个子菜单绘制到各自的 Bitmap 上，之后每帧只绘制 Bitmap 并叠加子菜单当前的
+ * 平移、缩放和透明度，不再遍历子菜单的 view 树。快照只在子菜单集合或布局变化后重新生成，
+ * 子菜单内容变化时需要调用 {@link #invalidate()}。
+ */
+final class ItemSnapshotRenderer {
+    /**
+     * 子菜单快照，依次对应第 1..n 个子 view，尺寸为 0 的子菜单为 null
+     */
+    private final ArrayList<Bitmap> mSnapshots = new ArrayList<>();
+    private final Canvas mSnapshotCanvas = new Canvas();
+    private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Transformation mTransformation = new Transformation();
+    private boolean mValid;
+    /**
+     * 生成快照的次数，供测试检查快照是否被复用
+     */
+    private int mRenderCount;
+
+    /**
+     * 快照失效，下次绘制时重新生成
+     */
+    void invalidate() {
+        mValid = false;
+    }
+
+    /**
+     * 按需生成所有子菜单的快照
+     *
+     * @param layout 子菜单所在的 ArcLayout，第一个子 view 为主按钮
+     * @return false 无法生成快照，应绘制实际的子菜单
+     */
+    boolean prepare(ArcLayout layout) {
+        int itemCount = layout.getChildCount() - 1;
+        if (mValid && mSnapshots.size() == itemCount) {
+            return true;
+        }
+        try {
+            for (int i = 0; i < itemCount; i++) {
+                View child = layout.getChildAt(i + 1);
+                Bitmap bitmap = i < mSnapshots.size() ? mSnapshots.get(i) : null;
+                int width = child.getWidth();
+                int height = child.getHeight();
+                if (width <= 0 || height <= 0) {
+                    bitmap = null;
+                } else if (bitmap != null && bitmap.getWidth() == width && bitmap.getHeight() == height) {
+                    bitmap.eraseColor(Color.TRANSPARENT);
+                } else {
+                    bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+                }
+                if (bitmap != null) {
+                    mSnapshotCanvas.setBitmap(bitmap);
+                    child.draw(mSnapshotCanvas);
+                }
+                if (i < mSnapshots.size()) {
+                    mSnapshots.set(i, bitmap);
+                } else {
+                    mSnapshots.add(bitmap);
+                }
+            }
+        } catch (OutOfMemoryError e) {
+            release();
+            return false;
+        } finally {
+            mSnapshotCanvas.setBitmap(null);
+        }
+        while (mSnapshots.size() > itemCount) {
+            mSnapshots.remove(mSnapshots.size() - 1);
+        }
+        mValid = true;
+        mRenderCount++;
+        return true;
+    }
+
+    /**
+     * 按子菜单当前的动画状态绘制快照
+     *
+     * @param index 子菜单序号，从 0 开始，不含主按钮
+     * @return true 子菜单上的补间动画尚未结束
+     */
+    boolean draw(Canvas canvas, ArcLayout layout, View child, int index, long drawingTime) {
+        Bitmap bitmap = mSnapshots.get(index);
+        if (bitmap == null || child.getVisibility() != View.VISIBLE) {
+            return false;
+        }
+        boolean more = false;
+        float alpha = child.getAlpha();
+        int saveCount = canvas.save();
+        canvas.translate(child.getLeft() + child.getTranslationX(),
+                child.getTop() + child.getTranslationY());
+        float scaleX = child.getScaleX();
+        float scaleY = child.getScaleY();
+        if (scaleX != 1f || scaleY != 1f) {
+            canvas.scale(scaleX, scaleY, child.getPivotX(), child.getPivotY());
+        }
+        Animation animation = child.getAnimation();
+        if (animation != null) {
+            // 子菜单本身不再绘制，由这里推进补间动画
+            if (!animation.isInitialized()) {
+                animation.initialize(child.getWidth(), child.getHeight(),
+                        layout.getWidth(), layout.getHeight());
+            }
+            mTransformation.clear();
+            more = animation.getTransformation(drawingTime, mTransformation);
+            canvas.concat(mTransformation.getMatrix());
+            alpha *= mTransformation.getAlpha();
+        } else if (layout.getItemTransformation(child, mTransformation)) {
+            canvas.concat(mTransformation.getMatrix());
+            alpha *= mTransformation.getAlpha();
+        }
+        mPaint.setAlpha((int) (alpha * 255));
+        canvas.drawBitmap(bitmap, 0, 0, mPaint);
+        canvas.restoreToCount(saveCount);
+        return more;
+    }
+
+    /**
+     * 释放所有快照
+     */
+    void release() {
+        for (int i = 0; i < mSnapshots.size(); i++) {
+            Bitmap bitmap = mSnapshots.get(i);
+            if (bitmap != null) {
+                bitmap.recycle();
+            }
+        }
+        mSnapshots.clear();
+        mValid = false;
+    }
+
+    int getRenderCount() {
+        return mRenderCount;
+    }
+}
@@ -3,10 +3,7 @@ package com.chong.arclayout;
 import android.app.Activity;
 import android.os.Bundle;
 import android.view.View;
-import android.widget.AbsListView;
-import android.widget.AbsListView.OnScrollListener;
 import android.widget.ArrayAdapter;
-import android.widget.ImageView;
 import android.widget.ListView;
 import android.widget.Toast;
 
@@ -17,7 +14,9 @@ public class MainActivity extends Activity {
     private ListView mListView;
     private ArcLayout mArcLayout;
     private ArcLayout mArcLayout2;
-    private ImageView mIvMain;
+    private ArcLayout mArcLayout3;
+    private ArcLayout mArcLayout4;
+    private final ArcMenuCoordinator mMenuCoordinator = new ArcMenuCoordinator();
     private List<String> mData;
 
     @Override
@@ -35,38 +34,23 @@ public class MainActivity extends Activity {
     }
 
     private void initEvent() {
-        mListView.setOnScrollListener(new OnScrollListener() {
-
-            @Override
-            public void onScrollStateChanged(AbsListView view, int scrollState) {
-
-            }
-
-            @Override
-            public void onScroll(AbsListView view, int firstVisibleItem,
-                                 int visibleItemCount, int totalItemCount) {
-                if (mArcLayout.isOpen()) {
-                    mIvMain.setImageResource(R.drawable.shequ_img_sent);
-                    mArcLayout.toggleMenu(300);
-                }
-            }
-        });
+        // 滚动时统一关闭展开的菜单，同一时间只展开一个菜单
+        mMenuCoordinator.register(mArcLayout);
+        mMenuCoordinator.register(mArcLayout2);
+        mMenuCoordinator.register(mArcLayout3);
+        mMenuCoordinator.register(mArcLayout4);
+        mListView.setOnScrollListener(mMenuCoordinator);
 
         mArcLayout.setOnMenuItemClickListener(new ArcLayout.OnMenuItemClickListener() {
             @Override
             public void onItemClick(View view, int position) {
                 Toast.makeText(MainActivity.this, position + ":" + view.getTag(), Toast.LENGTH_SHORT).show();
-                mIvMain.setImageResource(R.drawable.shequ_img_sent);
             }
         });
         mArcLayout.setOnMainMenuItemClickListener(new ArcLayout.OnMainMenuItemClickListener() {
             @Override
             public boolean onMainClick(View view, ArcLayout.Status status) {
-                if (status == ArcLayout.Status.OPEN) { //当前展开状态，->关闭
-                    mIvMain.setImageResource(R.drawable.shequ_img_sent);
-                } else { // 当前关闭状态，->展开
-                    mIvMain.setImageResource(R.drawable.shequ_ic_fatie_guanbi);
-                }
+                // 主按钮图标由 main_icon_closed/main_icon_open 随菜单状态切换
                 return true; // 需要展开，返回true
             }
         });
@@ -83,7 +67,6 @@ public class MainActivity extends Activity {
             @Override
             public void onItemClick(View view, int position) {
                 Toast.makeText(MainActivity.this, position + ":" + view.getTag(), Toast.LENGTH_SHORT).show();
-                mIvMain.setImageResource(R.drawable.shequ_img_sent);
             }
         });
     }
@@ -101,7 +84,8 @@ public class MainActivity extends Activity {
         mListView = (ListView) findViewById(R.id.lv);
         mArcLayout = (ArcLayout) findViewById(R.id.menu_right_bottom);
         mArcLayout2 = (ArcLayout) findViewById(R.id.menu_left_top);
-        mIvMain = (ImageView) findViewById(R.id.iv_main);
+        mArcLayout3 = (ArcLayout) findViewById(R.id.menu_left_bottom);
+        mArcLayout4 = (ArcLayout) findViewById(R.id.menu_right_top);
     }
 
 }
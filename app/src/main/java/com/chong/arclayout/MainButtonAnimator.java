@@ -0,0 +1,177 @@
+package com.chong.arclayout;
+
+import android.animation.ValueAnimator;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.LayerDrawable;
+import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+
+/**
+ * 主按钮随菜单展开、关闭的变换：旋转、两个图标交叉淡入淡出和可选的缩放
+ * <p>
+ * 进度 0 为关闭、1 为展开，所有变换都由同一个进度计算。整个菜单只使用一个 ValueAnimator，
+ * 首次使用时创建，之后的切换只改变起止进度和持续时间，不再创建对象；
+ * 交叉淡入淡出使用包含两个图标的 LayerDrawable，只改变两层的透明度，不替换主按钮的图标。
+ */
+final class MainButtonAnimator implements ValueAnimator.AnimatorUpdateListener {
+    private final ArcLayout mLayout;
+    private ValueAnimator mAnimator;
+    /**
+     * 展开后主按钮旋转的角度
+     */
+    private float mRotation;
+    /**
+     * 展开/关闭过程中主按钮最大的缩放，1 表示不缩放
+     */
+    private float mScale = 1f;
+    /**
+     * 交叉淡入淡出的图标，第 0 层为关闭状态，第 1 层为展开状态；不淡入淡出时为 null
+     */
+    private LayerDrawable mCrossFadeDrawable;
+    private Drawable mClosedIcon;
+    private Drawable mOpenIcon;
+    /**
+     * 当前进度及本次动画的起止进度
+     */
+    private float mProgress;
+    private float mFromProgress;
+    private float mToProgress;
+
+    MainButtonAnimator(ArcLayout layout) {
+        mLayout = layout;
+    }
+
+    void setTransform(float rotation, float scale) {
+        mRotation = rotation;
+        mScale = scale;
+        View main = getMainView();
+        if (main != null) {
+            main.setRotation(0f);
+            main.setScaleX(1f);
+            main.setScaleY(1f);
+        }
+    }
+
+    float getRotation() {
+        return mRotation;
+    }
+
+    float getScale() {
+        return mScale;
+    }
+
+    /**
+     * 设置交叉淡入淡出的两个图标
+     *
+     * @return 包含两个图标的 Drawable，需要设置给主按钮；任一图标为 null 时不淡入淡出，返回 null
+     */
+    Drawable setCrossFadeIcons(Drawable closedIcon, Drawable openIcon) {
+        if (closedIcon == null || openIcon == null) {
+            mCrossFadeDrawable = null;
+            mClosedIcon = null;
+            mOpenIcon = null;
+            return null;
+        }
+        // 图标可能与缓存中的其它实例共用状态，改变透明度前先分离
+        mClosedIcon = closedIcon.mutate();
+        mOpenIcon = openIcon.mutate();
+        mCrossFadeDrawable = mLayout.track(new LayerDrawable(new Drawable[]{mClosedIcon, mOpenIcon}));
+        applyAlpha();
+        return mCrossFadeDrawable;
+    }
+
+    boolean hasCrossFade() {
+        return mCrossFadeDrawable != null;
+    }
+
+    private boolean isEnabled() {
+        return mRotation != 0f || mScale != 1f || mCrossFadeDrawable != null;
+    }
+
+    /**
+     * 从当前进度向目标状态移动，持续时间按剩余距离缩短，与子菜单的反向动画一致
+     *
+     * @param open     true 展开;false 关闭
+     * @param duration 从关闭到展开完整过程的持续时间
+     */
+    void animateTo(boolean open, int duration) {
+        if (!isEnabled()) {
+            return;
+        }
+        float target = open ? 1f : 0f;
+        if (mAnimator != null) {
+            mAnimator.cancel();
+        }
+        if (duration <= 0 || mProgress == target) {
+            apply(target);
+            return;
+        }
+        if (mAnimator == null) {
+            mAnimator = mLayout.track(ValueAnimator.ofFloat(0f, 1f));
+            mAnimator.setInterpolator(mLayout.track(new AccelerateDecelerateInterpolator()));
+            mAnimator.addUpdateListener(this);
+        }
+        mFromProgress = mProgress;
+        mToProgress = target;
+        mAnimator.setDuration((long) (duration * Math.abs(target - mProgress)));
+        mAnimator.start();
+    }
+
+    /**
+     * 停止动画，直接进入目标状态
+     */
+    void jumpTo(boolean open) {
+        if (mAnimator != null) {
+            mAnimator.cancel();
+        }
+        if (isEnabled()) {
+            apply(open ? 1f : 0f);
+        } else {
+            mProgress = open ? 1f : 0f;
+        }
+    }
+
+    float getProgress() {
+        return mProgress;
+    }
+
+    ValueAnimator getAnimator() {
+        return mAnimator;
+    }
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animation) {
+        float fraction = (Float) animation.getAnimatedValue();
+        apply(mFromProgress + (mToProgress - mFromProgress) * fraction);
+    }
+
+    private void apply(float progress) {
+        mProgress = progress;
+        View main = getMainView();
+        if (main != null) {
+            if (mRotation != 0f) {
+                main.setRotation(mRotation * progress);
+            }
+            if (mScale != 1f) {
+                // 过程中间缩放最大，两端恢复原大小，不影响展开/关闭后的点击区域
+                float scale = 1f + (mScale - 1f) * 4f * progress * (1f - progress);
+                main.setScaleX(scale);
+                main.setScaleY(scale);
+            }
+        }
+        applyAlpha();
+    }
+
+    private void applyAlpha() {
+        if (mCrossFadeDrawable == null) {
+            return;
+        }
+        int alpha = Math.round(255 * mProgress);
+        mClosedIcon.setAlpha(255 - alpha);
+        mOpenIcon.setAlpha(alpha);
+    }
+
+    private View getMainView() {
+        return mLayout.getChildCount() > 0 ? mLayout.getChildAt(0) : null;
+    }
+}
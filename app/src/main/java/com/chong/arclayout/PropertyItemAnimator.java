@@ -0,0 +1,163 @@
+package com.chong.arclayout;
+
+import android.animation.Animator;
+import android.os.Build;
+import android.view.View;
+import android.view.ViewPropertyAnimator;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.Interpolator;
+
+import java.util.ArrayList;
+
+/**
+ * 基于 ViewPropertyAnimator 的子菜单动画
+ * <p>
+ * 直接修改子菜单的 translationX/Y、alpha 和 scale，动画期间使用硬件层，
+ * 每帧只需更新 RenderNode 属性，不需要重绘父布局；子菜单的实际位置与绘制位置一致，点击区域也随之正确。
+ */
+final class PropertyItemAnimator implements ArcItemAnimator {
+    private final ArcLayout mLayout;
+    private final ArrayList<ItemHolder> mItemHolders = new ArrayList<>();
+    private final Interpolator mCloseInterpolator = new AccelerateDecelerateInterpolator();
+    private boolean mAlphaEnabled = true;
+
+    PropertyItemAnimator(ArcLayout layout) {
+        mLayout = layout;
+    }
+
+    @Override
+    public void animateToggle(View child, int index, boolean open, int translateX, int translateY,
+                              int duration, int startOffset, Interpolator interpolator,
+                              boolean fromCurrent) {
+        ItemHolder holder = obtainItemHolder(index, child);
+        ViewPropertyAnimator animator = child.animate();
+        // 停止正在进行的动画，新动画从当前属性值开始
+        animator.cancel();
+        if (fromCurrent) {
+            // 反向时不重置起点，持续时间按剩余距离缩短
+            float targetX = open ? 0f : translateX;
+            float targetY = open ? 0f : translateY;
+            duration = (int) (duration * ArcItemAnimation.remainingFraction(
+                    child.getTranslationX(), child.getTranslationY(), targetX, targetY,
+                    translateX, translateY));
+            startOffset = 0;
+        } else if (open) {
+            child.setTranslationX(translateX);
+            child.setTranslationY(translateY);
+            child.setAlpha(mAlphaEnabled ? 0f : 1f);
+            child.setScaleX(1f);
+            child.setScaleY(1f);
+        }
+        if (open) {
+            animator.translationX(0f).translationY(0f).alpha(1f).scaleX(1f).scaleY(1f);
+        } else {
+            animator.translationX(translateX).translationY(translateY).alpha(mAlphaEnabled ? 0f : 1f);
+        }
+        animator.setInterpolator(interpolator);
+        holder.start(animator, duration, startOffset);
+    }
+
+    @Override
+    public void animateMove(View child, int index, int fromX, int fromY, int duration) {
+        ItemHolder holder = obtainItemHolder(index, child);
+        ViewPropertyAnimator animator = child.animate();
+        animator.cancel();
+        child.setTranslationX(child.getTranslationX() + fromX);
+        child.setTranslationY(child.getTranslationY() + fromY);
+        animator.translationX(0f).translationY(0f).setInterpolator(mCloseInterpolator);
+        holder.start(animator, duration, 0);
+    }
+
+    @Override
+    public void animateClick(View child, int index, float toScale, float toAlpha, int duration,
+                             int startOffset, Interpolator interpolator) {
+        ItemHolder holder = obtainItemHolder(index, child);
+        ViewPropertyAnimator animator = child.animate();
+        animator.cancel();
+        animator.scaleX(toScale).scaleY(toScale).alpha(toAlpha).setInterpolator(interpolator);
+        holder.start(animator, duration, startOffset);
+    }
+
+    @Override
+    public void setAlphaEnabled(boolean alphaEnabled) {
+        mAlphaEnabled = alphaEnabled;
+    }
+
+    @Override
+    public void reset(View child) {
+        child.animate().cancel();
+        child.setTranslationX(0f);
+        child.setTranslationY(0f);
+        child.setAlpha(1f);
+        child.setScaleX(1f);
+        child.setScaleY(1f);
+    }
+
+    private ItemHolder obtainItemHolder(int index, View childView) {
+        ItemHolder holder = index < mItemHolders.size() ? mItemHolders.get(index) : null;
+        if (holder == null || holder.mView != childView) {
+            holder = new ItemHolder(childView);
+            if (index < mItemHolders.size()) {
+                mItemHolders.set(index, holder);
+            } else {
+                mItemHolders.add(holder);
+            }
+        }
+        holder.mPosition = index + 1;
+        return holder;
+    }
+
+    /**
+     * 单个子菜单的动画监听器，只在首次使用时创建
+     */
+    private final class ItemHolder implements Animator.AnimatorListener {
+        private final View mView;
+        private int mPosition;
+        /**
+         * 当前动画是否被取消，被取消的动画结束时不隐藏子菜单
+         */
+        private boolean mCanceled;
+
+        ItemHolder(View view) {
+            mView = view;
+            mLayout.track(this);
+        }
+
+        void start(ViewPropertyAnimator animator, int duration, int startDelay) {
+            animator.setDuration(duration).setStartDelay(startDelay).setListener(this);
+            // 快照模式下子菜单本身不绘制，不改变透明度时只有平移，都不需要硬件层
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN && !mLayout.isSnapshotItems()
+                    && mAlphaEnabled) {
+                animator.withLayer();
+            }
+            mCanceled = false;
+            animator.start();
+        }
+
+        @Override
+        public void onAnimationStart(Animator animation) {
+
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            if (mCanceled) {
+                return;
+            }
+            if (!mLayout.isExpanded()) {
+                mView.setVisibility(View.INVISIBLE);
+            }
+            mLayout.onItemAnimationEnd(mPosition);
+        }
+
+        @Override
+        public void onAnimationCancel(Animator animation) {
+            mCanceled = true;
+        }
+
+        @Override
+        public void onAnimationRepeat(Animator animation) {
+
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.chong.arclayout;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.view.Choreographer;
+
+/**
+ * 展开/关闭过程中统计帧数和超出帧预算的帧数
+ * <p>
+ * 通过 Choreographer 的帧回调获取每一帧的 vsync 时间，相邻两帧间隔超过 1.5 倍帧预算即认为至少掉了一帧。
+ */
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+final class TransitionFrameTracker implements Choreographer.FrameCallback {
+    /**
+     * 默认帧预算，60Hz
+     */
+    static final long DEFAULT_FRAME_BUDGET_NANOS = 16666667L;
+
+    private long mFrameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+    private boolean mRunning;
+    private long mLastFrameTimeNanos;
+    private int mFrameCount;
+    private int mFramesOverBudget;
+
+    void setFrameBudgetNanos(long frameBudgetNanos) {
+        mFrameBudgetNanos = frameBudgetNanos;
+    }
+
+    void start() {
+        mFrameCount = 0;
+        mFramesOverBudget = 0;
+        mLastFrameTimeNanos = 0;
+        if (!mRunning) {
+            mRunning = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    void stop() {
+        if (mRunning) {
+            mRunning = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!mRunning) {
+            return;
+        }
+        if (mLastFrameTimeNanos != 0) {
+            mFrameCount++;
+            if (frameTimeNanos - mLastFrameTimeNanos > mFrameBudgetNanos * 3 / 2) {
+                mFramesOverBudget++;
+            }
+        }
+        mLastFrameTimeNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    int getFrameCount() {
+        return mFrameCount;
+    }
+
+    int getFramesOverBudget() {
+        return mFramesOverBudget;
+    }
+}
@@ -0,0 +1,287 @@
+package com.chong.arclayout;
+
+import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.Animation;
+import android.view.animation.Animation.AnimationListener;
+import android.view.animation.Interpolator;
+import android.view.animation.TranslateAnimation;
+
+import java.util.ArrayList;
+
+/**
+ * 基于 android.view.animation 的子菜单动画
+ * <p>
+ * 默认每次切换都创建新的动画对象；开启复用后每个子菜单的动画和监听器只创建一次。
+ * 两种模式的展开/关闭都使用 ArcItemAnimation，它记录最近一次应用的平移和透明度，
+ * 打断正在进行的展开/关闭时都从当前位置反向播放。
+ */
+final class ViewItemAnimator implements ArcItemAnimator {
+    private final ArcLayout mLayout;
+    /**
+     * 是否复用动画对象
+     */
+    private boolean mReuseAnimations;
+    /**
+     * 复用模式下每个子菜单的动画及监听器
+     */
+    private final ArrayList<ItemHolder> mItemHolders = new ArrayList<>();
+    /**
+     * 点击动画池，所有子菜单共用，两种模式下点击动画都不再为每次点击创建
+     */
+    private final ArrayList<ClickAnimation> mClickAnimations = new ArrayList<>();
+    /**
+     * 共享的移动插值器，与 AnimationSet 默认插值器一致
+     */
+    private final Interpolator mClickInterpolator = new AccelerateDecelerateInterpolator();
+    /**
+     * 展开、关闭时是否改变透明度
+     */
+    private boolean mAlphaEnabled = true;
+
+    ViewItemAnimator(ArcLayout layout, boolean reuseAnimations) {
+        mLayout = layout;
+        mReuseAnimations = reuseAnimations;
+    }
+
+    void setReuseAnimations(boolean reuseAnimations) {
+        if (mReuseAnimations != reuseAnimations) {
+            mReuseAnimations = reuseAnimations;
+            mItemHolders.clear();
+        }
+    }
+
+    boolean isReuseAnimations() {
+        return mReuseAnimations;
+    }
+
+    @Override
+    public void animateToggle(final View childView, int index, boolean open,
+                              int translateX, int translateY, int duration, int startOffset,
+                              Interpolator interpolator, boolean fromCurrent) {
+        if (mReuseAnimations) {
+            obtainItemHolder(index, childView).startToggle(open, translateX, translateY,
+                    duration, startOffset, interpolator, fromCurrent);
+            return;
+        }
+
+        Animation current = childView.getAnimation();
+        ArcItemAnimation toggleAnim = mLayout.track(new ArcItemAnimation());
+        toggleAnim.setFillAfter(true);
+        final int position = index + 1;
+        toggleAnim.setAnimationListener(mLayout.track(new AnimationListener() {
+
+            @Override
+            public void onAnimationStart(Animation animation) {
+
+            }
+
+            @Override
+            public void onAnimationRepeat(Animation animation) {
+
+            }
+
+            @Override
+            public void onAnimationEnd(Animation animation) {
+                if (!mLayout.isExpanded()) {
+                    childView.setVisibility(View.INVISIBLE);
+                }
+                mLayout.onItemAnimationEnd(position);
+            }
+        }));
+        startToggle(childView, toggleAnim,
+                fromCurrent && current instanceof ArcItemAnimation ? (ArcItemAnimation) current : null,
+                open, translateX, translateY, duration, startOffset, interpolator);
+    }
+
+    /**
+     * 设置展开/关闭动画的起止值并开始播放
+     *
+     * @param anim    本次播放的动画
+     * @param current 被打断的动画，从它最近一次应用的位置和透明度向目标移动，持续时间按剩余距离缩短；
+     *                null 表示从起点开始完整播放。复用模式下与 anim 为同一个对象
+     */
+    private void startToggle(View view, ArcItemAnimation anim, ArcItemAnimation current, boolean open,
+                             int translateX, int translateY, int duration, int startOffset,
+                             Interpolator interpolator) {
+        if (current != null) {
+            // 先读取当前值，再设置新的起止值
+            float fromX = current.getCurrentX();
+            float fromY = current.getCurrentY();
+            float fromAlpha = current.getCurrentAlpha();
+            float toX = open ? 0 : translateX;
+            float toY = open ? 0 : translateY;
+            anim.setTranslate(fromX, toX, fromY, toY);
+            if (mAlphaEnabled) {
+                anim.setAlpha(fromAlpha, open ? 1f : 0f);
+            } else {
+                anim.setAlpha(1f, 1f);
+            }
+            duration = (int) (duration * ArcItemAnimation.remainingFraction(
+                    fromX, fromY, toX, toY, translateX, translateY));
+            startOffset = 0;
+        } else if (open) {
+            anim.setTranslate(translateX, 0, translateY, 0).setAlpha(mAlphaEnabled ? 0f : 1f, 1f);
+        } else {
+            anim.setTranslate(0, translateX, 0, translateY).setAlpha(1f, mAlphaEnabled ? 0f : 1f);
+        }
+        anim.setInterpolator(interpolator);
+        anim.setDuration(duration);
+        anim.setStartOffset(startOffset);
+        view.startAnimation(anim);
+    }
+
+    @Override
+    public void setAlphaEnabled(boolean alphaEnabled) {
+        mAlphaEnabled = alphaEnabled;
+    }
+
+    @Override
+    public void animateMove(View childView, int index, int fromX, int fromY, int duration) {
+        if (mReuseAnimations) {
+            obtainItemHolder(index, childView).startMove(fromX, fromY, duration);
+            return;
+        }
+        Animation moveAnim = mLayout.track(new TranslateAnimation(fromX, 0, fromY, 0));
+        moveAnim.setInterpolator(mClickInterpolator);
+        moveAnim.setDuration(duration);
+        childView.startAnimation(moveAnim);
+    }
+
+    @Override
+    public void animateClick(View childView, int index, float toScale, float toAlpha, int duration,
+                             int startOffset, Interpolator interpolator) {
+        ClickAnimation clickAnim = obtainClickAnimation();
+        clickAnim.mView = childView;
+        clickAnim.mPosition = index + 1;
+        clickAnim.setTranslate(0, 0, 0, 0).setScale(1f, toScale).setAlpha(1f, toAlpha);
+        clickAnim.setInterpolator(interpolator);
+        clickAnim.setDuration(duration);
+        clickAnim.setStartOffset(startOffset);
+        childView.startAnimation(clickAnim);
+    }
+
+    @Override
+    public void reset(View child) {
+        child.clearAnimation();
+    }
+
+    /**
+     * 从点击动画池中取得一个不在使用的动画，都在使用时才创建
+     * <p>
+     * 已结束的动画只会停留在已隐藏的子菜单上，可以直接再次使用
+     */
+    private ClickAnimation obtainClickAnimation() {
+        for (int i = 0; i < mClickAnimations.size(); i++) {
+            ClickAnimation clickAnim = mClickAnimations.get(i);
+            if (clickAnim.mView == null || clickAnim.hasEnded()
+                    || clickAnim.mView.getAnimation() != clickAnim) {
+                return clickAnim;
+            }
+        }
+        ClickAnimation clickAnim = mLayout.track(new ClickAnimation());
+        mClickAnimations.add(clickAnim);
+        return clickAnim;
+    }
+
+    int getClickAnimationPoolSize() {
+        return mClickAnimations.size();
+    }
+
+    /**
+     * 获取第 index 个子菜单的复用动画，子 view 变化时重新创建
+     */
+    private ItemHolder obtainItemHolder(int index, View childView) {
+        ItemHolder holder = index < mItemHolders.size() ? mItemHolders.get(index) : null;
+        if (holder == null || holder.mView != childView) {
+            holder = new ItemHolder(childView);
+            if (index < mItemHolders.size()) {
+                mItemHolders.set(index, holder);
+            } else {
+                mItemHolders.add(holder);
+            }
+        }
+        holder.mPosition = index + 1;
+        return holder;
+    }
+
+    /**
+     * 单个子菜单的复用动画，同时作为动画监听器，只在首次使用时创建
+     */
+    private final class ItemHolder implements AnimationListener {
+        private final View mView;
+        private final ArcItemAnimation mToggleAnim;
+        private int mPosition;
+
+        ItemHolder(View view) {
+            mView = view;
+            mToggleAnim = mLayout.track(new ArcItemAnimation());
+            mToggleAnim.setFillAfter(true);
+            mToggleAnim.setAnimationListener(this);
+            mLayout.track(this);
+        }
+
+        void startToggle(boolean open, int translateX, int translateY, int duration, int startOffset,
+                         Interpolator interpolator, boolean fromCurrent) {
+            ViewItemAnimator.this.startToggle(mView, mToggleAnim, fromCurrent ? mToggleAnim : null,
+                    open, translateX, translateY, duration, startOffset, interpolator);
+        }
+
+        void startMove(int fromX, int fromY, int duration) {
+            mToggleAnim.setTranslate(fromX, 0, fromY, 0).setAlpha(1f, 1f);
+            mToggleAnim.setInterpolator(mClickInterpolator);
+            mToggleAnim.setDuration(duration);
+            mToggleAnim.setStartOffset(0);
+            mView.startAnimation(mToggleAnim);
+        }
+
+        @Override
+        public void onAnimationStart(Animation animation) {
+
+        }
+
+        @Override
+        public void onAnimationEnd(Animation animation) {
+            if (!mLayout.isExpanded()) {
+                mView.setVisibility(View.INVISIBLE);
+            }
+            mLayout.onItemAnimationEnd(mPosition);
+        }
+
+        @Override
+        public void onAnimationRepeat(Animation animation) {
+
+        }
+    }
+
+    /**
+     * 点击动画，结束后回到动画池
+     */
+    private final class ClickAnimation extends ArcItemAnimation implements AnimationListener {
+        private View mView;
+        private int mPosition;
+
+        ClickAnimation() {
+            setFillAfter(true);
+            setAnimationListener(this);
+        }
+
+        @Override
+        public void onAnimationStart(Animation animation) {
+
+        }
+
+        @Override
+        public void onAnimationEnd(Animation animation) {
+            if (!mLayout.isExpanded()) {
+                mView.setVisibility(View.INVISIBLE);
+            }
+            mLayout.onItemAnimationEnd(mPosition);
+        }
+
+        @Override
+        public void onAnimationRepeat(Animation animation) {
+
+        }
+    }
+}
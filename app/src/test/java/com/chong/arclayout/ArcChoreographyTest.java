@@ -0,0 +1,187 @@
+package com.chong.arclayout;
+
+import android.content.Context;
+import android.view.View;
+import android.view.animation.Interpolator;
+import android.view.animation.LinearInterpolator;
+import android.view.animation.Transformation;
+import android.widget.ImageView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.*;
+
+/**
+ * 子菜单编排和单一帧时钟的测试
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcChoreographyTest {
+    private static final int ITEM_COUNT = 5;
+
+    @Test
+    public void defaultChoreography_keepsLegacyStagger() throws Exception {
+        ArcChoreography choreography = ArcChoreography.DEFAULT;
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            assertEquals((i * 100) / (ITEM_COUNT + 1), choreography.getStartDelay(i, ITEM_COUNT, 100));
+        }
+    }
+
+    @Test
+    public void order_andStep_decideStartDelay() throws Exception {
+        ArcChoreography reverse = new ArcChoreography.Builder()
+                .setOrder(ArcChoreography.Order.REVERSE)
+                .setStep(40)
+                .build();
+        assertEquals(160, reverse.getStartDelay(0, ITEM_COUNT, 100));
+        assertEquals(0, reverse.getStartDelay(ITEM_COUNT - 1, ITEM_COUNT, 100));
+
+        ArcChoreography centerOut = reverse.buildUpon()
+                .setOrder(ArcChoreography.Order.CENTER_OUT)
+                .build();
+        int[] expected = {80, 40, 0, 40, 80};
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            assertEquals(expected[i], centerOut.getStartDelay(i, ITEM_COUNT, 100));
+        }
+        // 偶数个子菜单时中间两个同时开始
+        assertEquals(0, centerOut.getStartDelay(1, 4, 100));
+        assertEquals(0, centerOut.getStartDelay(2, 4, 100));
+        assertEquals(40, centerOut.getStartDelay(3, 4, 100));
+    }
+
+    @Test
+    public void itemInterpolator_fallsBackToSharedInterpolators() throws Exception {
+        final Interpolator first = new LinearInterpolator();
+        Interpolator close = new LinearInterpolator();
+        ArcChoreography choreography = new ArcChoreography.Builder()
+                .setInterpolators(null, close)
+                .setItemInterpolator(new ArcChoreography.ItemInterpolator() {
+                    @Override
+                    public Interpolator getInterpolator(int index, int itemCount, boolean open) {
+                        return index == 0 ? first : null;
+                    }
+                })
+                .build();
+        assertSame(first, choreography.getInterpolator(0, ITEM_COUNT, true));
+        assertSame(close, choreography.getInterpolator(1, ITEM_COUNT, false));
+        assertSame(ArcChoreography.DEFAULT.getInterpolator(1, ITEM_COUNT, true),
+                choreography.getInterpolator(1, ITEM_COUNT, true));
+    }
+
+    @Test
+    public void frameBackend_drivesAllItemsFromOneClock() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        ArcLayout layout = new ArcLayout(context);
+        layout.setAnimBackend(ArcLayout.AnimBackend.FRAME);
+        layout.setChoreography(new ArcChoreography.Builder()
+                .setOrder(ArcChoreography.Order.CENTER_OUT)
+                .setStep(100)
+                .setInterpolators(new LinearInterpolator(), new LinearInterpolator())
+                .build());
+        for (int i = 0; i <= ITEM_COUNT; i++) {
+            layout.addView(new ImageView(context));
+        }
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        layout.measure(spec, spec);
+        layout.layout(0, 0, layout.getMeasuredWidth(), layout.getMeasuredHeight());
+
+        // 帧由测试逐帧驱动
+        ShadowLooper.pauseMainLooper();
+        layout.toggleMenu(200);
+        FrameItemAnimator animator = (FrameItemAnimator) layout.getItemAnimator();
+        int created = layout.getAnimationObjectCount();
+        assertTrue(created <= 1);
+
+        Transformation t = new Transformation();
+        animator.onFrame(1000);
+        assertTrue(layout.getItemTransformation(layout.getChildAt(3), t));
+        assertEquals(0f, t.getAlpha(), 0.001f);
+
+        // 中间的子菜单先开始，两端的子菜单尚未开始
+        animator.onFrame(1100);
+        assertTrue(layout.getItemTransformation(layout.getChildAt(3), t));
+        assertEquals(0.5f, t.getAlpha(), 0.001f);
+        assertTrue(layout.getItemTransformation(layout.getChildAt(1), t));
+        assertEquals(0f, t.getAlpha(), 0.001f);
+        assertEquals(ArcLayout.TransitionState.OPENING, layout.getTransitionState());
+
+        animator.onFrame(1400);
+        assertEquals(ArcLayout.TransitionState.OPEN, layout.getTransitionState());
+        for (int i = 1; i <= ITEM_COUNT; i++) {
+            assertFalse(layout.getItemTransformation(layout.getChildAt(i), t));
+        }
+        assertEquals(3, animator.getFrameCount());
+
+        layout.toggleMenu(200);
+        animator.onFrame(2000);
+        animator.onFrame(2400);
+        assertEquals(ArcLayout.TransitionState.CLOSED, layout.getTransitionState());
+        assertEquals(View.INVISIBLE, layout.getChildAt(1).getVisibility());
+        // 之后的展开/关闭不再创建对象
+        assertEquals(created, layout.getAnimationObjectCount());
+    }
+
+    @Test
+    public void frameBackend_itemRemovedInEndCallback_finishesFrame() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        final ArcLayout layout = new ArcLayout(context);
+        layout.setAnimBackend(ArcLayout.AnimBackend.FRAME);
+        layout.setChoreography(new ArcChoreography.Builder()
+                .setStep(0)
+                .setInterpolators(new LinearInterpolator(), new LinearInterpolator())
+                .build());
+        for (int i = 0; i <= ITEM_COUNT; i++) {
+            layout.addView(new ImageView(context));
+        }
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        layout.measure(spec, spec);
+        layout.layout(0, 0, layout.getMeasuredWidth(), layout.getMeasuredHeight());
+
+        ShadowLooper.pauseMainLooper();
+        layout.toggleMenu(200);
+        FrameItemAnimator animator = (FrameItemAnimator) layout.getItemAnimator();
+        animator.onFrame(1000);
+        animator.onFrame(1200);
+        assertEquals(ArcLayout.TransitionState.OPEN, layout.getTransitionState());
+
+        // 第一个子菜单的结束回调中移除最后一个子菜单，同一帧内它的动画也刚结束
+        final View last = layout.getChildAt(ITEM_COUNT);
+        layout.setOnMenuMetricsListener(new ArcLayout.OnMenuMetricsListener() {
+            @Override
+            public void onTransitionStart(ArcLayout.Status target) {
+            }
+
+            @Override
+            public void onTransitionEnd(ArcLayout.Status target, long elapsedMillis,
+                                        int frameCount, int framesOverBudget) {
+            }
+
+            @Override
+            public void onItemAnimationEnd(int position, long elapsedMillis) {
+                if (last.getParent() == layout) {
+                    layout.removeItem(last);
+                }
+            }
+
+            @Override
+            public void onMeasure(long durationNanos) {
+            }
+
+            @Override
+            public void onLayout(long durationNanos) {
+            }
+        });
+        layout.toggleMenu(200);
+        animator.onFrame(2000);
+        animator.onFrame(2200);
+
+        assertNull(last.getParent());
+        assertEquals(ArcLayout.TransitionState.CLOSED, layout.getTransitionState());
+        for (int i = 1; i < ITEM_COUNT; i++) {
+            assertEquals(View.INVISIBLE, layout.getChildAt(i).getVisibility());
+        }
+    }
+}
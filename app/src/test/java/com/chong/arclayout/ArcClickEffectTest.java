@@ -0,0 +1,83 @@
+package com.chong.arclayout;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.ImageView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.*;
+
+/**
+ * 点击反馈效果和点击动画池的测试
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcClickEffectTest {
+    private static final int ITEM_COUNT = 5;
+
+    private ArcLayout createLayout() {
+        Context context = RuntimeEnvironment.application;
+        ArcLayout layout = new ArcLayout(context);
+        for (int i = 0; i <= ITEM_COUNT; i++) {
+            layout.addView(new ImageView(context));
+        }
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        layout.measure(spec, spec);
+        layout.layout(0, 0, layout.getMeasuredWidth(), layout.getMeasuredHeight());
+        return layout;
+    }
+
+    @Test
+    public void builtInEffects_andAttribute() throws Exception {
+        assertEquals(4f, ArcClickEffect.SCALE_BURST.getScale(true), 0f);
+        assertEquals(0f, ArcClickEffect.SCALE_BURST.getScale(false), 0f);
+        assertEquals(1f, ArcClickEffect.FADE.getScale(false), 0f);
+        assertEquals(0f, ArcClickEffect.FADE.getAlpha(true), 0f);
+        // 波纹按与被点击子菜单的距离依次开始
+        assertEquals(0, ArcClickEffect.RIPPLE_OUT.getStartDelay(2, 2));
+        assertEquals(80, ArcClickEffect.RIPPLE_OUT.getStartDelay(0, 2));
+        assertEquals(80, ArcClickEffect.RIPPLE_OUT.getStartDelay(4, 2));
+
+        ArcLayout layout = (ArcLayout) LayoutInflater.from(RuntimeEnvironment.application)
+                .inflate(R.layout.menu_left_top, null);
+        assertSame(ArcClickEffect.RIPPLE_OUT, layout.getClickEffect());
+        layout.setClickEffect(null);
+        assertSame(ArcClickEffect.SCALE_BURST, layout.getClickEffect());
+    }
+
+    @Test
+    public void clickAnimations_comeFromPool() throws Exception {
+        ArcLayout layout = createLayout();
+        ViewItemAnimator animator = (ViewItemAnimator) layout.getItemAnimator();
+        layout.toggleMenu(800);
+        layout.getChildAt(1).performClick();
+        assertEquals(ITEM_COUNT, animator.getClickAnimationPoolSize());
+        int created = layout.getAnimationObjectCount();
+
+        layout.setClickEffect(ArcClickEffect.RIPPLE_OUT);
+        layout.toggleMenu(800);
+        int afterOpen = layout.getAnimationObjectCount();
+        layout.getChildAt(3).performClick();
+        assertEquals(ITEM_COUNT, animator.getClickAnimationPoolSize());
+        assertEquals(afterOpen, layout.getAnimationObjectCount());
+        assertTrue(afterOpen > created);
+    }
+
+    @Test
+    public void hiddenItems_areSkipped() throws Exception {
+        ArcLayout layout = createLayout();
+        ViewItemAnimator animator = (ViewItemAnimator) layout.getItemAnimator();
+        layout.toggleMenu(800);
+        View hidden = layout.getChildAt(2);
+        hidden.setVisibility(View.INVISIBLE);
+        layout.getChildAt(1).performClick();
+
+        assertEquals(ITEM_COUNT - 1, animator.getClickAnimationPoolSize());
+        assertFalse(hidden.getAnimation() instanceof ArcItemAnimation);
+        assertEquals(ArcLayout.TransitionState.CLOSING, layout.getTransitionState());
+    }
+}
@@ -0,0 +1,118 @@
+package com.chong.arclayout;
+
+import android.content.Context;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.ImageView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * 图标共享缓存的测试
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcDrawableCacheTest {
+    private Context mContext;
+    private final List<Runnable> mPending = new ArrayList<>();
+    /**
+     * 记录提交的任务，由测试决定何时在“后台”执行
+     */
+    private final Executor mExecutor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            mPending.add(command);
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        mContext = RuntimeEnvironment.application;
+    }
+
+    private void runPending() {
+        for (Runnable runnable : mPending) {
+            runnable.run();
+        }
+        mPending.clear();
+    }
+
+    @Test
+    public void cachedDrawables_shareBitmapWithoutReloading() throws Exception {
+        ArcDrawableCache cache = new ArcDrawableCache(mContext, 4, mExecutor);
+        Drawable first = cache.getDrawable(R.drawable.composer_music);
+        Drawable second = cache.getDrawable(R.drawable.composer_music);
+
+        assertEquals(1, cache.getLoadCount());
+        assertNotSame(first, second);
+        assertSame(((BitmapDrawable) first).getBitmap(), ((BitmapDrawable) second).getBitmap());
+    }
+
+    @Test
+    public void preload_loadsInBackgroundOnlyOnce() throws Exception {
+        ArcDrawableCache cache = new ArcDrawableCache(mContext, 4, mExecutor);
+        cache.preload(R.drawable.composer_music, 0, R.drawable.composer_place);
+        assertEquals(0, cache.getLoadCount());
+        runPending();
+        assertEquals(2, cache.getLoadCount());
+
+        // 已缓存的图标不再提交任务，取得时也不再加载
+        cache.preload(R.drawable.composer_music, R.drawable.composer_place);
+        assertTrue(mPending.isEmpty());
+        cache.getDrawable(R.drawable.composer_place);
+        assertEquals(2, cache.getLoadCount());
+    }
+
+    @Test
+    public void cache_evictsLeastRecentlyUsed() throws Exception {
+        ArcDrawableCache cache = new ArcDrawableCache(mContext, 2, mExecutor);
+        cache.getDrawable(R.drawable.composer_music);
+        cache.getDrawable(R.drawable.composer_place);
+        cache.getDrawable(R.drawable.composer_music);
+        cache.getDrawable(R.drawable.composer_sun);
+        assertEquals(2, cache.getCacheSize());
+        assertEquals(3, cache.getLoadCount());
+
+        cache.getDrawable(R.drawable.composer_music);
+        assertEquals(3, cache.getLoadCount());
+        cache.getDrawable(R.drawable.composer_place);
+        assertEquals(4, cache.getLoadCount());
+    }
+
+    @Test
+    public void mainIcons_followStatusWithoutRelayout() throws Exception {
+        ArcLayout layout = (ArcLayout) LayoutInflater.from(mContext)
+                .inflate(R.layout.menu_right_bottom, null);
+        // 不交叉淡入淡出时主按钮直接切换图标
+        layout.setMainTransition(0f, 1f, false);
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        layout.measure(spec, spec);
+        layout.layout(0, 0, layout.getMeasuredWidth(), layout.getMeasuredHeight());
+        ImageView main = (ImageView) layout.getMainView();
+        int requested = layout.getRequestLayoutCount();
+
+        layout.toggleMenu(300);
+        Drawable open = main.getDrawable();
+        layout.toggleMenu(300);
+        Drawable closed = main.getDrawable();
+        assertNotSame(open, closed);
+
+        // 之后的切换使用同一组图标
+        layout.toggleMenu(300);
+        assertSame(open, main.getDrawable());
+        layout.closeImmediately();
+        assertSame(closed, main.getDrawable());
+        assertEquals(requested, layout.getRequestLayoutCount());
+    }
+}
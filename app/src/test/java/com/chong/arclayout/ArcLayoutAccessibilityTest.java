@@ -0,0 +1,151 @@
+package com.chong.arclayout;
+
+import android.graphics.Rect;
+import android.support.v4.view.ViewCompat;
+import android.support.v4.view.accessibility.AccessibilityNodeInfoCompat;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 虚拟无障碍节点和方向键导航的测试
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcLayoutAccessibilityTest {
+    private ArcLayout mLayout;
+    private ArcAccessibilityHelper mHelper;
+
+    @Before
+    public void setUp() throws Exception {
+        mLayout = (ArcLayout) LayoutInflater.from(RuntimeEnvironment.application)
+                .inflate(R.layout.menu_right_bottom, null);
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        mLayout.measure(spec, spec);
+        mLayout.layout(0, 0, mLayout.getMeasuredWidth(), mLayout.getMeasuredHeight());
+        mHelper = mLayout.getAccessibilityHelper();
+    }
+
+    private int itemCount() {
+        return mLayout.getChildCount() - 1;
+    }
+
+    @Test
+    public void virtualViews_followMenuState() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        mHelper.getVisibleVirtualViews(ids);
+        assertTrue(ids.isEmpty());
+
+        mLayout.toggleMenu(300);
+        mHelper.getVisibleVirtualViews(ids);
+        assertEquals(itemCount(), ids.size());
+
+        // 子菜单本身不提供给无障碍服务，主按钮不变
+        assertEquals(ViewCompat.IMPORTANT_FOR_ACCESSIBILITY_NO_HIDE_DESCENDANTS,
+                ViewCompat.getImportantForAccessibility(mLayout.getChildAt(1)));
+        assertNotEquals(ViewCompat.IMPORTANT_FOR_ACCESSIBILITY_NO_HIDE_DESCENDANTS,
+                ViewCompat.getImportantForAccessibility(mLayout.getMainView()));
+    }
+
+    @Test
+    public void nodes_servedFromPlacementWithoutLayout() throws Exception {
+        mLayout.toggleMenu(300);
+        int requested = mLayout.getRequestLayoutCount();
+        int measured = mLayout.getMeasureChildCount();
+
+        Rect bounds = new Rect();
+        for (int i = 0; i < itemCount(); i++) {
+            AccessibilityNodeInfoCompat node = AccessibilityNodeInfoCompat.obtain();
+            mHelper.onPopulateNodeForVirtualView(i, node);
+            node.getBoundsInParent(bounds);
+            View child = mLayout.getChildAt(i + 1);
+            assertEquals(new Rect(child.getLeft(), child.getTop(), child.getRight(), child.getBottom()), bounds);
+            assertTrue(node.isClickable());
+            node.recycle();
+        }
+        AccessibilityNodeInfoCompat node = AccessibilityNodeInfoCompat.obtain();
+        mHelper.onPopulateNodeForVirtualView(0, node);
+        assertEquals("Music", node.getContentDescription());
+        node.recycle();
+
+        assertEquals(requested, mLayout.getRequestLayoutCount());
+        assertEquals(measured, mLayout.getMeasureChildCount());
+    }
+
+    @Test
+    public void clickAction_clicksItemOnlyWhenExpanded() throws Exception {
+        final int[] clicked = {-1};
+        mLayout.setOnMenuItemClickListener(new ArcLayout.OnMenuItemClickListener() {
+            @Override
+            public void onItemClick(View view, int position) {
+                clicked[0] = position;
+            }
+        });
+        assertFalse(mHelper.onPerformActionForVirtualView(1, AccessibilityNodeInfoCompat.ACTION_CLICK, null));
+
+        mLayout.toggleMenu(300);
+        assertTrue(mHelper.onPerformActionForVirtualView(1, AccessibilityNodeInfoCompat.ACTION_CLICK, null));
+        assertEquals(2, clicked[0]);
+        assertEquals(2, mLayout.getSelectedPosition());
+        assertFalse(mLayout.isOpen());
+    }
+
+    @Test
+    public void focusSearch_movesAlongArc() throws Exception {
+        View main = mLayout.getMainView();
+        mLayout.toggleMenu(300);
+        int last = itemCount() - 1;
+        // Tab 键按序号移动，到两端时离开菜单
+        assertEquals(0, mLayout.findNextFocusItem(-1, View.FOCUS_FORWARD));
+        assertEquals(2, mLayout.findNextFocusItem(1, View.FOCUS_FORWARD));
+        assertEquals(-1, mLayout.findNextFocusItem(0, View.FOCUS_BACKWARD));
+        assertEquals(ArcLayout.NO_FOCUS_ITEM, mLayout.findNextFocusItem(last, View.FOCUS_FORWARD));
+        assertEquals(ArcLayout.NO_FOCUS_ITEM, mLayout.findNextFocusItem(-1, View.FOCUS_BACKWARD));
+
+        // 右下角、0 到 90 度：第一个子菜单在主按钮正上方，最后一个在正左方
+        assertEquals(0, mLayout.findNextFocusItem(-1, View.FOCUS_UP));
+        assertEquals(last, mLayout.findNextFocusItem(-1, View.FOCUS_LEFT));
+        assertEquals(-1, mLayout.findNextFocusItem(0, View.FOCUS_DOWN));
+        assertEquals(1, mLayout.findNextFocusItem(0, View.FOCUS_LEFT));
+        assertEquals(last - 1, mLayout.findNextFocusItem(last, View.FOCUS_UP));
+        assertEquals(ArcLayout.NO_FOCUS_ITEM, mLayout.findNextFocusItem(-1, View.FOCUS_RIGHT));
+
+        assertSame(mLayout.getChildAt(1), mLayout.focusSearch(main, View.FOCUS_UP));
+    }
+
+    /**
+     * 从 from 出发，四个方向键能到达的子菜单
+     */
+    private List<Integer> arrowTargets(int from) {
+        int[] directions = {View.FOCUS_LEFT, View.FOCUS_UP, View.FOCUS_RIGHT, View.FOCUS_DOWN};
+        List<Integer> targets = new ArrayList<>();
+        for (int direction : directions) {
+            targets.add(mLayout.findNextFocusItem(from, direction));
+        }
+        return targets;
+    }
+
+    @Test
+    public void focusSearch_wrapsAroundNegativeFullRing() throws Exception {
+        mLayout.setAutoRing(false);
+        mLayout.setSweepAngle(-360f);
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        mLayout.measure(spec, spec);
+        mLayout.layout(0, 0, mLayout.getMeasuredWidth(), mLayout.getMeasuredHeight());
+        mLayout.toggleMenu(300);
+        int last = itemCount() - 1;
+
+        // 反方向的整圆同样首尾相接，方向键可以从第一个子菜单直接移到最后一个
+        assertTrue(arrowTargets(0).contains(last));
+        assertTrue(arrowTargets(last).contains(0));
+    }
+}
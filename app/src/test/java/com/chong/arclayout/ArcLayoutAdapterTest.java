@@ -0,0 +1,118 @@
+package com.chong.arclayout;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.BaseAdapter;
+import android.widget.ImageView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.*;
+
+/**
+ * ArcLayout Adapter 绑定与回收的测试
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcLayoutAdapterTest {
+
+    private ArcLayout mLayout;
+    private CountingAdapter mAdapter;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        mLayout = new ArcLayout(context);
+        mLayout.addView(new ImageView(context));
+        mAdapter = new CountingAdapter(context);
+    }
+
+    @Test
+    public void closedMenu_createsNoItems() throws Exception {
+        mAdapter.itemCount = 4;
+        mLayout.setAdapter(mAdapter);
+
+        assertEquals(1, mLayout.getChildCount());
+        assertEquals(0, mAdapter.createdViews);
+    }
+
+    @Test
+    public void firstOpen_bindsItems() throws Exception {
+        mAdapter.itemCount = 4;
+        mLayout.setAdapter(mAdapter);
+        mLayout.toggleMenu(0);
+
+        assertEquals(5, mLayout.getChildCount());
+        assertEquals(4, mAdapter.createdViews);
+    }
+
+    @Test
+    public void dataChange_reusesItemViews() throws Exception {
+        mAdapter.itemCount = 4;
+        mLayout.setAdapter(mAdapter);
+        mLayout.toggleMenu(0);
+        mLayout.toggleMenu(0);
+
+        mAdapter.itemCount = 3;
+        mAdapter.notifyDataSetChanged();
+        // 关闭状态下先回收，展开时从回收池绑定
+        assertEquals(1, mLayout.getChildCount());
+        mLayout.toggleMenu(0);
+
+        assertEquals(4, mLayout.getChildCount());
+        assertEquals(4, mAdapter.createdViews);
+    }
+
+    @Test
+    public void dataChangeWhileOpen_rebindsImmediately() throws Exception {
+        mAdapter.itemCount = 2;
+        mLayout.setAdapter(mAdapter);
+        mLayout.toggleMenu(0);
+
+        mAdapter.itemCount = 3;
+        mAdapter.notifyDataSetChanged();
+
+        assertEquals(4, mLayout.getChildCount());
+        assertEquals(3, mAdapter.createdViews);
+        assertEquals(View.VISIBLE, mLayout.getChildAt(3).getVisibility());
+    }
+
+    private static class CountingAdapter extends BaseAdapter {
+        private final Context mContext;
+        int itemCount;
+        int createdViews;
+
+        CountingAdapter(Context context) {
+            mContext = context;
+        }
+
+        @Override
+        public int getCount() {
+            return itemCount;
+        }
+
+        @Override
+        public Object getItem(int position) {
+            return position;
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return position;
+        }
+
+        @Override
+        public View getView(int position, View convertView, ViewGroup parent) {
+            if (convertView == null) {
+                convertView = new ImageView(mContext);
+                createdViews++;
+            }
+            convertView.setTag(position);
+            return convertView;
+        }
+    }
+}
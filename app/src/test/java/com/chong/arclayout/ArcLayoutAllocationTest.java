@@ -0,0 +1,138 @@
+package com.chong.arclayout;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.ImageView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * 统计 toggleMenu 和点击子菜单实际分配的内存
+ * <p>
+ * 使用 JVM 统计的当前线程分配字节数，不依赖生产代码主动登记的对象。
+ * 测试环境中 Handler、Robolectric 调度器等每次切换也会分配少量对象，这部分与子菜单数量无关，
+ * 因此比较子菜单数量不同的两个菜单：每个子菜单多出的分配应为 0，只允许很小的误差。
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcLayoutAllocationTest {
+
+    private static final int FEW_ITEMS = 2;
+    private static final int MANY_ITEMS = 12;
+    private static final int WARM_UP_CYCLES = 50;
+    private static final int CYCLES = 200;
+    /**
+     * 每个子菜单每次切换允许的分配字节数，小于任何一个监听器或插值器对象
+     */
+    private static final long TOLERANCE_BYTES_PER_ITEM = 8;
+
+    private interface Cycle {
+        void run(ArcLayout layout);
+    }
+
+    /**
+     * 展开/关闭一次
+     */
+    private static final Cycle TOGGLE = new Cycle() {
+        @Override
+        public void run(ArcLayout layout) {
+            layout.toggleMenu(300);
+        }
+    };
+
+    /**
+     * 展开后点击子菜单关闭
+     */
+    private static final Cycle CLICK = new Cycle() {
+        @Override
+        public void run(ArcLayout layout) {
+            if (!layout.isOpen()) {
+                layout.toggleMenu(300);
+            }
+            layout.getChildAt(1).performClick();
+        }
+    };
+
+    private static ArcLayout createLayout(int itemCount, boolean reuseAnimations) {
+        Context context = RuntimeEnvironment.application;
+        ArcLayout layout = new ArcLayout(context);
+        layout.setReuseAnimations(reuseAnimations);
+        for (int i = 0; i <= itemCount; i++) {
+            layout.addView(new ImageView(context));
+        }
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        layout.measure(spec, spec);
+        layout.layout(0, 0, layout.getMeasuredWidth(), layout.getMeasuredHeight());
+        return layout;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        return threadBean;
+    }
+
+    /**
+     * 预热后每个循环平均分配的字节数
+     */
+    private static long bytesPerCycle(ArcLayout layout, Cycle cycle) {
+        for (int i = 0; i < WARM_UP_CYCLES; i++) {
+            cycle.run(layout);
+        }
+        com.sun.management.ThreadMXBean bean = threadBean();
+        long threadId = Thread.currentThread().getId();
+        long before = bean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < CYCLES; i++) {
+            cycle.run(layout);
+        }
+        return (bean.getThreadAllocatedBytes(threadId) - before) / CYCLES;
+    }
+
+    /**
+     * 每增加一个子菜单，每个循环多分配的字节数
+     */
+    private static long bytesPerItem(boolean reuseAnimations, Cycle cycle) {
+        long few = bytesPerCycle(createLayout(FEW_ITEMS, reuseAnimations), cycle);
+        long many = bytesPerCycle(createLayout(MANY_ITEMS, reuseAnimations), cycle);
+        return (many - few) / (MANY_ITEMS - FEW_ITEMS);
+    }
+
+    @Test
+    public void reusedToggle_allocatesNothingPerItem() throws Exception {
+        assertTrue(bytesPerItem(true, TOGGLE) <= TOLERANCE_BYTES_PER_ITEM);
+    }
+
+    @Test
+    public void reusedClick_allocatesNothingPerItem() throws Exception {
+        assertTrue(bytesPerItem(true, CLICK) <= TOLERANCE_BYTES_PER_ITEM);
+    }
+
+    @Test
+    public void legacyToggle_allocatesPerItem() throws Exception {
+        // 对照：不复用时每次切换为每个子菜单创建动画和监听器，统计方式能发现这些分配
+        assertTrue(bytesPerItem(false, TOGGLE) > TOLERANCE_BYTES_PER_ITEM);
+    }
+
+    @Test
+    public void reusedToggle_createsAnimationObjectsOnlyOnce() throws Exception {
+        ArcLayout layout = createLayout(FEW_ITEMS, true);
+        layout.toggleMenu(800);
+        int warmedUp = layout.getAnimationObjectCount();
+        assertTrue(warmedUp > 0);
+
+        for (int i = 0; i < 100; i++) {
+            layout.toggleMenu(300);
+        }
+        assertEquals(warmedUp, layout.getAnimationObjectCount());
+    }
+}
@@ -0,0 +1,138 @@
+package com.chong.arclayout;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Rect;
+import android.util.DisplayMetrics;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.*;
+
+/**
+ * 按窗口可见区域自动选择弧的测试
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcLayoutAutoPlacementTest {
+
+    private static final int ITEM_COUNT = 5;
+    private static final int ITEM_SIZE = 48;
+    private static final int FRAME_WIDTH = 1000;
+    private static final int FRAME_HEIGHT = 220;
+
+    private static ArcLayout setUpLayout(ArcLayout layout, Context context) {
+        layout.setMenuSpec(new ArcMenuSpec.Builder()
+                .setLocation(ArcLayout.Location.RIGHT_BOTTOM)
+                .setItemCount(ITEM_COUNT)
+                .setRadius(200)
+                .setPadding(20, 20)
+                .build());
+        for (int i = 0; i <= ITEM_COUNT; i++) {
+            layout.addView(new View(context), new ViewGroup.LayoutParams(ITEM_SIZE, ITEM_SIZE));
+        }
+        layout.setAutoPlacement(true);
+        return layout;
+    }
+
+    private static int unspecified() {
+        return View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+    }
+
+    private static void measureAndLayout(ArcLayout layout) {
+        layout.measure(unspecified(), unspecified());
+        layout.layout(0, 0, layout.getMeasuredWidth(), layout.getMeasuredHeight());
+    }
+
+    /**
+     * 菜单贴着可见区域的右下角
+     */
+    private static boolean fitToFrame(ArcLayout layout, int frameHeight) {
+        return layout.fitToFrame(new Rect(0, 0, FRAME_WIDTH, frameHeight), 0, 0,
+                unspecified(), unspecified());
+    }
+
+    private static ArcLayout createDetachedLayout() {
+        Context context = RuntimeEnvironment.application;
+        ArcLayout layout = setUpLayout(new ArcLayout(context), context);
+        measureAndLayout(layout);
+        return layout;
+    }
+
+    @Test
+    public void enoughRoom_keepsConfiguredArc() throws Exception {
+        ArcLayout layout = createDetachedLayout();
+        assertFalse(fitToFrame(layout, FRAME_WIDTH));
+        assertEquals(0f, layout.getPlacedStartAngle(), 0f);
+        assertEquals(90f, layout.getPlacedSweepAngle(), 0f);
+    }
+
+    @Test
+    public void shortFrame_flattensArcUntilItFits() throws Exception {
+        ArcLayout layout = createDetachedLayout();
+        assertTrue(layout.getMeasuredHeight() > FRAME_HEIGHT);
+
+        assertTrue(fitToFrame(layout, FRAME_HEIGHT));
+        assertTrue(layout.getPlacedSweepAngle() < 90f);
+        // 上方空间不足，弧转向水平方向
+        assertTrue(layout.getPlacedStartAngle() > 0f);
+        measureAndLayout(layout);
+        assertTrue(layout.getMeasuredHeight() <= FRAME_HEIGHT);
+
+        // 可见区域不变时直接使用上一次的结果
+        assertFalse(fitToFrame(layout, FRAME_HEIGHT));
+    }
+
+    @Test
+    public void disable_restoresConfiguredArc() throws Exception {
+        ArcLayout layout = createDetachedLayout();
+        fitToFrame(layout, FRAME_HEIGHT);
+        layout.setAutoPlacement(false);
+        assertEquals(0f, layout.getPlacedStartAngle(), 0f);
+        assertEquals(90f, layout.getPlacedSweepAngle(), 0f);
+    }
+
+    @Test
+    public void attached_fitsWhileMeasuringWithoutExtraLayout() throws Exception {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        DisplayMetrics metrics = activity.getResources().getDisplayMetrics();
+        // 可见区域的底边与屏幕底边对齐，高度不足以放下设置的弧
+        final Rect frame = new Rect(0, metrics.heightPixels - FRAME_HEIGHT,
+                metrics.widthPixels, metrics.heightPixels);
+        final int[] frameReads = new int[1];
+        ArcLayout layout = setUpLayout(new ArcLayout(activity) {
+            @Override
+            void getVisibleFrame(Rect outRect) {
+                frameReads[0]++;
+                outRect.set(frame);
+            }
+        }, activity);
+        FrameLayout root = new FrameLayout(activity);
+        root.addView(layout, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT, Gravity.RIGHT | Gravity.BOTTOM));
+        activity.setContentView(root);
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+
+        assertTrue(layout.getPlacedSweepAngle() < 90f);
+        int[] location = new int[2];
+        layout.getLocationOnScreen(location);
+        assertTrue(location[1] >= frame.top);
+
+        // 选择稳定后，再次测量、布局不再请求布局，也不再取得可见区域
+        int requested = layout.getRequestLayoutCount();
+        int reads = frameReads[0];
+        layout.forceLayout();
+        root.requestLayout();
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(requested, layout.getRequestLayoutCount());
+        assertEquals(reads, frameReads[0]);
+    }
+}
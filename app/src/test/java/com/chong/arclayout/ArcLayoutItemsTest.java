@@ -0,0 +1,139 @@
+package com.chong.arclayout;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.ArrayAdapter;
+import android.widget.ImageView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.util.ReflectionHelpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 动态增删子菜单的测试
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcLayoutItemsTest {
+    private static final int ITEM_COUNT = 4;
+
+    private Context mContext;
+    private ArcLayout mLayout;
+
+    @Before
+    public void setUp() throws Exception {
+        mContext = RuntimeEnvironment.application;
+        mLayout = new ArcLayout(mContext);
+        for (int i = 0; i <= ITEM_COUNT; i++) {
+            mLayout.addView(new ImageView(mContext));
+        }
+        measureAndLayout();
+    }
+
+    private void measureAndLayout() {
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        mLayout.measure(spec, spec);
+        mLayout.layout(0, 0, mLayout.getMeasuredWidth(), mLayout.getMeasuredHeight());
+    }
+
+    @Test
+    public void addAndRemove_measureOnlyNewItems() throws Exception {
+        int measured = mLayout.getMeasureChildCount();
+
+        ImageView item = new ImageView(mContext);
+        mLayout.addItem(item);
+        measureAndLayout();
+        assertEquals(measured + 1, mLayout.getMeasureChildCount());
+        assertEquals(ITEM_COUNT + 2, mLayout.getChildCount());
+        assertEquals(View.INVISIBLE, item.getVisibility());
+
+        mLayout.removeItemAt(0);
+        mLayout.removeItem(item);
+        measureAndLayout();
+        assertEquals(measured + 1, mLayout.getMeasureChildCount());
+        assertEquals(ITEM_COUNT, mLayout.getChildCount());
+        assertEquals(ITEM_COUNT - 1, mLayout.getPlacementPlan().getGeometry().getItemCount());
+    }
+
+    @Test
+    public void addWhileOpen_movesExistingItems() throws Exception {
+        mLayout.setOpenImmediately(true);
+        View first = mLayout.getChildAt(1);
+        View second = mLayout.getChildAt(2);
+        int secondLeft = second.getLeft();
+        int secondTop = second.getTop();
+
+        ImageView item = new ImageView(mContext);
+        mLayout.addItem(item);
+        measureAndLayout();
+
+        // 第一个子菜单位置不变，其余子菜单从原位置移动到新位置，新子菜单从主按钮位置展开
+        assertNull(first.getAnimation());
+        assertTrue(second.getLeft() != secondLeft || second.getTop() != secondTop);
+        assertNotNull(second.getAnimation());
+        assertNotNull(item.getAnimation());
+        assertEquals(View.VISIBLE, item.getVisibility());
+        assertTrue(item.isClickable());
+        assertEquals(ArcLayout.TransitionState.OPEN, mLayout.getTransitionState());
+    }
+
+    @Test
+    public void setItems_keepsExistingViews() throws Exception {
+        int measured = mLayout.getMeasureChildCount();
+        View first = mLayout.getChildAt(1);
+        View third = mLayout.getChildAt(3);
+        View added = new ImageView(mContext);
+
+        List<View> items = new ArrayList<>(Arrays.asList(third, added, first));
+        mLayout.setItems(items);
+        measureAndLayout();
+
+        assertEquals(4, mLayout.getChildCount());
+        assertSame(third, mLayout.getChildAt(1));
+        assertSame(added, mLayout.getChildAt(2));
+        assertSame(first, mLayout.getChildAt(3));
+        assertEquals(measured + 1, mLayout.getMeasureChildCount());
+    }
+
+    @Test
+    public void setItems_reorderDuringAnimation_keepsItemsAttached() throws Exception {
+        mLayout.setReuseAnimations(true);
+        mLayout.toggleMenu(300);
+        View first = mLayout.getChildAt(1);
+        View second = mLayout.getChildAt(2);
+        View third = mLayout.getChildAt(3);
+        View fourth = mLayout.getChildAt(4);
+        int firstLeft = first.getLeft();
+        int firstTop = first.getTop();
+        assertNotNull(third.getAnimation());
+
+        mLayout.setItems(new ArrayList<>(Arrays.asList(third, second, first, fourth)));
+
+        // 调整顺序不会把有动画的子菜单当作正在消失的 view，动画继续在原来的 view 上播放
+        List<View> disappearing = ReflectionHelpers.getField(mLayout, "mDisappearingChildren");
+        assertTrue(disappearing == null || disappearing.isEmpty());
+        assertSame(mLayout, third.getParent());
+        assertSame(third, mLayout.getChildAt(1));
+        assertSame(first, mLayout.getChildAt(3));
+        assertNotNull(third.getAnimation());
+
+        measureAndLayout();
+        assertEquals(firstLeft, third.getLeft());
+        assertEquals(firstTop, third.getTop());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addItem_withAdapter_throws() throws Exception {
+        mLayout.setAdapter(new ArrayAdapter<>(mContext, android.R.layout.simple_list_item_1,
+                new String[]{"A"}));
+        mLayout.addItem(new ImageView(mContext));
+    }
+}
@@ -0,0 +1,40 @@
+package com.chong.arclayout;
+
+import android.content.Context;
+import android.view.ViewStub;
+import android.widget.ImageView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.*;
+
+/**
+ * 延迟加载子菜单的测试
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcLayoutLazyItemTest {
+
+    @Test
+    public void lazyItems_inflateOnFirstOpen() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        ArcLayout layout = new ArcLayout(context);
+        layout.addView(new ImageView(context));
+        for (int i = 0; i < 3; i++) {
+            layout.addLazyItem(android.R.layout.simple_list_item_1);
+        }
+
+        for (int i = 1; i < layout.getChildCount(); i++) {
+            assertTrue(layout.getChildAt(i) instanceof ViewStub);
+        }
+
+        layout.toggleMenu(0);
+
+        assertEquals(4, layout.getChildCount());
+        for (int i = 1; i < layout.getChildCount(); i++) {
+            assertFalse(layout.getChildAt(i) instanceof ViewStub);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.chong.arclayout;
+
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.LayerDrawable;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.ImageView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.*;
+
+/**
+ * 主按钮旋转、交叉淡入淡出的测试
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcLayoutMainButtonTest {
+    private ArcLayout mLayout;
+    private ImageView mMain;
+
+    @Before
+    public void setUp() throws Exception {
+        mLayout = (ArcLayout) LayoutInflater.from(RuntimeEnvironment.application)
+                .inflate(R.layout.menu_right_bottom, null);
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        mLayout.measure(spec, spec);
+        mLayout.layout(0, 0, mLayout.getMeasuredWidth(), mLayout.getMeasuredHeight());
+        mMain = (ImageView) mLayout.getMainView();
+    }
+
+    @Test
+    public void immediateChanges_jumpToFinalTransform() throws Exception {
+        assertEquals(90f, mLayout.getMainRotation(), 0f);
+        assertTrue(mLayout.isMainCrossFade());
+
+        mLayout.setOpenImmediately(true);
+        assertEquals(90f, mMain.getRotation(), 0f);
+        LayerDrawable icons = (LayerDrawable) mMain.getDrawable();
+        assertEquals(0, icons.getDrawable(0).getAlpha());
+        assertEquals(255, icons.getDrawable(1).getAlpha());
+
+        mLayout.setOpenImmediately(false);
+        assertEquals(0f, mMain.getRotation(), 0f);
+        assertEquals(255, icons.getDrawable(0).getAlpha());
+        assertEquals(0, icons.getDrawable(1).getAlpha());
+    }
+
+    @Test
+    public void toggles_reuseAnimatorAndIcons() throws Exception {
+        mLayout.setAnimBackend(ArcLayout.AnimBackend.PROPERTY);
+        int requested = mLayout.getRequestLayoutCount();
+        mLayout.toggleMenu(300);
+        mLayout.toggleMenu(300);
+        Drawable icons = mMain.getDrawable();
+        Object animator = mLayout.getMainButtonAnimator().getAnimator();
+        assertNotNull(animator);
+        int created = mLayout.getAnimationObjectCount();
+
+        // 之后的切换不再创建动画对象，也不替换主按钮的图标
+        for (int i = 0; i < 4; i++) {
+            mLayout.toggleMenu(300);
+        }
+        assertSame(animator, mLayout.getMainButtonAnimator().getAnimator());
+        assertSame(icons, mMain.getDrawable());
+        assertEquals(created, mLayout.getAnimationObjectCount());
+        assertEquals(requested, mLayout.getRequestLayoutCount());
+    }
+}
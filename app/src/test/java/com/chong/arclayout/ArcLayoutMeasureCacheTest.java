@@ -0,0 +1,99 @@
+package com.chong.arclayout;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.ImageView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.*;
+
+/**
+ * ArcLayout 测量、布局缓存的测试
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcLayoutMeasureCacheTest {
+
+    private static final int ITEM_COUNT = 5;
+
+    private ArcLayout mLayout;
+    private int mSpec;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        mLayout = new ArcLayout(context);
+        for (int i = 0; i <= ITEM_COUNT; i++) {
+            mLayout.addView(new ImageView(context));
+        }
+        mSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        measureAndLayout();
+    }
+
+    private void measureAndLayout() {
+        mLayout.measure(mSpec, mSpec);
+        mLayout.layout(0, 0, mLayout.getMeasuredWidth(), mLayout.getMeasuredHeight());
+    }
+
+    @Test
+    public void unchangedPass_isSkipped() throws Exception {
+        assertEquals(ITEM_COUNT + 1, mLayout.getMeasureChildCount());
+
+        // 列表复用条目时会对条目强制重新布局，但 ArcLayout 的输入没有变化
+        mLayout.forceLayout();
+        measureAndLayout();
+
+        assertEquals(ITEM_COUNT + 1, mLayout.getMeasureChildCount());
+        assertEquals(1, mLayout.getSkippedMeasureCount());
+        assertEquals(1, mLayout.getSkippedLayoutCount());
+    }
+
+    @Test
+    public void childRequestLayout_measuresOnlyThatChild() throws Exception {
+        int measured = mLayout.getMeasureChildCount();
+
+        mLayout.getChildAt(2).requestLayout();
+        measureAndLayout();
+
+        assertEquals(measured + 1, mLayout.getMeasureChildCount());
+        assertEquals(0, mLayout.getSkippedMeasureCount());
+    }
+
+    @Test
+    public void specChange_measuresAllChildren() throws Exception {
+        int measured = mLayout.getMeasureChildCount();
+
+        mSpec = View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.AT_MOST);
+        measureAndLayout();
+
+        assertEquals(measured + ITEM_COUNT + 1, mLayout.getMeasureChildCount());
+    }
+
+    @Test
+    public void childRequestLayout_sameSize_layoutsThatChild() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        FrameLayout item = new FrameLayout(context);
+        View inner = new View(context);
+        item.addView(inner, new FrameLayout.LayoutParams(10, 10));
+        mLayout.addView(item, new ViewGroup.LayoutParams(48, 48));
+        measureAndLayout();
+        assertEquals(10, inner.getWidth());
+
+        // 条目内容变化但条目本身尺寸不变，ArcLayout 跳过布局时仍要 layout 这个条目
+        inner.getLayoutParams().width = 20;
+        inner.requestLayout();
+        int skipped = mLayout.getSkippedLayoutCount();
+        measureAndLayout();
+
+        assertEquals(skipped + 1, mLayout.getSkippedLayoutCount());
+        assertEquals(48, item.getWidth());
+        assertEquals(20, inner.getWidth());
+        assertFalse(item.isLayoutRequested());
+    }
+}
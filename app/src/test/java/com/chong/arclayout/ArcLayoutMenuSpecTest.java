@@ -0,0 +1,59 @@
+package com.chong.arclayout;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.ImageView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.*;
+
+/**
+ * 声明式菜单配置的测试
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcLayoutMenuSpecTest {
+
+    private static ArcLayout createLayout(Context context, ArcMenuSpec spec) {
+        ArcLayout layout = new ArcLayout(context);
+        layout.setMenuSpec(spec);
+        for (int i = 0; i <= spec.getItemCount(); i++) {
+            layout.addView(new ImageView(context));
+        }
+        int measureSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        layout.measure(measureSpec, measureSpec);
+        return layout;
+    }
+
+    @Test
+    public void identicalSpecs_shareCompiledPlan() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        ArcMenuSpec spec = new ArcMenuSpec.Builder()
+                .setLocation(ArcLayout.Location.LEFT_TOP)
+                .setItemCount(3)
+                .setRadius(240)
+                .setStagger(60)
+                .build();
+        ArcLayout first = createLayout(context, spec);
+        ArcLayout second = createLayout(context, spec.buildUpon().build());
+
+        assertEquals(spec, second.getMenuSpec());
+        assertSame(first.getPlacementPlan(), second.getPlacementPlan());
+        assertEquals(1, first.getPlacementPlan().getGeometry().getComputeCount());
+
+        ArcLayout other = createLayout(context, spec.buildUpon().setRadius(200).build());
+        assertNotSame(first.getPlacementPlan(), other.getPlacementPlan());
+    }
+
+    @Test
+    public void getMenuSpec_reflectsSetters() throws Exception {
+        ArcLayout layout = new ArcLayout(RuntimeEnvironment.application);
+        layout.setSweepAngle(180f);
+        ArcMenuSpec spec = layout.getMenuSpec();
+        assertEquals(180f, spec.getSweepAngle(), 0f);
+        assertEquals(ArcLayout.Location.RIGHT_BOTTOM, spec.getLocation());
+    }
+}
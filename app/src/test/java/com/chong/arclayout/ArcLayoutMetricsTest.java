@@ -0,0 +1,187 @@
+package com.chong.arclayout;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.ImageView;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 展开/关闭、测量和布局耗时统计的测试
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcLayoutMetricsTest {
+    private static final int ITEM_COUNT = 4;
+    private static final long FRAME_NANOS = TransitionFrameTracker.DEFAULT_FRAME_BUDGET_NANOS;
+    private static final long BASE_NANOS = 1000000000L;
+
+    private ArcLayout mLayout;
+    private final RecordingListener mListener = new RecordingListener();
+
+    /**
+     * 按顺序记录所有回调
+     */
+    private static class RecordingListener implements ArcLayout.OnMenuMetricsListener {
+        final List<String> mEvents = new ArrayList<>();
+        final List<Long> mItemElapsed = new ArrayList<>();
+        long mEndElapsed = -1;
+        int mFrameCount = -1;
+        int mFramesOverBudget = -1;
+        int mMeasureCount;
+        int mLayoutCount;
+
+        @Override
+        public void onTransitionStart(ArcLayout.Status target) {
+            mEvents.add("start " + target);
+        }
+
+        @Override
+        public void onTransitionEnd(ArcLayout.Status target, long elapsedMillis, int frameCount,
+                                    int framesOverBudget) {
+            mEvents.add("end " + target);
+            mEndElapsed = elapsedMillis;
+            mFrameCount = frameCount;
+            mFramesOverBudget = framesOverBudget;
+        }
+
+        @Override
+        public void onItemAnimationEnd(int position, long elapsedMillis) {
+            mEvents.add("item " + position);
+            mItemElapsed.add(elapsedMillis);
+        }
+
+        @Override
+        public void onMeasure(long durationNanos) {
+            assertTrue(durationNanos >= 0);
+            mMeasureCount++;
+        }
+
+        @Override
+        public void onLayout(long durationNanos) {
+            assertTrue(durationNanos >= 0);
+            mLayoutCount++;
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        // 帧回调不实际执行，由测试提供帧时间
+        ShadowLooper.pauseMainLooper();
+        Context context = RuntimeEnvironment.application;
+        mLayout = new ArcLayout(context);
+        for (int i = 0; i <= ITEM_COUNT; i++) {
+            mLayout.addView(new ImageView(context));
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ShadowLooper.unPauseMainLooper();
+    }
+
+    private void measureAndLayout() {
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        mLayout.measure(spec, spec);
+        mLayout.layout(0, 0, mLayout.getMeasuredWidth(), mLayout.getMeasuredHeight());
+    }
+
+    @Test
+    public void noListener_createsNoTracker() throws Exception {
+        measureAndLayout();
+        mLayout.toggleMenu(300);
+        mLayout.toggleMenu(300);
+        assertNull(mLayout.getFrameTracker());
+    }
+
+    @Test
+    public void measureAndLayout_reportDurations() throws Exception {
+        mLayout.setOnMenuMetricsListener(mListener);
+        measureAndLayout();
+        assertEquals(1, mListener.mMeasureCount);
+        assertEquals(1, mListener.mLayoutCount);
+    }
+
+    @Test
+    public void transition_reportsStartItemsAndEnd() throws Exception {
+        measureAndLayout();
+        mLayout.setOnMenuMetricsListener(mListener);
+        mLayout.toggleMenu(300);
+        assertEquals("start OPEN", mListener.mEvents.get(0));
+
+        for (int position = 1; position <= ITEM_COUNT; position++) {
+            mLayout.onItemAnimationEnd(position);
+        }
+        assertEquals(ITEM_COUNT + 2, mListener.mEvents.size());
+        for (int position = 1; position <= ITEM_COUNT; position++) {
+            assertEquals("item " + position, mListener.mEvents.get(position));
+        }
+        assertEquals("end OPEN", mListener.mEvents.get(ITEM_COUNT + 1));
+        assertEquals(ArcLayout.TransitionState.OPEN, mLayout.getTransitionState());
+        // 每个子菜单的耗时不超过整个展开过程的耗时
+        assertTrue(mListener.mEndElapsed >= 0);
+        for (long elapsed : mListener.mItemElapsed) {
+            assertTrue(elapsed >= 0 && elapsed <= mListener.mEndElapsed);
+        }
+    }
+
+    @Test
+    public void interruptedTransition_endsBeforeNextStarts() throws Exception {
+        measureAndLayout();
+        mLayout.setOnMenuMetricsListener(mListener);
+        mLayout.toggleMenu(300);
+        mLayout.toggleMenu(300);
+        assertEquals("start OPEN", mListener.mEvents.get(0));
+        assertEquals("end OPEN", mListener.mEvents.get(1));
+        assertEquals("start CLOSE", mListener.mEvents.get(2));
+    }
+
+    @Test
+    public void frameTimes_countFramesOverBudget() throws Exception {
+        measureAndLayout();
+        mLayout.setOnMenuMetricsListener(mListener);
+        mLayout.toggleMenu(300);
+        TransitionFrameTracker tracker = mLayout.getFrameTracker();
+        assertNotNull(tracker);
+
+        // 第一帧只记录时间；之后 4 帧中有一帧间隔 3 倍帧预算
+        tracker.doFrame(BASE_NANOS);
+        tracker.doFrame(BASE_NANOS + FRAME_NANOS);
+        tracker.doFrame(BASE_NANOS + FRAME_NANOS * 2);
+        tracker.doFrame(BASE_NANOS + FRAME_NANOS * 5);
+        tracker.doFrame(BASE_NANOS + FRAME_NANOS * 6);
+        for (int position = 1; position <= ITEM_COUNT; position++) {
+            mLayout.onItemAnimationEnd(position);
+        }
+        assertEquals(4, mListener.mFrameCount);
+        assertEquals(1, mListener.mFramesOverBudget);
+
+        // 统计结束后的帧不再计入
+        tracker.doFrame(BASE_NANOS + FRAME_NANOS * 10);
+        assertEquals(4, tracker.getFrameCount());
+    }
+
+    @Test
+    public void frameBudget_appliesToTracker() throws Exception {
+        TransitionFrameTracker tracker = new TransitionFrameTracker();
+        tracker.setFrameBudgetNanos(FRAME_NANOS / 2);
+        tracker.start();
+        tracker.doFrame(BASE_NANOS);
+        // 在 120Hz 的预算下，60Hz 的帧间隔都超出预算
+        tracker.doFrame(BASE_NANOS + FRAME_NANOS);
+        tracker.doFrame(BASE_NANOS + FRAME_NANOS * 2);
+        tracker.stop();
+        assertEquals(2, tracker.getFrameCount());
+        assertEquals(2, tracker.getFramesOverBudget());
+    }
+}
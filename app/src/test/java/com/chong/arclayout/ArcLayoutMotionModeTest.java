@@ -0,0 +1,91 @@
+package com.chong.arclayout;
+
+import android.provider.Settings;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 自适应动画方式的测试
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcLayoutMotionModeTest {
+    private ArcLayout mLayout;
+    private final List<ArcLayout.MotionMode> mModes = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        mLayout = (ArcLayout) LayoutInflater.from(RuntimeEnvironment.application)
+                .inflate(R.layout.menu_right_bottom, null);
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        mLayout.measure(spec, spec);
+        mLayout.layout(0, 0, mLayout.getMeasuredWidth(), mLayout.getMeasuredHeight());
+        mLayout.setOnMotionModeChangeListener(new ArcLayout.OnMotionModeChangeListener() {
+            @Override
+            public void onMotionModeChanged(ArcLayout.MotionMode mode) {
+                mModes.add(mode);
+            }
+        });
+    }
+
+    private void setAnimatorDurationScale(float scale) {
+        Settings.Global.putFloat(RuntimeEnvironment.application.getContentResolver(),
+                Settings.Global.ANIMATOR_DURATION_SCALE, scale);
+    }
+
+    @Test
+    public void animatorDisabled_settlesWithoutAnimation() throws Exception {
+        setAnimatorDurationScale(0f);
+        mLayout.toggleMenu(300);
+        // 未开启自适应时不读取系统设置
+        assertEquals(ArcLayout.MotionMode.FULL, mLayout.getMotionMode());
+        assertEquals(ArcLayout.TransitionState.OPENING, mLayout.getTransitionState());
+        mLayout.setOpenImmediately(false);
+
+        mLayout.setAdaptiveMotion(true);
+        mLayout.toggleMenu(300);
+        assertEquals(ArcLayout.MotionMode.NONE, mLayout.getMotionMode());
+        assertEquals(ArcLayout.TransitionState.OPEN, mLayout.getTransitionState());
+        assertEquals(View.VISIBLE, mLayout.getChildAt(1).getVisibility());
+
+        mLayout.toggleMenu(300);
+        assertEquals(ArcLayout.TransitionState.CLOSED, mLayout.getTransitionState());
+        assertEquals(View.INVISIBLE, mLayout.getChildAt(1).getVisibility());
+        // 动画方式不变时不重复回调
+        assertEquals(1, mModes.size());
+        assertEquals(ArcLayout.MotionMode.NONE, mModes.get(0));
+    }
+
+    @Test
+    public void droppedFrames_reduceFollowingTransitions() throws Exception {
+        setAnimatorDurationScale(1f);
+        mLayout.setAdaptiveMotion(true);
+        mLayout.setAnimBackend(ArcLayout.AnimBackend.PROPERTY);
+        mLayout.onTransitionFrames(40, 20);
+
+        mLayout.toggleMenu(300);
+        assertEquals(ArcLayout.MotionMode.REDUCED, mLayout.getMotionMode());
+        // 不改变透明度，子菜单从一开始就不透明
+        assertEquals(1f, mLayout.getChildAt(1).getAlpha(), 0f);
+        mLayout.setOpenImmediately(false);
+
+        // 之后帧率恢复，几次展开/关闭后回到完整的动画
+        for (int i = 0; i < 4; i++) {
+            mLayout.onTransitionFrames(40, 0);
+        }
+        mLayout.toggleMenu(300);
+        assertEquals(ArcLayout.MotionMode.FULL, mLayout.getMotionMode());
+        assertTrue(mLayout.getChildAt(1).getAlpha() < 1f);
+        assertEquals(2, mModes.size());
+    }
+}
@@ -0,0 +1,225 @@
+package com.chong.arclayout;
+
+import android.view.LayoutInflater;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.*;
+
+/**
+ * 性能回归测试
+ * <p>
+ * 加载示例中的四个菜单布局，反复测量、布局、展开和关闭，检查 measureChild 调用次数、
+ * 动画相关对象的创建数量和 requestLayout 次数不超过预算。修改导致数量增加时测试失败，
+ * 需要确认是否合理后再调整预算。
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcLayoutPerformanceTest {
+
+    private static final int[] MENU_LAYOUTS = {
+            R.layout.menu_right_bottom,
+            R.layout.menu_left_bottom,
+            R.layout.menu_left_top,
+            R.layout.menu_right_top,
+    };
+
+    /**
+     * 需要测量时每个子 view 的 measureChild 次数
+     */
+    private static final int MEASURE_CHILD_PER_CHILD = 1;
+    /**
+     * 复用动画时首次展开为每个子菜单创建的对象数量：展开动画、点击动画和监听器
+     */
+    private static final int REUSED_OBJECTS_PER_ITEM = 3;
+    /**
+     * PROPERTY 方式首次展开为每个子菜单创建的监听器数量
+     */
+    private static final int PROPERTY_OBJECTS_PER_ITEM = 1;
+    /**
+     * FRAME 方式首次展开创建的对象数量，与子菜单数量无关：帧回调
+     */
+    private static final int FRAME_OBJECTS = 1;
+    /**
+     * 主按钮开启旋转、缩放或交叉淡入淡出时每个菜单额外创建的对象数量，与动画实现方式无关：
+     * ValueAnimator、插值器和交叉淡入淡出的 LayerDrawable
+     */
+    private static final int MAIN_BUTTON_OBJECTS = 3;
+    /**
+     * 不复用动画时每次切换为每个子菜单创建的对象数量上限：动画和监听器
+     */
+    private static final int LEGACY_OBJECTS_PER_ITEM_PER_TOGGLE = 2;
+
+    private static final int CYCLES = 20;
+
+    private static ArcLayout inflate(int layoutRes) {
+        return (ArcLayout) LayoutInflater.from(RuntimeEnvironment.application).inflate(layoutRes, null);
+    }
+
+    private static void measureAndLayout(ArcLayout layout) {
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        layout.measure(spec, spec);
+        layout.layout(0, 0, layout.getMeasuredWidth(), layout.getMeasuredHeight());
+    }
+
+    private static int itemCount(ArcLayout layout) {
+        return layout.getChildCount() - 1;
+    }
+
+    @Test
+    public void measurePasses_stayWithinBudget() throws Exception {
+        for (int layoutRes : MENU_LAYOUTS) {
+            ArcLayout layout = inflate(layoutRes);
+            measureAndLayout(layout);
+            int firstPass = layout.getMeasureChildCount();
+            assertEquals(layout.getChildCount() * MEASURE_CHILD_PER_CHILD, firstPass);
+
+            // 输入不变的测量、布局不应再测量任何子 view
+            for (int i = 0; i < CYCLES; i++) {
+                layout.forceLayout();
+                measureAndLayout(layout);
+            }
+            assertEquals(firstPass, layout.getMeasureChildCount());
+            assertEquals(CYCLES, layout.getSkippedMeasureCount());
+            assertEquals(CYCLES, layout.getSkippedLayoutCount());
+        }
+    }
+
+    @Test
+    public void toggleCycles_doNotRequestLayout() throws Exception {
+        for (int layoutRes : MENU_LAYOUTS) {
+            ArcLayout layout = inflate(layoutRes);
+            measureAndLayout(layout);
+            int requested = layout.getRequestLayoutCount();
+            int measured = layout.getMeasureChildCount();
+
+            for (int i = 0; i < CYCLES * 2; i++) {
+                layout.toggleMenu(i % 2 == 0 ? 800 : 300);
+            }
+            layout.closeImmediately();
+
+            // 展开、关闭只改变子菜单的动画和可见性，不改变尺寸和位置
+            assertEquals(requested, layout.getRequestLayoutCount());
+            measureAndLayout(layout);
+            assertEquals(measured, layout.getMeasureChildCount());
+        }
+    }
+
+    @Test
+    public void toggleAndLayoutCycles_computeGeometryOnce() throws Exception {
+        for (int layoutRes : MENU_LAYOUTS) {
+            ArcLayout layout = inflate(layoutRes);
+            measureAndLayout(layout);
+            ArcPlacementPlan plan = layout.getPlacementPlan();
+            assertEquals(1, plan.getGeometry().getComputeCount());
+
+            for (int i = 0; i < CYCLES * 2; i++) {
+                layout.toggleMenu(i % 2 == 0 ? 800 : 300);
+                // 每次换一个位置，使 onLayout 完整地重新定位所有子 view
+                layout.forceLayout();
+                int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+                layout.measure(spec, spec);
+                layout.layout(i + 1, 0, i + 1 + layout.getMeasuredWidth(), layout.getMeasuredHeight());
+            }
+
+            // 反复展开、关闭和布局只读取位置表，不再计算三角函数
+            assertSame(plan, layout.getPlacementPlan());
+            assertEquals(1, plan.getGeometry().getComputeCount());
+        }
+    }
+
+    @Test
+    public void unchangedSettings_doNotRequestLayout() throws Exception {
+        for (int layoutRes : MENU_LAYOUTS) {
+            ArcLayout layout = inflate(layoutRes);
+            measureAndLayout(layout);
+            int requested = layout.getRequestLayoutCount();
+
+            layout.setStartAngle(layout.getStartAngle());
+            layout.setSweepAngle(layout.getSweepAngle());
+            layout.setAutoRing(layout.isAutoRing());
+            layout.setRingSpacing(layout.getRingSpacing());
+            layout.setMenuSpec(layout.getMenuSpec());
+
+            assertEquals(requested, layout.getRequestLayoutCount());
+        }
+    }
+
+    @Test
+    public void reusedToggle_animationObjectsWithinBudget() throws Exception {
+        for (int layoutRes : MENU_LAYOUTS) {
+            ArcLayout layout = inflate(layoutRes);
+            layout.setReuseAnimations(true);
+            measureAndLayout(layout);
+
+            layout.toggleMenu(800);
+            int warmedUp = layout.getAnimationObjectCount();
+            assertTrue(warmedUp <= itemCount(layout) * REUSED_OBJECTS_PER_ITEM + MAIN_BUTTON_OBJECTS);
+
+            for (int i = 0; i < CYCLES; i++) {
+                layout.toggleMenu(300);
+            }
+            assertEquals(warmedUp, layout.getAnimationObjectCount());
+        }
+    }
+
+    @Test
+    public void propertyToggle_animationObjectsWithinBudget() throws Exception {
+        for (int layoutRes : MENU_LAYOUTS) {
+            ArcLayout layout = inflate(layoutRes);
+            layout.setAnimBackend(ArcLayout.AnimBackend.PROPERTY);
+            measureAndLayout(layout);
+
+            layout.toggleMenu(800);
+            int warmedUp = layout.getAnimationObjectCount();
+            assertTrue(warmedUp <= itemCount(layout) * PROPERTY_OBJECTS_PER_ITEM + MAIN_BUTTON_OBJECTS);
+
+            for (int i = 0; i < CYCLES; i++) {
+                layout.toggleMenu(300);
+            }
+            assertEquals(warmedUp, layout.getAnimationObjectCount());
+        }
+    }
+
+    @Test
+    public void frameToggle_animationObjectsWithinBudget() throws Exception {
+        // 帧回调不需要真正执行，只统计创建的对象
+        ShadowLooper.pauseMainLooper();
+        for (int layoutRes : MENU_LAYOUTS) {
+            ArcLayout layout = inflate(layoutRes);
+            layout.setAnimBackend(ArcLayout.AnimBackend.FRAME);
+            measureAndLayout(layout);
+
+            layout.toggleMenu(800);
+            int warmedUp = layout.getAnimationObjectCount();
+            assertTrue(warmedUp <= FRAME_OBJECTS + MAIN_BUTTON_OBJECTS);
+
+            for (int i = 0; i < CYCLES; i++) {
+                layout.toggleMenu(300);
+            }
+            assertEquals(warmedUp, layout.getAnimationObjectCount());
+        }
+    }
+
+    @Test
+    public void legacyToggle_animationObjectsWithinBudget() throws Exception {
+        for (int layoutRes : MENU_LAYOUTS) {
+            ArcLayout layout = inflate(layoutRes);
+            measureAndLayout(layout);
+
+            for (int i = 0; i < CYCLES; i++) {
+                int before = layout.getAnimationObjectCount();
+                layout.toggleMenu(i % 2 == 0 ? 800 : 300);
+                int created = layout.getAnimationObjectCount() - before;
+                // 主按钮的动画只在首次切换时创建
+                int budget = itemCount(layout) * LEGACY_OBJECTS_PER_ITEM_PER_TOGGLE
+                        + (i == 0 ? MAIN_BUTTON_OBJECTS : 0);
+                assertTrue(created <= budget);
+            }
+        }
+    }
+}
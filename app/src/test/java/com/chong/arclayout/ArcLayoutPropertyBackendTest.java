@@ -0,0 +1,125 @@
+package com.chong.arclayout;
+
+import android.content.Context;
+import android.util.AttributeSet;
+import android.view.View;
+import android.widget.ImageView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * ViewPropertyAnimator 方式的子菜单动画测试
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcLayoutPropertyBackendTest {
+    private static final int ITEM_COUNT = 4;
+
+    private static ArcLayout setUpLayout(ArcLayout layout) {
+        Context context = layout.getContext();
+        for (int i = 0; i <= ITEM_COUNT; i++) {
+            layout.addView(new ImageView(context));
+        }
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        layout.measure(spec, spec);
+        layout.layout(0, 0, layout.getMeasuredWidth(), layout.getMeasuredHeight());
+        return layout;
+    }
+
+    /**
+     * 展开后子菜单回到自身位置且不透明
+     */
+    private static void assertOpened(ArcLayout layout) {
+        assertEquals(ArcLayout.TransitionState.OPEN, layout.getTransitionState());
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            View item = layout.getChildAt(i + 1);
+            assertEquals(View.VISIBLE, item.getVisibility());
+            assertEquals(0f, item.getTranslationX(), 0.01f);
+            assertEquals(0f, item.getTranslationY(), 0.01f);
+            assertEquals(1f, item.getAlpha(), 0.01f);
+        }
+    }
+
+    /**
+     * 关闭后子菜单停在主按钮位置，透明并隐藏
+     */
+    private static void assertClosed(ArcLayout layout) {
+        assertEquals(ArcLayout.TransitionState.CLOSED, layout.getTransitionState());
+        ArcGeometry geometry = layout.getPlacementPlan().getGeometry();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            View item = layout.getChildAt(i + 1);
+            assertEquals(View.INVISIBLE, item.getVisibility());
+            assertEquals(geometry.getTranslateX(i), item.getTranslationX(), 0.01f);
+            assertEquals(geometry.getTranslateY(i), item.getTranslationY(), 0.01f);
+            assertEquals(0f, item.getAlpha(), 0.01f);
+        }
+    }
+
+    private static void assertTogglesToEndValues(ArcLayout layout) {
+        assertEquals(ArcLayout.AnimBackend.PROPERTY, layout.getAnimBackend());
+
+        layout.toggleMenu(300);
+        // 属性动画不使用 View Animation
+        assertNull(layout.getChildAt(1).getAnimation());
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertOpened(layout);
+
+        layout.toggleMenu(300);
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertClosed(layout);
+    }
+
+    @Test
+    public void xmlAttribute_selectsPropertyBackend() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.anim_backend, "property")
+                .build();
+        assertTogglesToEndValues(setUpLayout(new ArcLayout(context, attrs)));
+    }
+
+    @Test
+    public void setter_selectsPropertyBackend() throws Exception {
+        ArcLayout layout = setUpLayout(new ArcLayout(RuntimeEnvironment.application));
+        assertEquals(ArcLayout.AnimBackend.VIEW, layout.getAnimBackend());
+        layout.setAnimBackend(ArcLayout.AnimBackend.PROPERTY);
+        assertTogglesToEndValues(layout);
+    }
+
+    @Test
+    public void interruptedToggle_reversesFromCurrentValues() throws Exception {
+        ArcLayout layout = setUpLayout(new ArcLayout(RuntimeEnvironment.application));
+        layout.setAnimBackend(ArcLayout.AnimBackend.PROPERTY);
+        View item = layout.getChildAt(1);
+
+        layout.toggleMenu(800);
+        ShadowLooper.idleMainLooper(400, TimeUnit.MILLISECONDS);
+        assertEquals(ArcLayout.TransitionState.OPENING, layout.getTransitionState());
+        float x = item.getTranslationX();
+        float y = item.getTranslationY();
+        float alpha = item.getAlpha();
+
+        // 关闭从展开停下的位置开始，不跳回起点或终点
+        layout.toggleMenu(300);
+        assertEquals(ArcLayout.TransitionState.CLOSING, layout.getTransitionState());
+        assertEquals(x, item.getTranslationX(), 0.01f);
+        assertEquals(y, item.getTranslationY(), 0.01f);
+        assertEquals(alpha, item.getAlpha(), 0.01f);
+
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertClosed(layout);
+
+        // 再次展开同样到达终点
+        layout.toggleMenu(300);
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        assertOpened(layout);
+    }
+}
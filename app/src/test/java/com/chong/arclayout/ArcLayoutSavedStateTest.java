@@ -0,0 +1,101 @@
+package com.chong.arclayout;
+
+import android.content.Context;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.view.View;
+import android.widget.ImageView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.*;
+
+/**
+ * 状态保存、恢复的测试
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcLayoutSavedStateTest {
+    private static final int ITEM_COUNT = 4;
+
+    private static ArcLayout createLayout(Context context) {
+        ArcLayout layout = new ArcLayout(context);
+        layout.setId(R.id.menu_right_bottom);
+        for (int i = 0; i <= ITEM_COUNT; i++) {
+            layout.addView(new ImageView(context));
+        }
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        layout.measure(spec, spec);
+        layout.layout(0, 0, layout.getMeasuredWidth(), layout.getMeasuredHeight());
+        return layout;
+    }
+
+    private static Parcelable parcel(Parcelable state) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            state.writeToParcel(parcel, 0);
+            parcel.setDataPosition(0);
+            return ArcLayout.SavedState.CREATOR.createFromParcel(parcel);
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    @Test
+    public void openState_restoresWithoutAnimation() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        ArcLayout layout = createLayout(context);
+        layout.setOpenImmediately(true);
+        layout.getChildAt(3).performClick();
+        layout.setOpenImmediately(true);
+        assertEquals(3, layout.getSelectedPosition());
+
+        Parcelable state = parcel(layout.onSaveInstanceState());
+
+        ArcLayout restored = createLayout(context);
+        restored.onRestoreInstanceState(state);
+        assertTrue(restored.isOpen());
+        assertEquals(ArcLayout.TransitionState.OPEN, restored.getTransitionState());
+        assertEquals(3, restored.getSelectedPosition());
+        assertEquals(0, restored.getAnimationObjectCount());
+        for (int i = 1; i <= ITEM_COUNT; i++) {
+            View item = restored.getChildAt(i);
+            assertEquals(View.VISIBLE, item.getVisibility());
+            assertNull(item.getAnimation());
+            assertTrue(item.isClickable());
+        }
+    }
+
+    @Test
+    public void closedState_staysClosed() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        ArcLayout layout = createLayout(context);
+        Parcelable state = parcel(layout.onSaveInstanceState());
+
+        ArcLayout restored = createLayout(context);
+        restored.onRestoreInstanceState(state);
+        assertFalse(restored.isOpen());
+        assertEquals(ArcLayout.TransitionState.CLOSED, restored.getTransitionState());
+        assertEquals(-1, restored.getSelectedPosition());
+        assertEquals(View.INVISIBLE, restored.getChildAt(1).getVisibility());
+    }
+
+    @Test
+    public void openImmediately_interruptsRunningToggle() throws Exception {
+        ArcLayout layout = createLayout(RuntimeEnvironment.application);
+        layout.toggleMenu(800);
+        assertEquals(ArcLayout.TransitionState.OPENING, layout.getTransitionState());
+
+        layout.setOpenImmediately(true);
+        assertEquals(ArcLayout.TransitionState.OPEN, layout.getTransitionState());
+        for (int i = 1; i <= ITEM_COUNT; i++) {
+            assertNull(layout.getChildAt(i).getAnimation());
+        }
+
+        layout.setOpenImmediately(false);
+        assertEquals(ArcLayout.TransitionState.CLOSED, layout.getTransitionState());
+        assertEquals(View.INVISIBLE, layout.getChildAt(1).getVisibility());
+    }
+}
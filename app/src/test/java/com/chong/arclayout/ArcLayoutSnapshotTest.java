@@ -0,0 +1,65 @@
+package com.chong.arclayout;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.View;
+import android.widget.ImageView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.*;
+
+/**
+ * 子菜单快照模式的测试
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcLayoutSnapshotTest {
+    private ArcLayout mLayout;
+    private Canvas mCanvas;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        mLayout = new ArcLayout(context);
+        for (int i = 0; i < 4; i++) {
+            ImageView item = new ImageView(context);
+            item.setMinimumWidth(40);
+            item.setMinimumHeight(40);
+            mLayout.addView(item);
+        }
+        mLayout.setSnapshotItems(true);
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        mLayout.measure(spec, spec);
+        mLayout.layout(0, 0, mLayout.getMeasuredWidth(), mLayout.getMeasuredHeight());
+        mCanvas = new Canvas(Bitmap.createBitmap(mLayout.getMeasuredWidth(),
+                mLayout.getMeasuredHeight(), Bitmap.Config.ARGB_8888));
+    }
+
+    @Test
+    public void snapshots_onlyDuringTransition() throws Exception {
+        mLayout.draw(mCanvas);
+        assertEquals(0, mLayout.getSnapshotRenderCount());
+
+        mLayout.toggleMenu(800);
+        mLayout.draw(mCanvas);
+        assertEquals(1, mLayout.getSnapshotRenderCount());
+    }
+
+    @Test
+    public void snapshots_reusedAcrossFrames() throws Exception {
+        mLayout.toggleMenu(800);
+        for (int i = 0; i < 10; i++) {
+            mLayout.draw(mCanvas);
+        }
+        assertEquals(1, mLayout.getSnapshotRenderCount());
+
+        mLayout.invalidateItemSnapshots();
+        mLayout.draw(mCanvas);
+        assertEquals(2, mLayout.getSnapshotRenderCount());
+    }
+}
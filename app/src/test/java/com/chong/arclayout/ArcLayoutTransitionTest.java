@@ -0,0 +1,115 @@
+package com.chong.arclayout;
+
+import android.app.Activity;
+import android.content.Context;
+import android.view.View;
+import android.view.animation.Transformation;
+import android.widget.ImageView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.*;
+
+/**
+ * 展开/关闭过程的状态测试
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcLayoutTransitionTest {
+    private static final int ITEM_COUNT = 4;
+
+    private ArcLayout createLayout(Context context) {
+        ArcLayout layout = new ArcLayout(context);
+        layout.setReuseAnimations(true);
+        for (int i = 0; i <= ITEM_COUNT; i++) {
+            layout.addView(new ImageView(context));
+        }
+        return layout;
+    }
+
+    @Test
+    public void toggle_reversesWhileRunning() throws Exception {
+        ArcLayout layout = createLayout(Robolectric.setupActivity(Activity.class));
+        assertEquals(ArcLayout.TransitionState.CLOSED, layout.getTransitionState());
+
+        layout.toggleMenu(800);
+        // 目标状态立即改变，动画结束前仍处于展开过程中
+        assertTrue(layout.isOpen());
+        assertEquals(ArcLayout.TransitionState.OPENING, layout.getTransitionState());
+
+        layout.toggleMenu(300);
+        assertFalse(layout.isOpen());
+        assertEquals(ArcLayout.TransitionState.CLOSING, layout.getTransitionState());
+    }
+
+    @Test
+    public void defaultBackend_reversesFromCurrentPosition() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        ArcLayout layout = new ArcLayout(context);
+        for (int i = 0; i <= ITEM_COUNT; i++) {
+            layout.addView(new ImageView(context));
+        }
+        int spec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        layout.measure(spec, spec);
+        layout.layout(0, 0, layout.getMeasuredWidth(), layout.getMeasuredHeight());
+        assertFalse(layout.isReuseAnimations());
+
+        layout.toggleMenu(800);
+        View item = layout.getChildAt(1);
+        ArcItemAnimation opening = (ArcItemAnimation) item.getAnimation();
+        // 模拟绘制到展开过程的一半
+        Transformation t = new Transformation();
+        opening.getTransformation(0, t);
+        opening.getTransformation(opening.getStartOffset() + 400, t);
+        float x = opening.getCurrentX();
+        float y = opening.getCurrentY();
+        assertTrue(x != 0f || y != 0f);
+
+        layout.toggleMenu(300);
+        // 新的关闭动画从展开停下的位置开始，持续时间按剩余距离缩短
+        ArcItemAnimation closing = (ArcItemAnimation) item.getAnimation();
+        assertNotSame(opening, closing);
+        assertEquals(x, closing.getCurrentX(), 0.01f);
+        assertEquals(y, closing.getCurrentY(), 0.01f);
+        assertTrue(closing.getDuration() > 0 && closing.getDuration() < 300);
+        assertEquals(0, closing.getStartOffset());
+    }
+
+    @Test
+    public void toggle_withoutItemsSettlesImmediately() throws Exception {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        ArcLayout layout = new ArcLayout(activity);
+        layout.addView(new ImageView(activity));
+
+        layout.toggleMenu(800);
+        assertEquals(ArcLayout.TransitionState.OPEN, layout.getTransitionState());
+    }
+
+    @Test
+    public void togglesInOneFrame_areCoalesced() throws Exception {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        ArcLayout layout = createLayout(activity);
+        activity.setContentView(layout);
+
+        ShadowLooper.pauseMainLooper();
+        layout.toggleMenu(800);
+        layout.toggleMenu(300);
+        ShadowLooper.runUiThreadTasks();
+
+        // 一开一关互相抵消，没有开始任何动画
+        assertEquals(ArcLayout.TransitionState.CLOSED, layout.getTransitionState());
+        assertEquals(0, layout.getAnimationObjectCount());
+
+        layout.toggleMenu(800);
+        layout.toggleMenu(300);
+        layout.toggleMenu(800);
+        assertEquals(ArcLayout.TransitionState.CLOSED, layout.getTransitionState());
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(ArcLayout.TransitionState.OPENING, layout.getTransitionState());
+        ShadowLooper.unPauseMainLooper();
+    }
+}
@@ -0,0 +1,112 @@
+package com.chong.arclayout;
+
+import android.app.Activity;
+import android.content.Context;
+import android.widget.AbsListView;
+import android.widget.FrameLayout;
+import android.widget.ImageView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.*;
+
+/**
+ * 多个菜单统一管理的测试
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ArcMenuCoordinatorTest {
+    private ArcMenuCoordinator mCoordinator;
+    private ArcLayout mFirst;
+    private ArcLayout mSecond;
+
+    private ArcLayout createLayout(Context context) {
+        ArcLayout layout = new ArcLayout(context);
+        for (int i = 0; i < 4; i++) {
+            layout.addView(new ImageView(context));
+        }
+        mCoordinator.register(layout);
+        return layout;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = RuntimeEnvironment.application;
+        mCoordinator = new ArcMenuCoordinator();
+        mFirst = createLayout(context);
+        mSecond = createLayout(context);
+    }
+
+    @Test
+    public void openingMenu_closesOthers() throws Exception {
+        mFirst.toggleMenu(800);
+        assertEquals(1, mCoordinator.getOpenMenuCount());
+
+        mSecond.toggleMenu(800);
+        assertEquals(1, mCoordinator.getOpenMenuCount());
+        assertFalse(mFirst.isOpen());
+        // 不在屏幕上的菜单直接关闭，不播放动画
+        assertEquals(ArcLayout.TransitionState.CLOSED, mFirst.getTransitionState());
+        assertTrue(mSecond.isOpen());
+    }
+
+    @Test
+    public void scroll_closesOpenMenus() throws Exception {
+        mFirst.toggleMenu(800);
+
+        // 列表布局时的 onScroll 不关闭菜单
+        mCoordinator.onScroll(null, 0, 10, 26);
+        assertTrue(mFirst.isOpen());
+
+        mCoordinator.onScrollStateChanged(null, AbsListView.OnScrollListener.SCROLL_STATE_TOUCH_SCROLL);
+        assertFalse(mFirst.isOpen());
+        assertEquals(0, mCoordinator.getOpenMenuCount());
+    }
+
+    @Test
+    public void unregister_stopsTracking() throws Exception {
+        mCoordinator.unregister(mFirst);
+        mFirst.toggleMenu(800);
+        assertEquals(0, mCoordinator.getOpenMenuCount());
+    }
+
+    @Test
+    public void detachedMenu_isNoLongerTracked() throws Exception {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        FrameLayout root = new FrameLayout(activity);
+        activity.setContentView(root);
+        ArcLayout menu = createLayout(activity);
+        root.addView(menu);
+        menu.setOpenImmediately(true);
+        assertEquals(1, mCoordinator.getOpenMenuCount());
+
+        // 列表回收条目时菜单离开窗口，ArcMenuCoordinator 不再持有它
+        root.removeView(menu);
+        assertEquals(0, mCoordinator.getOpenMenuCount());
+        assertSame(mCoordinator, menu.getMenuCoordinator());
+
+        // 重新加入窗口时仍是展开状态，与其他菜单一样只允许一个展开
+        mFirst.toggleMenu(800);
+        root.addView(menu);
+        assertEquals(1, mCoordinator.getOpenMenuCount());
+        assertFalse(mFirst.isOpen());
+        assertTrue(menu.isOpen());
+    }
+
+    @Test
+    public void register_movesMenuBetweenCoordinators() throws Exception {
+        mFirst.toggleMenu(800);
+        mCoordinator.register(mFirst);
+        assertEquals(1, mCoordinator.getOpenMenuCount());
+
+        ArcMenuCoordinator other = new ArcMenuCoordinator();
+        other.register(mFirst);
+        assertSame(other, mFirst.getMenuCoordinator());
+        assertEquals(0, mCoordinator.getOpenMenuCount());
+        assertEquals(1, other.getOpenMenuCount());
+    }
+}
@@ -0,0 +1,67 @@
+package com.chong.arclayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * onLayout/toggleMenu 中子菜单位置的计算开销
+ */
+@State(Scope.Thread)
+public class ArcGeometryBenchmark {
+
+    @Param({"3", "8", "16", "64"})
+    int itemCount;
+
+    @Param({"LEFT_TOP", "LEFT_BOTTOM", "RIGHT_TOP", "RIGHT_BOTTOM"})
+    BenchmarkLocation location;
+
+    private int mRadius = 280;
+    private ArcGeometry mGeometry;
+
+    @Setup
+    public void setUp() {
+        mGeometry = new ArcGeometry();
+        mGeometry.update(itemCount, mRadius, 0f, 90f, location.left, location.top);
+    }
+
+    /**
+     * 原先每次布局/切换都在循环中调用三角函数
+     */
+    @Benchmark
+    public void directTrig(Blackhole bh) {
+        int count = itemCount + 1;
+        int xFlag = location.left ? -1 : 1;
+        int yFlag = location.top ? -1 : 1;
+        for (int i = 0; i < count - 1; i++) {
+            int childLeft = (int) (mRadius * Math.sin(Math.PI / 2 / (count - 2) * i));
+            int childTop = (int) (mRadius * Math.cos(Math.PI / 2 / (count - 2) * i));
+            bh.consume(xFlag * childLeft);
+            bh.consume(yFlag * childTop);
+        }
+    }
+
+    /**
+     * 输入不变时从位置表读取
+     */
+    @Benchmark
+    public void cachedLookup(Blackhole bh) {
+        mGeometry.update(itemCount, mRadius, 0f, 90f, location.left, location.top);
+        for (int i = 0; i < itemCount; i++) {
+            bh.consume(mGeometry.getTranslateX(i));
+            bh.consume(mGeometry.getTranslateY(i));
+        }
+    }
+
+    /**
+     * 输入变化时重新生成位置表
+     */
+    @Benchmark
+    public void rebuild(Blackhole bh) {
+        mGeometry.invalidate();
+        bh.consume(mGeometry.update(itemCount, mRadius, 0f, 90f, location.left, location.top));
+    }
+}
@@ -0,0 +1,58 @@
+package com.chong.arclayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * ArcLayout 每次测量、布局中由 ArcPlacementEngine 完成的部分
+ * <p>
+ * 结果写入预先分配的数组，gc.alloc.rate.norm 应为 0。
+ */
+@State(Scope.Thread)
+public class ArcPlacementEngineBenchmark {
+
+    @Param({"3", "8", "16", "64"})
+    int itemCount;
+
+    @Param({"LEFT_TOP", "LEFT_BOTTOM", "RIGHT_TOP", "RIGHT_BOTTOM"})
+    BenchmarkLocation location;
+
+    @Param({"false", "true"})
+    boolean autoRing;
+
+    private ArcPlacementEngine mEngine;
+    private int mCount;
+    private int[] mSizes;
+    private int[] mRects;
+
+    @Setup
+    public void setUp() {
+        mCount = itemCount + 1;
+        mSizes = new int[mCount * 2];
+        for (int i = 0; i < mSizes.length; i++) {
+            mSizes[i] = 96 + i % 7;
+        }
+        mRects = new int[mCount * ArcPlacementEngine.RECT_SIZE];
+        mEngine = new ArcPlacementEngine();
+        mEngine.setRadius(280);
+        mEngine.setCorner(location.left, location.top);
+        mEngine.setAutoRing(autoRing, 0);
+        mEngine.setMargin(20, 20);
+        mEngine.update(mSizes, mCount);
+    }
+
+    /**
+     * 一次完整的测量和布局，位置表已缓存
+     */
+    @Benchmark
+    public int measureAndLayout() {
+        mEngine.update(mSizes, mCount);
+        int width = mEngine.measureWidth(mSizes, mCount);
+        int height = mEngine.measureHeight(mSizes, mCount);
+        mEngine.layout(mSizes, mCount, width, height, mRects);
+        return mRects[mRects.length - 1];
+    }
+}
@@ -0,0 +1,19 @@
+package com.chong.arclayout;
+
+/**
+ * 与 ArcLayout.Location 对应的四个位置，benchmark 模块不依赖 android.jar，单独定义
+ */
+enum BenchmarkLocation {
+    LEFT_TOP(true, true),
+    LEFT_BOTTOM(true, false),
+    RIGHT_TOP(false, true),
+    RIGHT_BOTTOM(false, false);
+
+    final boolean left;
+    final boolean top;
+
+    BenchmarkLocation(boolean left, boolean top) {
+        this.left = left;
+        this.top = top;
+    }
+}
@@ -0,0 +1,35 @@
+package com.chong.arclayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * onMeasure 中汇总子 view 尺寸的开销
+ */
+@State(Scope.Thread)
+public class MeasureBenchmark {
+
+    @Param({"3", "8", "16", "64"})
+    int itemCount;
+
+    private int[] mChildSizes;
+    private int mCount;
+
+    @Setup
+    public void setUp() {
+        mCount = itemCount + 1;
+        mChildSizes = new int[mCount * 2];
+        for (int i = 0; i < mChildSizes.length; i++) {
+            mChildSizes[i] = 96 + i % 7;
+        }
+    }
+
+    @Benchmark
+    public int contentSize() {
+        return ArcGeometry.contentWidth(mChildSizes, mCount)
+                + ArcGeometry.contentHeight(mChildSizes, mCount);
+    }
+}
@@ -0,0 +1,42 @@
+package com.chong.arclayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * toggleMenu 为每个子菜单准备动画参数（起止位置、延迟）的开销
+ * <p>
+ * android.view.animation 的动画对象依赖 native 的 Matrix，无法在 JVM 上创建，
+ * 动画对象的创建次数由 app 模块的 ArcLayoutAllocationTest 统计。
+ */
+@State(Scope.Thread)
+public class ToggleSetupBenchmark {
+
+    @Param({"3", "8", "16", "64"})
+    int itemCount;
+
+    @Param({"LEFT_TOP", "LEFT_BOTTOM", "RIGHT_TOP", "RIGHT_BOTTOM"})
+    BenchmarkLocation location;
+
+    private ArcGeometry mGeometry;
+
+    @Setup
+    public void setUp() {
+        mGeometry = new ArcGeometry();
+    }
+
+    @Benchmark
+    public void toggle(Blackhole bh) {
+        int count = itemCount + 1;
+        mGeometry.update(itemCount, 280, 0f, 90f, location.left, location.top);
+        for (int i = 0; i < count - 1; i++) {
+            bh.consume(mGeometry.getTranslateX(i));
+            bh.consume(mGeometry.getTranslateY(i));
+            bh.consume((i * 100) / count);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.chong.arclayout;
+
+/**
+ * 弧形菜单子项位置表
+ * <p>
+ * 按 (子项数量, 半径, 起始角度, 扫过角度, 位置) 计算一次每个子项相对主按钮的偏移，
+ * 结果保存在基本类型数组中，供 onLayout 和 toggleMenu 共同读取；
+ * 只有上述输入发生变化时才会重新计算。
+ * <p>
+ * 指定子项尺寸时，一圈放不下的子项依次排到半径更大的同心圆弧上。
+ */
+final class ArcGeometry {
+    /**
+     * 当前缓存对应的子项数量，-1 表示尚未计算
+     */
+    private int mItemCount = -1;
+    private int mRadius;
+    private float mStartAngle;
+    private float mSweepAngle;
+    private boolean mLeft;
+    private boolean mTop;
+    private int mItemSize;
+    private int mRingSpacing;
+
+    /**
+     * 子项相对主按钮的水平偏移，正值指向布局内部
+     */
+    private int[] mOffsetX = new int[0];
+    /**
+     * 子项相对主按钮的竖直偏移，正值指向布局内部
+     */
+    private int[] mOffsetY = new int[0];
+    /**
+     * 子项所在的角度，单位弧度，0 为竖直方向
+     */
+    private float[] mAngles = new float[0];
+    /**
+     * 子项所在圆弧的半径
+     */
+    private int[] mItemRadius = new int[0];
+
+    private int mXFlag = 1;
+    private int mYFlag = 1;
+    /**
+     * 所有子项偏移的范围，包含主按钮所在的 0
+     */
+    private int mMinOffsetX;
+    private int mMaxOffsetX;
+    private int mMinOffsetY;
+    private int mMaxOffsetY;
+    private int mRingCount;
+
+    /**
+     * 实际执行三角函数计算的次数，供测试检查缓存是否生效
+     */
+    private int mComputeCount;
+
+    boolean update(int itemCount, int radius, float startAngle, float sweepAngle,
+                   boolean left, boolean top) {
+        return update(itemCount, radius, startAngle, sweepAngle, left, top, 0, 0);
+    }
+
+    /**
+     * 根据输入更新位置表，输入未变化时直接返回
+     *
+     * @param itemCount   子项数量（不含主按钮）
+     * @param radius      弧形半径
+     * @param startAngle  起始角度，单位度，0 为竖直方向，90 为水平方向
+     * @param sweepAngle  扫过角度，单位度，绝对值不小于 360 时为整圆
+     * @param left        主按钮是否在左侧
+     * @param top         主按钮是否在上侧
+     * @param itemSize    子项尺寸，大于 0 时相邻子项在弧上的距离小于该值会排到外圈，0 表示只排一圈
+     * @param ringSpacing 相邻两圈的半径差，0 表示使用 itemSize
+     * @return true 重新计算了位置表;false 使用缓存
+     */
+    boolean update(int itemCount, int radius, float startAngle, float sweepAngle,
+                   boolean left, boolean top, int itemSize, int ringSpacing) {
+        if (itemCount == mItemCount && radius == mRadius
+                && startAngle == mStartAngle && sweepAngle == mSweepAngle
+                && left == mLeft && top == mTop
+                && itemSize == mItemSize && ringSpacing == mRingSpacing) {
+            return false;
+        }
+        mItemCount = itemCount;
+        mRadius = radius;
+        mStartAngle = startAngle;
+        mSweepAngle = sweepAngle;
+        mLeft = left;
+        mTop = top;
+        mItemSize = itemSize;
+        mRingSpacing = ringSpacing;
+        mXFlag = left ? -1 : 1;
+        mYFlag = top ? -1 : 1;
+
+        int size = Math.max(itemCount, 0);
+        if (mOffsetX.length < size) {
+            mOffsetX = new int[size];
+            mOffsetY = new int[size];
+            mAngles = new float[size];
+            mItemRadius = new int[size];
+        }
+        mMinOffsetX = 0;
+        mMaxOffsetX = 0;
+        mMinOffsetY = 0;
+        mMaxOffsetY = 0;
+        mRingCount = 0;
+
+        int spacing = ringSpacing > 0 ? ringSpacing : itemSize;
+        int index = 0;
+        while (index < size) {
+            int ringRadius = radius + mRingCount * spacing;
+            int ringItems = size - index;
+            if (itemSize > 0) {
+                ringItems = Math.min(ringItems, ringCapacity(ringRadius, sweepAngle, itemSize));
+            }
+            for (int j = 0; j < ringItems; j++, index++) {
+                double angle = angleOf(j, ringItems, startAngle, sweepAngle);
+                int offsetX = (int) (ringRadius * Math.sin(angle));
+                int offsetY = (int) (ringRadius * Math.cos(angle));
+                mAngles[index] = (float) angle;
+                mItemRadius[index] = ringRadius;
+                mOffsetX[index] = offsetX;
+                mOffsetY[index] = offsetY;
+                mMinOffsetX = Math.min(mMinOffsetX, offsetX);
+                mMaxOffsetX = Math.max(mMaxOffsetX, offsetX);
+                mMinOffsetY = Math.min(mMinOffsetY, offsetY);
+                mMaxOffsetY = Math.max(mMaxOffsetY, offsetY);
+            }
+            mRingCount++;
+        }
+        mComputeCount++;
+        return true;
+    }
+
+    /**
+     * 半径为 ringRadius 的圆弧上最多能放下的子项数量，至少为 1
+     */
+    static int ringCapacity(int ringRadius, float sweepAngle, int itemSize) {
+        double arcLength = ringRadius * Math.PI * (Math.min(Math.abs(sweepAngle), 360f) / 180.0);
+        int capacity = (int) (arcLength / itemSize);
+        if (!isFullRing(sweepAngle)) {
+            // 非整圆时两端各有一个子项
+            capacity++;
+        }
+        return Math.max(capacity, 1);
+    }
+
+    static boolean isFullRing(float sweepAngle) {
+        return Math.abs(sweepAngle) >= 360f;
+    }
+
+    /**
+     * 当前位置表是否为整圆
+     */
+    boolean isFullCircle() {
+        return isFullRing(mSweepAngle);
+    }
+
+    /**
+     * 使缓存失效，下次 update 必定重新计算
+     */
+    void invalidate() {
+        mItemCount = -1;
+    }
+
+    /**
+     * 同一圈上第 index 个子项所在的角度
+     * <p>
+     * 只有一个子项时位于弧的中间；整圆时首尾不重合
+     *
+     * @param itemCount 该圈上的子项数量
+     * @return 弧度
+     */
+    static double angleOf(int index, int itemCount, float startAngle, float sweepAngle) {
+        double start = Math.PI * (startAngle / 180.0);
+        double sweep = Math.PI * (sweepAngle / 180.0);
+        if (itemCount <= 1) {
+            return start + sweep / 2;
+        }
+        if (isFullRing(sweepAngle)) {
+            return start + sweep / itemCount * index;
+        }
+        return start + sweep / (itemCount - 1) * index;
+    }
+
+    /**
+     * 汇总 onMeasure 所需的宽度：主按钮和第一个子菜单各占一半
+     *
+     * @param childSizes 子 view 的测量尺寸，依次为宽、高
+     * @param count      子 view 数量，包含主按钮
+     */
+    static int contentWidth(int[] childSizes, int count) {
+        if (count <= 0) {
+            return 0;
+        }
+        int width = childSizes[0] / 2;
+        if (count > 1) {
+            width += childSizes[2] / 2;
+        }
+        return width;
+    }
+
+    /**
+     * 汇总 onMeasure 所需的高度：主按钮和最后一个子菜单各占一半
+     *
+     * @param childSizes 子 view 的测量尺寸，依次为宽、高
+     * @param count      子 view 数量，包含主按钮
+     */
+    static int contentHeight(int[] childSizes, int count) {
+        if (count <= 0) {
+            return 0;
+        }
+        int height = childSizes[1] / 2;
+        if (count > 1) {
+            height += childSizes[(count - 1) * 2 + 1] / 2;
+        }
+        return height;
+    }
+
+    int getItemCount() {
+        return Math.max(mItemCount, 0);
+    }
+
+    /**
+     * 子项相对主按钮的水平距离，正值指向布局内部
+     */
+    int getOffsetX(int index) {
+        return mOffsetX[index];
+    }
+
+    /**
+     * 子项相对主按钮的竖直距离，正值指向布局内部
+     */
+    int getOffsetY(int index) {
+        return mOffsetY[index];
+    }
+
+    /**
+     * 子项从自身位置平移到主按钮位置的 x 方向距离
+     */
+    int getTranslateX(int index) {
+        return mXFlag * mOffsetX[index];
+    }
+
+    /**
+     * 子项从自身位置平移到主按钮位置的 y 方向距离
+     */
+    int getTranslateY(int index) {
+        return mYFlag * mOffsetY[index];
+    }
+
+    float getAngle(int index) {
+        return mAngles[index];
+    }
+
+    int getItemRadius(int index) {
+        return mItemRadius[index];
+    }
+
+    int getRingCount() {
+        return mRingCount;
+    }
+
+    /**
+     * 子项在布局内部方向上的最大水平偏移
+     */
+    int getSpanX() {
+        return mMaxOffsetX;
+    }
+
+    /**
+     * 子项在布局内部方向上的最大竖直偏移
+     */
+    int getSpanY() {
+        return mMaxOffsetY;
+    }
+
+    /**
+     * 子项越过主按钮指向布局外侧的水平距离，主按钮需要向内让出这段距离
+     */
+    int getInsetX() {
+        return -mMinOffsetX;
+    }
+
+    /**
+     * 子项越过主按钮指向布局外侧的竖直距离，主按钮需要向内让出这段距离
+     */
+    int getInsetY() {
+        return -mMinOffsetY;
+    }
+
+    int getComputeCount() {
+        return mComputeCount;
+    }
+}
@@ -0,0 +1,211 @@
+package com.chong.arclayout;
+
+/**
+ * 子菜单的触摸命中索引
+ * <p>
+ * 按位置表中的分圈和角度建立索引：触摸点先按到圆心的距离确定所在的圈，再按角度确定圈内的位置，
+ * 最后只检查该位置及相邻的少量子菜单的实际区域，查找时间与子菜单数量无关。
+ * 子菜单区域可以向外扩展 slop，方便点击较小的子菜单。
+ */
+final class ArcHitIndex {
+    private int mItemCount;
+    /**
+     * 子菜单中心点，依次为 x、y，布局坐标
+     */
+    private float[] mCenters = new float[0];
+    /**
+     * 子菜单宽高的一半，依次为宽、高
+     */
+    private float[] mHalfSizes = new float[0];
+    private boolean[] mHittable = new boolean[0];
+
+    /**
+     * 弧形圆心，布局坐标
+     */
+    private float mOriginX;
+    private float mOriginY;
+    /**
+     * 指向布局内部的方向，1 或 -1
+     */
+    private int mDirX = 1;
+    private int mDirY = 1;
+
+    /**
+     * 每一圈的半径、第一个子菜单序号、子菜单数量、起始角度和相邻子菜单的角度差
+     */
+    private int mRingCount;
+    private int[] mRingRadius = new int[0];
+    private int[] mRingFirst = new int[0];
+    private int[] mRingItems = new int[0];
+    private double[] mRingStart = new double[0];
+    private double[] mRingStep = new double[0];
+    private boolean mFullRing;
+
+    /**
+     * 开始重新建立索引
+     *
+     * @param itemCount 子菜单数量，不含主按钮
+     */
+    void begin(int itemCount) {
+        mItemCount = itemCount;
+        if (mHittable.length < itemCount) {
+            mCenters = new float[itemCount * 2];
+            mHalfSizes = new float[itemCount * 2];
+            mHittable = new boolean[itemCount];
+        }
+    }
+
+    /**
+     * 设置第 index 个子菜单的实际区域
+     *
+     * @param hittable 是否可以被点中，例如子菜单不可见时为 false
+     */
+    void setItem(int index, float left, float top, float right, float bottom, boolean hittable) {
+        mCenters[index * 2] = (left + right) / 2;
+        mCenters[index * 2 + 1] = (top + bottom) / 2;
+        mHalfSizes[index * 2] = (right - left) / 2;
+        mHalfSizes[index * 2 + 1] = (bottom - top) / 2;
+        mHittable[index] = hittable;
+    }
+
+    /**
+     * 按位置表建立分圈和角度索引，需在 setItem 之后调用
+     *
+     * @param geometry 与子菜单对应的位置表
+     * @param left     主按钮是否在左侧
+     * @param top      主按钮是否在上侧
+     */
+    void build(ArcGeometry geometry, boolean left, boolean top) {
+        mDirX = left ? 1 : -1;
+        mDirY = top ? 1 : -1;
+        mFullRing = geometry.isFullCircle();
+        int count = Math.min(mItemCount, geometry.getItemCount());
+
+        // 各子菜单中心减去各自的偏移即为圆心，取平均值以容纳尺寸不同的子菜单
+        float originX = 0;
+        float originY = 0;
+        for (int i = 0; i < count; i++) {
+            originX += mCenters[i * 2] - mDirX * geometry.getOffsetX(i);
+            originY += mCenters[i * 2 + 1] - mDirY * geometry.getOffsetY(i);
+        }
+        if (count > 0) {
+            originX /= count;
+            originY /= count;
+        }
+        mOriginX = originX;
+        mOriginY = originY;
+
+        int ringCount = geometry.getRingCount();
+        if (mRingRadius.length < ringCount) {
+            mRingRadius = new int[ringCount];
+            mRingFirst = new int[ringCount];
+            mRingItems = new int[ringCount];
+            mRingStart = new double[ringCount];
+            mRingStep = new double[ringCount];
+        }
+        mRingCount = 0;
+        for (int i = 0; i < count; i++) {
+            int radius = geometry.getItemRadius(i);
+            if (mRingCount == 0 || radius != mRingRadius[mRingCount - 1]) {
+                mRingRadius[mRingCount] = radius;
+                mRingFirst[mRingCount] = i;
+                mRingItems[mRingCount] = 0;
+                mRingStart[mRingCount] = geometry.getAngle(i);
+                mRingStep[mRingCount] = 0;
+                mRingCount++;
+            }
+            int ring = mRingCount - 1;
+            if (mRingItems[ring] == 1) {
+                mRingStep[ring] = geometry.getAngle(i) - mRingStart[ring];
+            }
+            mRingItems[ring]++;
+        }
+    }
+
+    /**
+     * 查找触摸点所在的子菜单
+     *
+     * @param slop 子菜单区域向外扩展的距离
+     * @return 子菜单序号，从 0 开始；没有命中时为 -1
+     */
+    int find(float x, float y, float slop) {
+        if (mRingCount == 0) {
+            return -1;
+        }
+        double ix = mDirX * (x - mOriginX);
+        double iy = mDirY * (y - mOriginY);
+        double radius = Math.hypot(ix, iy);
+        // 位置表中角度 0 为竖直方向
+        double angle = Math.atan2(ix, iy);
+
+        int ring = 0;
+        if (mRingCount > 1) {
+            int spacing = mRingRadius[1] - mRingRadius[0];
+            if (spacing > 0) {
+                ring = (int) Math.round((radius - mRingRadius[0]) / spacing);
+                ring = Math.max(0, Math.min(mRingCount - 1, ring));
+            }
+        }
+        int best = -1;
+        float bestDistance = Float.MAX_VALUE;
+        for (int r = ring - 1; r <= ring + 1; r++) {
+            if (r < 0 || r >= mRingCount) {
+                continue;
+            }
+            int slot = slotOf(r, angle);
+            for (int s = slot - 1; s <= slot + 1; s++) {
+                int index = itemAt(r, s);
+                if (index < 0 || !mHittable[index]) {
+                    continue;
+                }
+                float dx = Math.abs(x - mCenters[index * 2]);
+                float dy = Math.abs(y - mCenters[index * 2 + 1]);
+                if (dx <= mHalfSizes[index * 2] + slop && dy <= mHalfSizes[index * 2 + 1] + slop) {
+                    float distance = dx * dx + dy * dy;
+                    if (distance < bestDistance) {
+                        bestDistance = distance;
+                        best = index;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 角度在第 ring 圈上最接近的位置，可能超出 [0, 子菜单数量)
+     */
+    private int slotOf(int ring, double angle) {
+        double step = mRingStep[ring];
+        if (step == 0) {
+            return 0;
+        }
+        double delta = angle - mRingStart[ring];
+        if (mFullRing) {
+            double turn = 2 * Math.PI;
+            delta = ((delta % turn) + turn) % turn;
+            if (step < 0) {
+                delta -= turn;
+            }
+        } else {
+            // 以弧的中间为基准把角度差归一到 (-π, π]，避免跨越 ±π 时找错位置
+            double middle = step * (mRingItems[ring] - 1) / 2;
+            double fromMiddle = delta - middle;
+            delta = Math.atan2(Math.sin(fromMiddle), Math.cos(fromMiddle)) + middle;
+        }
+        return (int) Math.round(delta / step);
+    }
+
+    /**
+     * 第 ring 圈上第 slot 个位置的子菜单序号，整圆时首尾相接
+     */
+    private int itemAt(int ring, int slot) {
+        int items = mRingItems[ring];
+        if (mFullRing) {
+            slot = ((slot % items) + items) % items;
+        } else if (slot < 0 || slot >= items) {
+            return -1;
+        }
+        return mRingFirst[ring] + slot;
+    }
+}
@@ -0,0 +1,368 @@
+package com.chong.arclayout;
+
+/**
+ * 不依赖 android.view 的弧形菜单定位
+ * <p>
+ * 输入子项尺寸和配置，输出每个子项的位置；子项尺寸和位置都保存在调用方提供的基本类型数组中，
+ * 测量、定位过程不创建对象。ArcLayout 的测量、布局由它完成，也可以直接用于在 Canvas 上绘制的菜单，
+ * 或者在 JVM 上测试、测量性能：
+ * <pre>
+ * ArcPlacementEngine engine = new ArcPlacementEngine();
+ * engine.setRadius(280);
+ * engine.update(sizes, count);
+ * int width = engine.measureWidth(sizes, count);
+ * int height = engine.measureHeight(sizes, count);
+ * engine.layout(sizes, count, width, height, rects);
+ * </pre>
+ * 子项序号与子 view 的序号相同：0 为主按钮，之后依次为子菜单。
+ */
+public final class ArcPlacementEngine {
+    /**
+     * 位置数组中每个子项占用的长度，依次为 left、top、right、bottom
+     */
+    public static final int RECT_SIZE = 4;
+    /**
+     * 自动选择弧时尝试的扫过角度，从大到小；扫过角度越小子菜单越拥挤
+     */
+    private static final float[] FIT_SWEEP_ANGLES = {90f, 75f, 60f, 45f, 30f};
+    /**
+     * 自动选择弧时起始角度的步长
+     */
+    private static final float FIT_ANGLE_STEP = 15f;
+
+    private int mRadius;
+    private float mStartAngle = 0f;
+    private float mSweepAngle = 90f;
+    private boolean mLeft;
+    private boolean mTop;
+    private boolean mAutoRing;
+    private int mRingSpacing;
+    /**
+     * 主按钮与所在角落的距离
+     */
+    private int mMarginX;
+    private int mMarginY;
+    private int mPaddingLeft;
+    private int mPaddingTop;
+    private int mPaddingRight;
+    private int mPaddingBottom;
+
+    private ArcPlacementPlan mPlan;
+
+    /**
+     * 是否使用 {@link #fitAngles} 选择的角度代替设置的角度
+     */
+    private boolean mFitted;
+    private float mFitStartAngle;
+    private float mFitSweepAngle;
+    /**
+     * 上一次 fitAngles 的输入，相同时直接使用上一次的结果
+     */
+    private final int[] mFitKey = new int[12];
+    private boolean mFitKeyValid;
+    private boolean mFitResult;
+    /**
+     * 计算候选配置的尺寸，不放入共用的位置表缓存
+     */
+    private final ArcGeometry mFitGeometry = new ArcGeometry();
+
+    public void setRadius(int radius) {
+        mRadius = radius;
+    }
+
+    /**
+     * @param startAngle 起始角度，单位度，0 为竖直方向，90 为水平方向
+     * @param sweepAngle 扫过角度，单位度，绝对值不小于 360 时为整圆
+     */
+    public void setAngles(float startAngle, float sweepAngle) {
+        mStartAngle = startAngle;
+        mSweepAngle = sweepAngle;
+    }
+
+    /**
+     * 在 maxWidth × maxHeight 的范围内选择弧的方向和扫过角度，使所有子项都能放下
+     * <p>
+     * 设置的角度能放下时保持不变；否则在主按钮所在角落的四分之一圆内，
+     * 依次尝试更小的扫过角度和不同的起始角度，选择代价最小的配置：扫过角度最大，
+     * 其次方向与设置的弧最接近，再次测量尺寸最小。都放不下时选择超出最少的配置。
+     * 输入与上一次相同时直接使用上一次的结果，之后的 {@link #update} 使用选择的角度，
+     * 直到调用 {@link #clearFit}。
+     *
+     * @param sizes     依次为每个子项的宽、高
+     * @param count     子项数量，包含主按钮
+     * @param maxWidth  可以使用的宽度，从主按钮所在的一侧算起，包含 margin 和 padding
+     * @param maxHeight 可以使用的高度，从主按钮所在的一侧算起，包含 margin 和 padding
+     * @return true 所有子项都能放下
+     */
+    public boolean fitAngles(int[] sizes, int count, int maxWidth, int maxHeight) {
+        int itemSize = mAutoRing ? maxItemSize(sizes, count) : 0;
+        int contentWidth = ArcGeometry.contentWidth(sizes, count) + mMarginX + mPaddingLeft + mPaddingRight;
+        int contentHeight = ArcGeometry.contentHeight(sizes, count) + mMarginY + mPaddingTop + mPaddingBottom;
+        if (!updateFitKey(count, itemSize, contentWidth, contentHeight, maxWidth, maxHeight)) {
+            return mFitResult;
+        }
+        int itemCount = count - 1;
+        // 设置的角度能放下时不做改变
+        if (itemCount <= 0 || overflow(itemCount, mStartAngle, mSweepAngle, itemSize,
+                contentWidth, contentHeight, maxWidth, maxHeight) == 0) {
+            mFitted = false;
+            mFitResult = true;
+            return true;
+        }
+        float configuredCenter = mStartAngle + mSweepAngle / 2;
+        float bestStart = mStartAngle;
+        float bestSweep = mSweepAngle;
+        long bestOverflow = Long.MAX_VALUE;
+        float bestDistance = Float.MAX_VALUE;
+        long bestArea = Long.MAX_VALUE;
+        boolean found = false;
+        for (float sweep : FIT_SWEEP_ANGLES) {
+            for (float start = 0f; start + sweep <= 90f; start += FIT_ANGLE_STEP) {
+                long overflow = overflow(itemCount, start, sweep, itemSize,
+                        contentWidth, contentHeight, maxWidth, maxHeight);
+                float distance = Math.abs(start + sweep / 2 - configuredCenter);
+                long area = (long) (contentWidth + mFitGeometry.getSpanX() + mFitGeometry.getInsetX())
+                        * (contentHeight + mFitGeometry.getSpanY() + mFitGeometry.getInsetY());
+                boolean better;
+                if (overflow == 0) {
+                    // 扫过角度从大到小尝试，同一扫过角度内比较方向和尺寸
+                    better = !found || distance < bestDistance
+                            || (distance == bestDistance && area < bestArea);
+                } else {
+                    better = !found && overflow < bestOverflow;
+                }
+                if (better) {
+                    bestStart = start;
+                    bestSweep = sweep;
+                    bestOverflow = overflow;
+                    bestDistance = distance;
+                    bestArea = area;
+                }
+                found |= overflow == 0;
+            }
+            if (found) {
+                break;
+            }
+        }
+        mFitted = true;
+        mFitStartAngle = bestStart;
+        mFitSweepAngle = bestSweep;
+        mFitResult = found;
+        return found;
+    }
+
+    /**
+     * 取消 {@link #fitAngles} 的选择，之后使用设置的角度
+     */
+    public void clearFit() {
+        mFitted = false;
+        mFitKeyValid = false;
+    }
+
+    /**
+     * 实际使用的起始角度，没有自动选择时与设置的相同
+     */
+    public float getPlacedStartAngle() {
+        return mFitted ? mFitStartAngle : mStartAngle;
+    }
+
+    /**
+     * 实际使用的扫过角度，没有自动选择时与设置的相同
+     */
+    public float getPlacedSweepAngle() {
+        return mFitted ? mFitSweepAngle : mSweepAngle;
+    }
+
+    /**
+     * 使用给定角度时超出范围的宽、高之和，0 表示能放下
+     */
+    private long overflow(int itemCount, float startAngle, float sweepAngle, int itemSize,
+                          int contentWidth, int contentHeight, int maxWidth, int maxHeight) {
+        mFitGeometry.update(itemCount, mRadius, startAngle, sweepAngle, mLeft, mTop, itemSize, mRingSpacing);
+        int width = contentWidth + mFitGeometry.getSpanX() + mFitGeometry.getInsetX();
+        int height = contentHeight + mFitGeometry.getSpanY() + mFitGeometry.getInsetY();
+        return (long) Math.max(0, width - maxWidth) + Math.max(0, height - maxHeight);
+    }
+
+    /**
+     * 记录本次 fitAngles 的输入
+     *
+     * @return true 输入与上一次不同，需要重新选择
+     */
+    private boolean updateFitKey(int count, int itemSize, int contentWidth, int contentHeight,
+                                 int maxWidth, int maxHeight) {
+        int[] key = mFitKey;
+        boolean changed = !mFitKeyValid
+                | setKey(key, 0, count) | setKey(key, 1, itemSize)
+                | setKey(key, 2, contentWidth) | setKey(key, 3, contentHeight)
+                | setKey(key, 4, maxWidth) | setKey(key, 5, maxHeight)
+                | setKey(key, 6, mRadius) | setKey(key, 7, Float.floatToIntBits(mStartAngle))
+                | setKey(key, 8, Float.floatToIntBits(mSweepAngle))
+                | setKey(key, 9, (mLeft ? 1 : 0) | (mTop ? 2 : 0))
+                | setKey(key, 10, mRingSpacing) | setKey(key, 11, mAutoRing ? 1 : 0);
+        mFitKeyValid = true;
+        return changed;
+    }
+
+    private static boolean setKey(int[] key, int index, int value) {
+        if (key[index] == value) {
+            return false;
+        }
+        key[index] = value;
+        return true;
+    }
+
+    /**
+     * 主按钮所在的角落
+     */
+    public void setCorner(boolean left, boolean top) {
+        mLeft = left;
+        mTop = top;
+    }
+
+    /**
+     * @param autoRing    一圈放不下时是否排到外圈
+     * @param ringSpacing 相邻两圈的半径差，0 表示使用最大的子菜单尺寸
+     */
+    public void setAutoRing(boolean autoRing, int ringSpacing) {
+        mAutoRing = autoRing;
+        mRingSpacing = ringSpacing;
+    }
+
+    /**
+     * 主按钮与所在角落的距离，测量时只计入一次
+     */
+    public void setMargin(int marginX, int marginY) {
+        mMarginX = marginX;
+        mMarginY = marginY;
+    }
+
+    public void setPadding(int left, int top, int right, int bottom) {
+        mPaddingLeft = left;
+        mPaddingTop = top;
+        mPaddingRight = right;
+        mPaddingBottom = bottom;
+    }
+
+    /**
+     * 按子项尺寸选取位置表
+     *
+     * @param sizes 依次为每个子项的宽、高
+     * @param count 子项数量，包含主按钮
+     * @return true 位置表发生了变化，需要重新定位
+     */
+    public boolean update(int[] sizes, int count) {
+        return update(count - 1, mAutoRing ? maxItemSize(sizes, count) : 0);
+    }
+
+    private static int maxItemSize(int[] sizes, int count) {
+        int maxItemSize = 0;
+        for (int i = 1; i < count; i++) {
+            maxItemSize = Math.max(maxItemSize, Math.max(sizes[i * 2], sizes[i * 2 + 1]));
+        }
+        return maxItemSize;
+    }
+
+    /**
+     * 按子菜单数量和最大尺寸选取位置表，输入与当前位置表相同时不做任何事
+     *
+     * @param itemCount   子菜单数量，不含主按钮
+     * @param maxItemSize 子菜单宽、高中的最大值，只在 autoRing 时使用
+     * @return true 位置表发生了变化，需要重新定位
+     */
+    public boolean update(int itemCount, int maxItemSize) {
+        int itemSize = mAutoRing ? maxItemSize : 0;
+        float startAngle = getPlacedStartAngle();
+        float sweepAngle = getPlacedSweepAngle();
+        if (mPlan != null && mPlan.matches(itemCount, mRadius, startAngle, sweepAngle,
+                mLeft, mTop, itemSize, mRingSpacing)) {
+            return false;
+        }
+        mPlan = ArcPlacementPlan.obtain(itemCount, mRadius, startAngle, sweepAngle,
+                mLeft, mTop, itemSize, mRingSpacing);
+        return true;
+    }
+
+    /**
+     * 容纳所有子项所需的宽度，包含 padding
+     */
+    public int measureWidth(int[] sizes, int count) {
+        checkUpdated();
+        ArcGeometry geometry = mPlan.getGeometry();
+        // 子菜单可能分布在主按钮两侧，需要同时容纳两侧的偏移
+        int span = count > 1 ? geometry.getSpanX() + geometry.getInsetX() : mRadius;
+        return ArcGeometry.contentWidth(sizes, count) + span + mMarginX + mPaddingLeft + mPaddingRight;
+    }
+
+    /**
+     * 容纳所有子项所需的高度，包含 padding
+     */
+    public int measureHeight(int[] sizes, int count) {
+        checkUpdated();
+        ArcGeometry geometry = mPlan.getGeometry();
+        int span = count > 1 ? geometry.getSpanY() + geometry.getInsetY() : mRadius;
+        return ArcGeometry.contentHeight(sizes, count) + span + mMarginY + mPaddingTop + mPaddingBottom;
+    }
+
+    /**
+     * 计算所有子项在宽 width、高 height 的区域中的位置
+     *
+     * @param sizes    依次为每个子项的宽、高
+     * @param count    子项数量，包含主按钮
+     * @param outRects 保存结果，长度至少为 count * {@link #RECT_SIZE}
+     */
+    public void layout(int[] sizes, int count, int width, int height, int[] outRects) {
+        for (int i = 0; i < count; i++) {
+            layoutChild(i, sizes[i * 2], sizes[i * 2 + 1], width, height, outRects, i * RECT_SIZE);
+        }
+    }
+
+    /**
+     * 计算一个子项的位置，与 {@link #layout} 的结果相同
+     *
+     * @param child  子项序号，0 为主按钮
+     * @param offset 结果在 outRect 中的起始位置
+     */
+    public void layoutChild(int child, int childWidth, int childHeight, int width, int height,
+                            int[] outRect, int offset) {
+        checkUpdated();
+        int left = mPlan.itemLeft(child - 1, width, childWidth,
+                mPaddingLeft + mMarginX, mPaddingRight + mMarginX);
+        int top = mPlan.itemTop(child - 1, height, childHeight,
+                mPaddingTop + mMarginY, mPaddingBottom + mMarginY);
+        outRect[offset] = left;
+        outRect[offset + 1] = top;
+        outRect[offset + 2] = left + childWidth;
+        outRect[offset + 3] = top + childHeight;
+    }
+
+    /**
+     * 子菜单从自身位置平移到主按钮位置的 x 方向距离，用于展开、关闭动画
+     *
+     * @param item 子菜单序号，从 0 开始，不含主按钮
+     */
+    public int getTranslateX(int item) {
+        checkUpdated();
+        return mPlan.getGeometry().getTranslateX(item);
+    }
+
+    /**
+     * 子菜单从自身位置平移到主按钮位置的 y 方向距离
+     *
+     * @param item 子菜单序号，从 0 开始，不含主按钮
+     */
+    public int getTranslateY(int item) {
+        checkUpdated();
+        return mPlan.getGeometry().getTranslateY(item);
+    }
+
+    ArcPlacementPlan getPlan() {
+        return mPlan;
+    }
+
+    private void checkUpdated() {
+        if (mPlan == null) {
+            throw new IllegalStateException("update() must be called first");
+        }
+    }
+}
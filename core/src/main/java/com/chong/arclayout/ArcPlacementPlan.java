@@ -0,0 +1,172 @@
+package com.chong.arclayout;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 编译后的子菜单位置表
+ * <p>
+ * 由子菜单数量、半径、角度、位置等输入计算一次，之后不再修改，
+ * 输入相同的 ArcLayout（例如列表每一行中的同一种菜单）共用同一个实例，只在第一次使用时计算。
+ */
+final class ArcPlacementPlan {
+    /**
+     * 最多缓存的位置表数量，超过时移除最久未使用的
+     */
+    private static final int MAX_CACHED_PLANS = 32;
+
+    private static final LinkedHashMap<Key, ArcPlacementPlan> sCache =
+            new LinkedHashMap<Key, ArcPlacementPlan>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, ArcPlacementPlan> eldest) {
+                    return size() > MAX_CACHED_PLANS;
+                }
+            };
+
+    private final Key mKey;
+    private final ArcGeometry mGeometry = new ArcGeometry();
+
+    private ArcPlacementPlan(Key key) {
+        mKey = key;
+        mGeometry.update(key.mItemCount, key.mRadius, key.mStartAngle, key.mSweepAngle,
+                key.mLeft, key.mTop, key.mItemSize, key.mRingSpacing);
+    }
+
+    /**
+     * 获取与输入对应的位置表，已缓存时直接返回，否则计算并缓存
+     *
+     * @param itemCount   子项数量（不含主按钮）
+     * @param itemSize    子项尺寸，大于 0 时放不下的子项排到外圈
+     * @param ringSpacing 相邻两圈的半径差，0 表示使用 itemSize
+     */
+    static ArcPlacementPlan obtain(int itemCount, int radius, float startAngle, float sweepAngle,
+                                   boolean left, boolean top, int itemSize, int ringSpacing) {
+        Key key = new Key(itemCount, radius, startAngle, sweepAngle, left, top, itemSize, ringSpacing);
+        synchronized (sCache) {
+            ArcPlacementPlan plan = sCache.get(key);
+            if (plan == null) {
+                plan = new ArcPlacementPlan(key);
+                sCache.put(key, plan);
+            }
+            return plan;
+        }
+    }
+
+    /**
+     * 清空缓存，供测试使用
+     */
+    static void clearCache() {
+        synchronized (sCache) {
+            sCache.clear();
+        }
+    }
+
+    static int getCacheSize() {
+        synchronized (sCache) {
+            return sCache.size();
+        }
+    }
+
+    /**
+     * 输入是否与本位置表相同，不创建对象，供每次测量、布局时判断是否需要更换位置表
+     */
+    boolean matches(int itemCount, int radius, float startAngle, float sweepAngle,
+                    boolean left, boolean top, int itemSize, int ringSpacing) {
+        return mKey.matches(itemCount, radius, startAngle, sweepAngle, left, top, itemSize, ringSpacing);
+    }
+
+    /**
+     * 位置表，调用方只能读取，不能调用 update 修改
+     */
+    ArcGeometry getGeometry() {
+        return mGeometry;
+    }
+
+    /**
+     * 第 index 个子菜单在布局中的水平位置，主按钮和子菜单使用同一套边距计算
+     *
+     * @param index        子菜单序号，从 0 开始；-1 表示主按钮
+     * @param layoutWidth  布局宽度
+     * @param childWidth   子 view 宽度
+     * @param paddingLeft  左侧 padding 与 x 方向边距之和
+     * @param paddingRight 右侧 padding 与 x 方向边距之和
+     */
+    int itemLeft(int index, int layoutWidth, int childWidth, int paddingLeft, int paddingRight) {
+        int offset = mGeometry.getInsetX() + (index >= 0 ? mGeometry.getOffsetX(index) : 0);
+        if (mKey.mLeft) {
+            return paddingLeft + offset;
+        }
+        return layoutWidth - paddingRight - offset - childWidth;
+    }
+
+    /**
+     * 第 index 个子菜单在布局中的竖直位置
+     *
+     * @param index 子菜单序号，从 0 开始；-1 表示主按钮
+     */
+    int itemTop(int index, int layoutHeight, int childHeight, int paddingTop, int paddingBottom) {
+        int offset = mGeometry.getInsetY() + (index >= 0 ? mGeometry.getOffsetY(index) : 0);
+        if (mKey.mTop) {
+            return paddingTop + offset;
+        }
+        return layoutHeight - paddingBottom - offset - childHeight;
+    }
+
+    private static final class Key {
+        private final int mItemCount;
+        private final int mRadius;
+        private final float mStartAngle;
+        private final float mSweepAngle;
+        private final boolean mLeft;
+        private final boolean mTop;
+        private final int mItemSize;
+        private final int mRingSpacing;
+
+        Key(int itemCount, int radius, float startAngle, float sweepAngle,
+            boolean left, boolean top, int itemSize, int ringSpacing) {
+            mItemCount = itemCount;
+            mRadius = radius;
+            mStartAngle = startAngle;
+            mSweepAngle = sweepAngle;
+            mLeft = left;
+            mTop = top;
+            mItemSize = itemSize;
+            mRingSpacing = ringSpacing;
+        }
+
+        boolean matches(int itemCount, int radius, float startAngle, float sweepAngle,
+                        boolean left, boolean top, int itemSize, int ringSpacing) {
+            return itemCount == mItemCount && radius == mRadius
+                    && Float.compare(startAngle, mStartAngle) == 0
+                    && Float.compare(sweepAngle, mSweepAngle) == 0
+                    && left == mLeft && top == mTop
+                    && itemSize == mItemSize && ringSpacing == mRingSpacing;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return key.matches(mItemCount, mRadius, mStartAngle, mSweepAngle,
+                    mLeft, mTop, mItemSize, mRingSpacing);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mItemCount;
+            result = 31 * result + mRadius;
+            result = 31 * result + Float.floatToIntBits(mStartAngle);
+            result = 31 * result + Float.floatToIntBits(mSweepAngle);
+            result = 31 * result + (mLeft ? 1 : 0);
+            result = 31 * result + (mTop ? 1 : 0);
+            result = 31 * result + mItemSize;
+            result = 31 * result + mRingSpacing;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.chong.arclayout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * ArcGeometry 位置表的单元测试
+ */
+public class ArcGeometryTest {
+
+    @Test
+    public void cachedOffsets_matchDirectFormula() throws Exception {
+        int[] radii = {100, 140, 367};
+        for (int radius : radii) {
+            for (int itemCount = 2; itemCount <= 16; itemCount++) {
+                ArcGeometry geometry = new ArcGeometry();
+                geometry.update(itemCount, radius, 0f, 90f, false, false);
+                // onLayout/toggleMenu 原有的计算方式，count 为包含主按钮的子 view 数量
+                int count = itemCount + 1;
+                for (int i = 0; i < itemCount; i++) {
+                    int childLeft = (int) (radius * Math.sin(Math.PI / 2 / (count - 2) * i));
+                    int childTop = (int) (radius * Math.cos(Math.PI / 2 / (count - 2) * i));
+                    assertEquals(childLeft, geometry.getOffsetX(i));
+                    assertEquals(childTop, geometry.getOffsetY(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void translate_followsLocation() throws Exception {
+        ArcGeometry geometry = new ArcGeometry();
+        geometry.update(5, 100, 0f, 90f, true, true);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(-geometry.getOffsetX(i), geometry.getTranslateX(i));
+            assertEquals(-geometry.getOffsetY(i), geometry.getTranslateY(i));
+        }
+        geometry.update(5, 100, 0f, 90f, false, false);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(geometry.getOffsetX(i), geometry.getTranslateX(i));
+            assertEquals(geometry.getOffsetY(i), geometry.getTranslateY(i));
+        }
+    }
+
+    @Test
+    public void repeatedToggle_doesNoTrig() throws Exception {
+        ArcGeometry geometry = new ArcGeometry();
+        assertTrue(geometry.update(5, 100, 0f, 90f, false, false));
+        assertEquals(1, geometry.getComputeCount());
+
+        // 模拟多次 onLayout/toggleMenu：输入不变时只读缓存
+        for (int n = 0; n < 100; n++) {
+            assertFalse(geometry.update(5, 100, 0f, 90f, false, false));
+            for (int i = 0; i < 5; i++) {
+                geometry.getTranslateX(i);
+                geometry.getTranslateY(i);
+            }
+        }
+        assertEquals(1, geometry.getComputeCount());
+    }
+
+    @Test
+    public void inputChange_invalidatesCache() throws Exception {
+        ArcGeometry geometry = new ArcGeometry();
+        geometry.update(5, 100, 0f, 90f, false, false);
+        assertTrue(geometry.update(6, 100, 0f, 90f, false, false));
+        assertTrue(geometry.update(6, 120, 0f, 90f, false, false));
+        assertTrue(geometry.update(6, 120, 10f, 90f, false, false));
+        assertTrue(geometry.update(6, 120, 10f, 80f, false, false));
+        assertTrue(geometry.update(6, 120, 10f, 80f, true, false));
+        assertEquals(6, geometry.getComputeCount());
+
+        geometry.invalidate();
+        assertTrue(geometry.update(6, 120, 10f, 80f, true, false));
+    }
+
+    @Test
+    public void singleItem_sitsInMiddleOfArc() throws Exception {
+        ArcGeometry geometry = new ArcGeometry();
+        geometry.update(1, 100, 0f, 90f, false, false);
+        assertEquals((int) (100 * Math.sin(Math.PI / 4)), geometry.getOffsetX(0));
+        assertEquals((int) (100 * Math.cos(Math.PI / 4)), geometry.getOffsetY(0));
+    }
+
+    @Test
+    public void fullRing_doesNotOverlapEnds() throws Exception {
+        ArcGeometry geometry = new ArcGeometry();
+        geometry.update(4, 100, 0f, 360f, false, false);
+        assertEquals(0, geometry.getOffsetX(0));
+        assertEquals(100, geometry.getOffsetY(0));
+        assertEquals(-100, geometry.getOffsetY(2));
+        assertEquals(-100, geometry.getOffsetX(3));
+        // 整圆时子项分布在主按钮两侧
+        assertEquals(100, geometry.getInsetX());
+        assertEquals(100, geometry.getInsetY());
+        assertEquals(100, geometry.getSpanX());
+        assertEquals(100, geometry.getSpanY());
+    }
+
+    @Test
+    public void overlappingItems_overflowToOuterRings() throws Exception {
+        ArcGeometry geometry = new ArcGeometry();
+        // 不指定子项尺寸时只排一圈
+        geometry.update(10, 100, 0f, 90f, false, false);
+        assertEquals(1, geometry.getRingCount());
+
+        // 半径 100 的四分之一圆弧放 4 个，半径 150 放 5 个，剩下 1 个排到半径 200
+        geometry.update(10, 100, 0f, 90f, false, false, 50, 0);
+        assertEquals(3, geometry.getRingCount());
+        assertEquals(100, geometry.getItemRadius(3));
+        assertEquals(150, geometry.getItemRadius(4));
+        assertEquals(150, geometry.getItemRadius(8));
+        assertEquals(200, geometry.getItemRadius(9));
+    }
+}
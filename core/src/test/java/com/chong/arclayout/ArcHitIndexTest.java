@@ -0,0 +1,105 @@
+package com.chong.arclayout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * ArcHitIndex 触摸命中索引的单元测试
+ */
+public class ArcHitIndexTest {
+    private static final int ITEM_SIZE = 40;
+    private static final int LAYOUT_SIZE = 600;
+
+    /**
+     * 按 ArcLayout 的方式摆放子菜单：偏移相对主按钮靠近所在角的一侧
+     */
+    private static ArcHitIndex buildIndex(ArcGeometry geometry, boolean left, boolean top) {
+        ArcHitIndex index = new ArcHitIndex();
+        int count = geometry.getItemCount();
+        index.begin(count);
+        for (int i = 0; i < count; i++) {
+            // 整圆时子菜单分布在主按钮两侧，主按钮放在布局中间
+            int l = left ? LAYOUT_SIZE / 2 + geometry.getOffsetX(i)
+                    : LAYOUT_SIZE / 2 - geometry.getOffsetX(i) - ITEM_SIZE;
+            int t = top ? LAYOUT_SIZE / 2 + geometry.getOffsetY(i)
+                    : LAYOUT_SIZE / 2 - geometry.getOffsetY(i) - ITEM_SIZE;
+            index.setItem(i, l, t, l + ITEM_SIZE, t + ITEM_SIZE, true);
+        }
+        index.build(geometry, left, top);
+        return index;
+    }
+
+    private static void assertCentersHitThemselves(ArcGeometry geometry, boolean left, boolean top) {
+        ArcHitIndex index = buildIndex(geometry, left, top);
+        for (int i = 0; i < geometry.getItemCount(); i++) {
+            float x = left ? LAYOUT_SIZE / 2 + geometry.getOffsetX(i) + ITEM_SIZE / 2
+                    : LAYOUT_SIZE / 2 - geometry.getOffsetX(i) - ITEM_SIZE / 2;
+            float y = top ? LAYOUT_SIZE / 2 + geometry.getOffsetY(i) + ITEM_SIZE / 2
+                    : LAYOUT_SIZE / 2 - geometry.getOffsetY(i) - ITEM_SIZE / 2;
+            assertEquals(i, index.find(x, y, 0));
+        }
+    }
+
+    @Test
+    public void itemCenters_resolveToItem() throws Exception {
+        boolean[] flags = {true, false};
+        for (boolean left : flags) {
+            for (boolean top : flags) {
+                ArcGeometry geometry = new ArcGeometry();
+                geometry.update(5, 150, 0f, 90f, left, top);
+                assertCentersHitThemselves(geometry, left, top);
+            }
+        }
+    }
+
+    @Test
+    public void fullRingAndOuterRings_resolveToItem() throws Exception {
+        ArcGeometry geometry = new ArcGeometry();
+        geometry.update(8, 150, 0f, 360f, false, false);
+        assertCentersHitThemselves(geometry, false, false);
+
+        geometry.update(8, 150, 30f, -360f, true, true);
+        assertCentersHitThemselves(geometry, true, true);
+
+        geometry.update(12, 100, 0f, 90f, true, false, ITEM_SIZE + 10, 0);
+        assertTrue(geometry.getRingCount() > 1);
+        assertCentersHitThemselves(geometry, true, false);
+
+        geometry.update(5, 150, 200f, 270f, false, true);
+        assertCentersHitThemselves(geometry, false, true);
+    }
+
+    @Test
+    public void touchOutsideItems_missesUnlessWithinSlop() throws Exception {
+        ArcGeometry geometry = new ArcGeometry();
+        geometry.update(3, 150, 0f, 90f, true, true);
+        ArcHitIndex index = buildIndex(geometry, true, true);
+
+        // 第一个子菜单在主按钮正下方，左边缘在布局中间
+        float x = LAYOUT_SIZE / 2 - 5;
+        float y = LAYOUT_SIZE / 2 + geometry.getOffsetY(0) + ITEM_SIZE / 2;
+        assertEquals(-1, index.find(x, y, 0));
+        assertEquals(0, index.find(x, y, 8));
+
+        assertEquals(-1, index.find(LAYOUT_SIZE / 2 + 80, LAYOUT_SIZE / 2 + 80, 8));
+    }
+
+    @Test
+    public void hiddenItem_isNotHit() throws Exception {
+        ArcGeometry geometry = new ArcGeometry();
+        geometry.update(3, 150, 0f, 90f, true, true);
+        ArcHitIndex index = new ArcHitIndex();
+        index.begin(3);
+        for (int i = 0; i < 3; i++) {
+            int l = LAYOUT_SIZE / 2 + geometry.getOffsetX(i);
+            int t = LAYOUT_SIZE / 2 + geometry.getOffsetY(i);
+            index.setItem(i, l, t, l + ITEM_SIZE, t + ITEM_SIZE, i != 1);
+        }
+        index.build(geometry, true, true);
+
+        float x = LAYOUT_SIZE / 2 + geometry.getOffsetX(1) + ITEM_SIZE / 2;
+        float y = LAYOUT_SIZE / 2 + geometry.getOffsetY(1) + ITEM_SIZE / 2;
+        assertEquals(-1, index.find(x, y, 0));
+    }
+}
@@ -0,0 +1,128 @@
+package com.chong.arclayout;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * ArcPlacementEngine 的单元测试
+ */
+public class ArcPlacementEngineTest {
+    private static final int COUNT = 5;
+
+    private ArcPlacementEngine mEngine;
+    private int[] mSizes;
+    private int[] mRects;
+
+    @Before
+    public void setUp() throws Exception {
+        ArcPlacementPlan.clearCache();
+        mEngine = new ArcPlacementEngine();
+        mEngine.setRadius(200);
+        mEngine.setMargin(20, 20);
+        mSizes = new int[COUNT * 2];
+        for (int i = 0; i < mSizes.length; i++) {
+            mSizes[i] = 48;
+        }
+        mRects = new int[COUNT * ArcPlacementEngine.RECT_SIZE];
+    }
+
+    @Test
+    public void rightBottom_placesMainButtonInCorner() throws Exception {
+        assertTrue(mEngine.update(mSizes, COUNT));
+        int width = mEngine.measureWidth(mSizes, COUNT);
+        int height = mEngine.measureHeight(mSizes, COUNT);
+        assertEquals(48 + 200 + 20, width);
+        assertEquals(48 + 200 + 20, height);
+
+        mEngine.layout(mSizes, COUNT, width, height, mRects);
+        assertArrayEquals(new int[]{width - 20 - 48, height - 20 - 48, width - 20, height - 20},
+                rect(0));
+        // 第一个子菜单在主按钮正上方，最后一个在正左方
+        assertEquals(rect(0)[0], rect(1)[0]);
+        assertEquals(rect(0)[1] - 200, rect(1)[1]);
+        assertEquals(rect(0)[0] - 200, rect(COUNT - 1)[0]);
+        assertEquals(rect(0)[1], rect(COUNT - 1)[1]);
+    }
+
+    @Test
+    public void leftTop_mirrorsRightBottom() throws Exception {
+        mEngine.setCorner(true, true);
+        mEngine.setPadding(4, 6, 0, 0);
+        mEngine.update(mSizes, COUNT);
+        mEngine.layout(mSizes, COUNT, 500, 500, mRects);
+        assertEquals(4 + 20, rect(0)[0]);
+        assertEquals(6 + 20, rect(0)[1]);
+        assertEquals(rect(0)[1] + 200, rect(1)[1]);
+        assertEquals(rect(0)[0] + 200, rect(COUNT - 1)[0]);
+        assertEquals(-200, mEngine.getTranslateY(0));
+    }
+
+    @Test
+    public void layoutChild_matchesLayout() throws Exception {
+        mEngine.setAngles(-30f, 240f);
+        mEngine.update(mSizes, COUNT);
+        mEngine.layout(mSizes, COUNT, 600, 600, mRects);
+        int[] single = new int[ArcPlacementEngine.RECT_SIZE];
+        for (int i = 0; i < COUNT; i++) {
+            mEngine.layoutChild(i, 48, 48, 600, 600, single, 0);
+            assertArrayEquals(rect(i), single);
+        }
+    }
+
+    @Test
+    public void unchangedInputs_keepPlan() throws Exception {
+        assertTrue(mEngine.update(mSizes, COUNT));
+        ArcPlacementPlan plan = mEngine.getPlan();
+        assertFalse(mEngine.update(mSizes, COUNT));
+        assertSame(plan, mEngine.getPlan());
+
+        // 只在 autoRing 时子菜单尺寸才影响位置表
+        mSizes[2] = 96;
+        assertFalse(mEngine.update(mSizes, COUNT));
+        mEngine.setAutoRing(true, 0);
+        assertTrue(mEngine.update(mSizes, COUNT));
+    }
+
+    @Test
+    public void fitAngles_keepsConfiguredArcWhenItFits() throws Exception {
+        assertTrue(mEngine.fitAngles(mSizes, COUNT, 1000, 1000));
+        assertEquals(0f, mEngine.getPlacedStartAngle(), 0f);
+        assertEquals(90f, mEngine.getPlacedSweepAngle(), 0f);
+    }
+
+    @Test
+    public void fitAngles_flattensArcForShortSpace() throws Exception {
+        // 高度只有 180 时弧需要贴近水平方向
+        assertTrue(mEngine.fitAngles(mSizes, COUNT, 1000, 180));
+        assertEquals(60f, mEngine.getPlacedStartAngle(), 0f);
+        assertEquals(30f, mEngine.getPlacedSweepAngle(), 0f);
+        assertTrue(mEngine.update(mSizes, COUNT));
+        assertTrue(mEngine.measureHeight(mSizes, COUNT) <= 180);
+        assertTrue(mEngine.measureWidth(mSizes, COUNT) <= 1000);
+
+        // 输入不变时使用上一次的结果，位置表不变
+        assertTrue(mEngine.fitAngles(mSizes, COUNT, 1000, 180));
+        assertFalse(mEngine.update(mSizes, COUNT));
+
+        // 放不下时选择超出最少的配置
+        assertFalse(mEngine.fitAngles(mSizes, COUNT, 1000, 100));
+        assertEquals(60f, mEngine.getPlacedStartAngle(), 0f);
+
+        mEngine.clearFit();
+        assertTrue(mEngine.update(mSizes, COUNT));
+        assertEquals(0f, mEngine.getPlacedStartAngle(), 0f);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void layoutBeforeUpdate_throws() throws Exception {
+        mEngine.layout(mSizes, COUNT, 100, 100, mRects);
+    }
+
+    private int[] rect(int child) {
+        int[] rect = new int[ArcPlacementEngine.RECT_SIZE];
+        System.arraycopy(mRects, child * ArcPlacementEngine.RECT_SIZE, rect, 0, rect.length);
+        return rect;
+    }
+}
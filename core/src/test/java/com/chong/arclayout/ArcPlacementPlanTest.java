@@ -0,0 +1,61 @@
+package com.chong.arclayout;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * ArcPlacementPlan 位置表缓存的单元测试
+ */
+public class ArcPlacementPlanTest {
+
+    @Before
+    public void setUp() throws Exception {
+        ArcPlacementPlan.clearCache();
+    }
+
+    @Test
+    public void identicalInputs_shareOnePlan() throws Exception {
+        ArcPlacementPlan first = ArcPlacementPlan.obtain(4, 200, 0f, 90f, false, false, 0, 0);
+        ArcPlacementPlan second = ArcPlacementPlan.obtain(4, 200, 0f, 90f, false, false, 0, 0);
+        assertSame(first, second);
+        assertEquals(1, first.getGeometry().getComputeCount());
+
+        assertNotSame(first, ArcPlacementPlan.obtain(4, 200, 0f, 90f, true, false, 0, 0));
+        assertNotSame(first, ArcPlacementPlan.obtain(5, 200, 0f, 90f, false, false, 0, 0));
+        assertEquals(3, ArcPlacementPlan.getCacheSize());
+        assertTrue(first.matches(4, 200, 0f, 90f, false, false, 0, 0));
+        assertFalse(first.matches(4, 200, 10f, 90f, false, false, 0, 0));
+    }
+
+    @Test
+    public void cache_isBounded() throws Exception {
+        for (int radius = 100; radius < 200; radius++) {
+            ArcPlacementPlan.obtain(4, radius, 0f, 90f, false, false, 0, 0);
+        }
+        assertTrue(ArcPlacementPlan.getCacheSize() <= 32);
+    }
+
+    @Test
+    public void mainButtonAndItems_useSamePadding() throws Exception {
+        ArcPlacementPlan plan = ArcPlacementPlan.obtain(3, 100, 0f, 90f, false, false, 0, 0);
+        ArcGeometry geometry = plan.getGeometry();
+        // 右下：主按钮和子菜单的右、下边缘都以同一个边距为基准
+        assertEquals(500 - 30 - 40, plan.itemLeft(-1, 500, 40, 10, 30));
+        assertEquals(400 - 25 - 40, plan.itemTop(-1, 400, 40, 5, 25));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(500 - 30 - geometry.getOffsetX(i) - 40, plan.itemLeft(i, 500, 40, 10, 30));
+            assertEquals(400 - 25 - geometry.getOffsetY(i) - 40, plan.itemTop(i, 400, 40, 5, 25));
+        }
+
+        plan = ArcPlacementPlan.obtain(3, 100, 0f, 90f, true, true, 0, 0);
+        geometry = plan.getGeometry();
+        assertEquals(10, plan.itemLeft(-1, 500, 40, 10, 30));
+        assertEquals(5, plan.itemTop(-1, 400, 40, 5, 25));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(10 + geometry.getOffsetX(i), plan.itemLeft(i, 500, 40, 10, 30));
+            assertEquals(5 + geometry.getOffsetY(i), plan.itemTop(i, 400, 40, 5, 25));
+        }
+    }
+}